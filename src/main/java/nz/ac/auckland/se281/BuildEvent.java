@@ -0,0 +1,21 @@
+package nz.ac.auckland.se281;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Building the graph from the verticies and edges read from a file. */
+@Name("nz.ac.auckland.se281.Build")
+@Label("Build Graph")
+@Description("Building a graph from a parsed file, where the edges are the distinct edges")
+class BuildEvent extends GraphEvent {
+  @Label("Storage")
+  String storage;
+
+  @Label("Ordering")
+  String ordering;
+
+  @Label("Primitive")
+  @Description("If the graph of integer verticies was built rather than the generic graph")
+  boolean primitive;
+}
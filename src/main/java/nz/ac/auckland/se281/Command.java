@@ -6,8 +6,22 @@ package nz.ac.auckland.se281;
  * <p>You should not modify this class.
  */
 public enum Command {
-  OPEN_FILE(1, "Open the file <FILENAME>"),
+  OPEN_FILE(1, "Open the DOT, edge list or Matrix Market file <FILENAME>"),
+  OPEN_FILE_ASYNC(1, "Open the file <FILENAME> in the background, keeping the current graph open"),
+  LOAD_STATUS(0, "Print the progress of the file opening in the background"),
+  CANCEL_LOAD(0, "Cancel the file opening in the background"),
+  WAIT_LOAD(0, "Wait for the file opening in the background to finish"),
+  WATCH(0, "Apply changes to the open file to the graph whenever the file is saved"),
+  UNWATCH(0, "Stop watching the open file for changes"),
+  STORAGE(
+      1, "Store graphs opened afterwards in <HEAP|COMPRESSED|OFF_HEAP|MAPPED_FILE> memory"),
+  ORDER(1, "Number the verticies of HEAP graphs opened afterwards in <NONE|BFS|RCM|DEGREE> order"),
+  SCRATCH(
+      2,
+      "Keep the scratch files of external searches in <DIRECTORY>, sorting <BUFFER_SIZE> pairs in"
+          + " memory at a time"),
   INFO(0, "Print information about the current loaded file"),
+  MEMORY(0, "Print the estimated memory of each structure holding the current loaded file"),
 
   LIST_VERTICIES_EDGES(0, "List the set of vertices and edges"),
   LIST_ROOT_VERTICIES(0, "List the set of root vertices"),
@@ -17,7 +31,13 @@ public enum Command {
   CHECK_TRANSITIVITY(0, "Check transitivity of the graph"),
   CHECK_ANTISYMMETRY(0, "Check anti-symmetry of the graph"),
   CHECK_EQUIVALENCE(0, "Check equivalence of the graph"),
+  ANALYZE(0, "Check every property of the graph and count its roots and classes in one pass"),
+  DEGREE_STATS(0, "Print the minimum, maximum and mean degrees and a histogram of the degrees"),
+  COMPONENTS(0, "Find the weakly connected components in parallel and print the size of each"),
   COMPUTE_EQUIVALENCE(1, "Compute equivalence class for a vertex in loaded file <VERTEX>"),
+  COMPUTE_EQUIVALENCE_BATCH(
+      1, "Compute equivalence classes for comma separated verticies <VERTEX,VERTEX,...>"),
+  QUOTIENT(0, "Collapse each class of mutually reachable vertices into its smallest vertex"),
 
   GRAPH_SEARCH_IBFS(
       0, "Perform a breadth-first search on the current loaded file, and display the BFS order"),
@@ -33,6 +53,27 @@ public enum Command {
       "Perform a recursive depth-first search on the current loaded file, and display the DFS"
           + " order"),
 
+  GRAPH_SEARCH_IBFS_LIMIT(
+      1,
+      "Perform a breadth-first search on the current loaded file, and display the first <LIMIT>"
+          + " verticies of the BFS order"),
+  GRAPH_SEARCH_IDFS_LIMIT(
+      1,
+      "Perform a depth-first search on the current loaded file, and display the first <LIMIT>"
+          + " verticies of the DFS order"),
+
+  GRAPH_SEARCH_EXTERNAL_BFS(
+      1,
+      "Perform a breadth-first search on the edge list <FILENAME> using scratch files instead of"
+          + " loading it, and display the BFS order"),
+
+  REACHABLE(2, "Check if vertex <VERTEX_B> is reachable from vertex <VERTEX_A>"),
+  SHORTEST_PATH(2, "Find a shortest path from vertex <VERTEX_A> to vertex <VERTEX_B>"),
+  DISTANCES(1, "Compute the number of edges from vertex <VERTEX> to every vertex"),
+  ROOT_DISTANCES(0, "Compute the number of edges from every root vertex to each vertex it reaches"),
+  ROOT_LEVELS(
+      0, "Compute the number of edges from the nearest root vertex to each vertex in supersteps"),
+
   HELP(0, "Print usage"),
   EXIT(0, "Exit the application");
 
@@ -0,0 +1,168 @@
+package nz.ac.auckland.se281;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import nz.ac.auckland.se281.datastructures.MemoryFootprint;
+import nz.ac.auckland.se281.datastructures.PackedEdgeSet;
+
+/**
+ * The verticies and edges of a graph file, compacted once the graph has been built from them so
+ * that they can still be listed and compared with later loads of the file for the rest of the
+ * session. The names of the verticies are kept as UTF-8 bytes in a single arena rather than as a
+ * string each, or only as integers when every name is the decimal string of one, and each distinct
+ * edge is kept once, grouped by its source. The arrays of the file are rebuilt whenever they are
+ * asked for, in the same positions as in the loader that was compacted.
+ */
+public class CompactGraphFile implements GraphFileLoader {
+  private final int[] integerVerticies;
+
+  private final byte[] nameBytes;
+
+  private final int[] nameOffsets;
+
+  private final int[] edgeOffsets;
+
+  private final int[] destinations;
+
+  /**
+   * Compacts the verticies and edges read by a loader, which can then be released.
+   *
+   * @param loader The loader holding the verticies and edges of the file.
+   */
+  public CompactGraphFile(final GraphFileLoader loader) {
+    integerVerticies = loader.getIntegerVerticies();
+    final int size;
+
+    if (integerVerticies != null) {
+      // The names are the decimal strings of the integers, so only the integers are kept.
+      size = integerVerticies.length;
+      nameBytes = null;
+      nameOffsets = null;
+    } else {
+      final String[] names = loader.getVerticies();
+      size = names.length;
+      nameOffsets = new int[size + 1];
+      byte[] bytes = new byte[16];
+
+      for (int i = 0; i < size; i++) {
+        final byte[] name = names[i].getBytes(StandardCharsets.UTF_8);
+
+        while (nameOffsets[i] + name.length > bytes.length) {
+          bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+
+        System.arraycopy(name, 0, bytes, nameOffsets[i], name.length);
+        nameOffsets[i + 1] = nameOffsets[i] + name.length;
+      }
+
+      nameBytes = Arrays.copyOf(bytes, nameOffsets[size]);
+    }
+
+    // Sorting the packed edges groups them by source and puts repeated edges next to each other.
+    final int[] sources = loader.getSources();
+    final int[] loadedDestinations = loader.getDestinations();
+    final long[] edges = new long[sources.length];
+
+    for (int i = 0; i < edges.length; i++) {
+      edges[i] = PackedEdgeSet.pack(sources[i], loadedDestinations[i]);
+    }
+
+    Arrays.sort(edges);
+    edgeOffsets = new int[size + 1];
+    int count = 0;
+
+    for (int i = 0; i < edges.length; i++) {
+      if (i == 0 || edges[i] != edges[i - 1]) {
+        edges[count++] = edges[i];
+        edgeOffsets[PackedEdgeSet.getSource(edges[i]) + 1]++;
+      }
+    }
+
+    for (int i = 0; i < size; i++) {
+      edgeOffsets[i + 1] += edgeOffsets[i];
+    }
+
+    destinations = new int[count];
+
+    for (int i = 0; i < count; i++) {
+      destinations[i] = PackedEdgeSet.getTarget(edges[i]);
+    }
+  }
+
+  /**
+   * Gets every vertex of the file, creating the strings of their names from the compact names.
+   *
+   * @return The verticies, in the same positions as in the compacted loader.
+   */
+  @Override
+  public String[] getVerticies() {
+    final String[] names = new String[edgeOffsets.length - 1];
+
+    for (int i = 0; i < names.length; i++) {
+      names[i] =
+          integerVerticies != null
+              ? String.valueOf(integerVerticies[i])
+              : new String(
+                  nameBytes,
+                  nameOffsets[i],
+                  nameOffsets[i + 1] - nameOffsets[i],
+                  StandardCharsets.UTF_8);
+    }
+
+    return names;
+  }
+
+  /**
+   * Gets every vertex of the file as an integer.
+   *
+   * @return The verticies, or null if any vertex is not the decimal string of an integer.
+   */
+  @Override
+  public int[] getIntegerVerticies() {
+    return integerVerticies;
+  }
+
+  /**
+   * Gets the position of the source of every distinct edge of the file.
+   *
+   * @return The sources, in ascending order.
+   */
+  @Override
+  public int[] getSources() {
+    final int[] sources = new int[destinations.length];
+
+    for (int source = 0; source + 1 < edgeOffsets.length; source++) {
+      Arrays.fill(sources, edgeOffsets[source], edgeOffsets[source + 1], source);
+    }
+
+    return sources;
+  }
+
+  /**
+   * Gets the position of the destination of every distinct edge of the file.
+   *
+   * @return The destinations, in the same order as the sources.
+   */
+  @Override
+  public int[] getDestinations() {
+    return destinations;
+  }
+
+  /**
+   * Adds the estimated sizes of the compact verticies and edges to a footprint.
+   *
+   * @param footprint The footprint to add to.
+   */
+  @Override
+  public void estimateFootprint(final MemoryFootprint footprint) {
+    footprint.add(
+        "file vertex names",
+        MemoryFootprint.estimateArrayBytes(nameBytes)
+            + MemoryFootprint.estimateArrayBytes(nameOffsets));
+    footprint.add("file vertex numbers", MemoryFootprint.estimateArrayBytes(integerVerticies));
+    footprint.add(
+        "file edges",
+        MemoryFootprint.estimateArrayBytes(edgeOffsets)
+            + MemoryFootprint.estimateArrayBytes(destinations));
+  }
+}
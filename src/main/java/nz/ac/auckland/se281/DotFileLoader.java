@@ -0,0 +1,810 @@
+package nz.ac.auckland.se281;
+
+import com.paypal.digraph.parser.GraphEdge;
+import com.paypal.digraph.parser.GraphParser;
+import com.paypal.digraph.parser.GraphParserException;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import nz.ac.auckland.se281.datastructures.IntGraph;
+import nz.ac.auckland.se281.datastructures.MemoryFootprint;
+
+/**
+ * Loads the verticies and edges of a DOT file. The file is memory mapped and split into chunks at
+ * line breaks, and each chunk is parsed on a worker thread into its own vertex dictionary and edge
+ * buffer, which are then merged. Files that use DOT syntax beyond plain node and edge statements
+ * are read by the full DOT parser instead.
+ */
+public class DotFileLoader implements GraphFileLoader {
+  private static final long MIN_CHUNK_SIZE = 1L << 20;
+
+  private static final long MAX_CHUNK_SIZE = 1L << 28;
+
+  private static final int BOUNDARY_BUFFER_SIZE = 1 << 16;
+
+  private String[] verticies;
+
+  private int[] sources;
+
+  private int[] destinations;
+
+  private int[] integerVerticies;
+
+  private boolean integerChecked;
+
+  /**
+   * Loads a DOT file, splitting it into enough chunks to keep every processor busy.
+   *
+   * @param file The file to read.
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  public DotFileLoader(final Path file) throws FileNotFoundException {
+    this(file, new LoadProgress());
+  }
+
+  /**
+   * Loads a DOT file, splitting it into enough chunks to keep every processor busy and reporting
+   * progress as the chunks are parsed.
+   *
+   * @param file The file to read.
+   * @param progress The progress of the load, which can cancel it.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws java.util.concurrent.CancellationException If the load is cancelled.
+   */
+  public DotFileLoader(final Path file, final LoadProgress progress)
+      throws FileNotFoundException {
+    this(file, chooseChunkSize(file.toFile().length()), progress);
+  }
+
+  /**
+   * Loads a DOT file.
+   *
+   * @param file The file to read.
+   * @param chunkSize The number of bytes each worker parses, which is extended to the next line.
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  public DotFileLoader(final Path file, final long chunkSize) throws FileNotFoundException {
+    this(file, chunkSize, new LoadProgress());
+  }
+
+  /**
+   * Loads a DOT file, reporting progress as the chunks are parsed.
+   *
+   * @param file The file to read.
+   * @param chunkSize The number of bytes each worker parses, which is extended to the next line.
+   * @param progress The progress of the load, which can cancel it.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws java.util.concurrent.CancellationException If the load is cancelled.
+   */
+  public DotFileLoader(final Path file, final long chunkSize, final LoadProgress progress)
+      throws FileNotFoundException {
+    if (!file.toFile().isFile()) {
+      throw new FileNotFoundException(file.toString());
+    }
+
+    final Chunk[] chunks;
+
+    try {
+      chunks = parseChunks(file, Math.max(1, chunkSize), progress);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    if (chunks != null && isComplete(chunks)) {
+      merge(chunks);
+    } else {
+      readWithParser(file, progress);
+    }
+  }
+
+  /**
+   * Gets every vertex of the file, in the order they first appear.
+   *
+   * @return The verticies, each of which appears once.
+   */
+  @Override
+  public String[] getVerticies() {
+    return verticies;
+  }
+
+  /**
+   * Gets the position in {@link #getVerticies()} of the source of every edge of the file.
+   *
+   * @return The sources, which may repeat an edge that appears more than once in the file.
+   */
+  @Override
+  public int[] getSources() {
+    return sources;
+  }
+
+  /**
+   * Gets the position in {@link #getVerticies()} of the destination of every edge of the file.
+   *
+   * @return The destinations, in the same order as the sources.
+   */
+  @Override
+  public int[] getDestinations() {
+    return destinations;
+  }
+
+  /**
+   * Gets every vertex of the file as an integer, which are parsed when first needed.
+   *
+   * @return The verticies, or null if any vertex is not the decimal string of an integer.
+   */
+  @Override
+  public int[] getIntegerVerticies() {
+    if (!integerChecked) {
+      integerChecked = true;
+      final int[] values = new int[verticies.length];
+
+      for (int i = 0; i < verticies.length; i++) {
+        if (!IntGraph.isIntegerVertex(verticies[i])) {
+          return null;
+        }
+
+        values[i] = Integer.parseInt(verticies[i]);
+      }
+
+      integerVerticies = values;
+    }
+
+    return integerVerticies;
+  }
+
+  /**
+   * Adds the estimated sizes of the verticies and edges read from the file to a footprint.
+   *
+   * @param footprint The footprint to add to.
+   */
+  @Override
+  public void estimateFootprint(final MemoryFootprint footprint) {
+    footprint.add("file vertex names", MemoryFootprint.estimateStringBytes(verticies));
+    footprint.add("file vertex numbers", MemoryFootprint.estimateArrayBytes(integerVerticies));
+    footprint.add(
+        "file edges",
+        MemoryFootprint.estimateArrayBytes(sources)
+            + MemoryFootprint.estimateArrayBytes(destinations));
+  }
+
+  /**
+   * Chooses a chunk size that gives each processor a few chunks, so that uneven chunks still finish
+   * together, while keeping each memory mapping well under the 2 GB limit.
+   *
+   * @param fileSize The size of the file in bytes.
+   * @return The chunk size in bytes.
+   */
+  private static long chooseChunkSize(final long fileSize) {
+    final long perChunk = fileSize / (4L * Runtime.getRuntime().availableProcessors());
+    return Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, perChunk));
+  }
+
+  /**
+   * Maps the file in chunks that end at line breaks and parses every chunk, on worker threads if
+   * there is more than one.
+   *
+   * @param file The file to read.
+   * @param chunkSize The number of bytes each worker parses.
+   * @param progress The progress of the load, which can cancel it.
+   * @return The parsed chunks in file order, or null if a chunk uses syntax the chunks cannot read.
+   * @throws IOException If the file cannot be read.
+   */
+  private Chunk[] parseChunks(final Path file, final long chunkSize, final LoadProgress progress)
+      throws IOException {
+    final List<Chunk> chunks = new ArrayList<>();
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      long start = 0;
+
+      // The mappings stay valid after the channel is closed.
+      while (start < size) {
+        final long end = findLineEnd(channel, Math.min(size, start + chunkSize));
+
+        if (end - start > Integer.MAX_VALUE) {
+          return null;
+        }
+
+        final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        chunks.add(new Chunk(buffer, chunks.isEmpty(), progress));
+        start = end;
+      }
+    }
+
+    if (chunks.isEmpty()) {
+      return null;
+    }
+
+    if (chunks.size() == 1) {
+      return chunks.get(0).parse() ? chunks.toArray(new Chunk[0]) : null;
+    }
+
+    final ExecutorService workers =
+        Executors.newFixedThreadPool(
+            Math.min(chunks.size(), Runtime.getRuntime().availableProcessors()));
+
+    try {
+      final List<Future<Boolean>> results = new ArrayList<>();
+
+      for (final Chunk chunk : chunks) {
+        results.add(workers.submit(chunk::parse));
+      }
+
+      for (final Future<Boolean> result : results) {
+        if (!result.get()) {
+          return null;
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while parsing " + file, e);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof CancellationException) {
+        throw (CancellationException) e.getCause();
+      }
+
+      throw new IllegalStateException("Failed to parse " + file, e.getCause());
+    } finally {
+      workers.shutdownNow();
+    }
+
+    return chunks.toArray(new Chunk[0]);
+  }
+
+  /**
+   * Finds the first position after a line break at or after the given position.
+   *
+   * @param channel The channel of the file.
+   * @param position The position to search from.
+   * @return The position after the line break, or the size of the file if there is none.
+   * @throws IOException If the file cannot be read.
+   */
+  private long findLineEnd(final FileChannel channel, final long position) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_BUFFER_SIZE);
+    long offset = position;
+
+    while (offset < channel.size()) {
+      buffer.clear();
+      final int read = channel.read(buffer, offset);
+
+      for (int i = 0; i < read; i++) {
+        if (buffer.get(i) == '\n') {
+          return offset + i + 1;
+        }
+      }
+
+      offset += Math.max(read, 0);
+    }
+
+    return channel.size();
+  }
+
+  /**
+   * Checks that the chunks together hold exactly one graph, closed by the last chunk with any
+   * statements.
+   *
+   * @param chunks The parsed chunks in file order.
+   * @return If the chunks hold one whole graph.
+   */
+  private boolean isComplete(final Chunk[] chunks) {
+    boolean closed = false;
+
+    for (final Chunk chunk : chunks) {
+      if (closed && !chunk.empty) {
+        return false;
+      }
+
+      closed |= chunk.closed;
+    }
+
+    return closed;
+  }
+
+  /**
+   * Merges the vertex dictionaries and edge buffers of the chunks, renumbering the verticies of
+   * each chunk into one dictionary.
+   *
+   * @param chunks The parsed chunks in file order.
+   */
+  private void merge(final Chunk[] chunks) {
+    int edgeCount = 0;
+
+    for (final Chunk chunk : chunks) {
+      edgeCount += chunk.edgeCount;
+    }
+
+    final Map<String, Integer> ids = new HashMap<>();
+    final List<String> names = new ArrayList<>();
+    sources = new int[edgeCount];
+    destinations = new int[edgeCount];
+    edgeCount = 0;
+
+    for (final Chunk chunk : chunks) {
+      final int[] globalIds = new int[chunk.names.size()];
+
+      for (int local = 0; local < globalIds.length; local++) {
+        final String name = chunk.names.get(local);
+        Integer id = ids.get(name);
+
+        if (id == null) {
+          id = names.size();
+          ids.put(name, id);
+          names.add(name);
+        }
+
+        globalIds[local] = id;
+      }
+
+      for (int i = 0; i < chunk.edgeCount; i++) {
+        sources[edgeCount] = globalIds[chunk.edges[2 * i]];
+        destinations[edgeCount++] = globalIds[chunk.edges[2 * i + 1]];
+      }
+    }
+
+    verticies = names.toArray(new String[0]);
+  }
+
+  /**
+   * Reads the file with the full DOT parser, which supports every part of the DOT language.
+   *
+   * @param file The file to read.
+   * @param progress The progress of the load, which is only reported once the file is parsed.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If the file is not valid DOT, such as a file still being
+   *     written.
+   */
+  private void readWithParser(final Path file, final LoadProgress progress)
+      throws FileNotFoundException {
+    progress.checkCancelled();
+    final GraphParser parser;
+
+    try {
+      parser = new GraphParser(new FileInputStream(file.toFile()));
+    } catch (final GraphParserException e) {
+      throw new IllegalArgumentException(e.getMessage(), e);
+    }
+
+    // Any chunks parsed before falling back to the full parser have already been reported.
+    progress.advance(
+        Math.max(0, file.toFile().length() - progress.getBytesRead()),
+        Math.max(0, parser.getEdges().size() - progress.getEdgesParsed()));
+    final Map<String, Integer> ids = new HashMap<>();
+    verticies = parser.getNodes().keySet().toArray(new String[0]);
+
+    for (int id = 0; id < verticies.length; id++) {
+      ids.put(verticies[id], id);
+    }
+
+    sources = new int[parser.getEdges().size()];
+    destinations = new int[parser.getEdges().size()];
+    int count = 0;
+
+    for (final GraphEdge edge : parser.getEdges().values()) {
+      sources[count] = ids.get(edge.getNode1().getId());
+      destinations[count++] = ids.get(edge.getNode2().getId());
+    }
+  }
+
+  /**
+   * One memory mapped chunk of a DOT file, along with the verticies and edges parsed from it. Only
+   * plain node and edge statements are read, with attribute lists and comments skipped. Anything
+   * else, and anything that could continue across a chunk boundary, makes the parse fail so that
+   * the file is read by the full parser instead.
+   */
+  private static class Chunk {
+    private static final int END = 0;
+
+    private static final int ID = 1;
+
+    private static final int ARROW = 2;
+
+    private static final int SEMICOLON = 3;
+
+    private static final int OPEN_BRACE = 4;
+
+    private static final int CLOSE_BRACE = 5;
+
+    private static final int ATTRIBUTES = 6;
+
+    private static final int UNSUPPORTED = 7;
+
+    private final ByteBuffer buffer;
+
+    private final boolean first;
+
+    private final LoadProgress progress;
+
+    private int reportedPosition;
+
+    private final List<String> names = new ArrayList<>();
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private int[] edges = new int[16];
+
+    private int edgeCount;
+
+    private boolean closed;
+
+    private boolean empty = true;
+
+    private int position;
+
+    private String text;
+
+    private boolean quoted;
+
+    /**
+     * Creates a chunk that has not been parsed yet.
+     *
+     * @param buffer The bytes of the chunk.
+     * @param first If this is the first chunk of the file, which starts with the graph header.
+     * @param progress The progress of the load, which can cancel it.
+     */
+    private Chunk(final ByteBuffer buffer, final boolean first, final LoadProgress progress) {
+      this.buffer = buffer;
+      this.first = first;
+      this.progress = progress;
+    }
+
+    /**
+     * Parses the statements of the chunk.
+     *
+     * @return If the whole chunk was read.
+     */
+    private boolean parse() {
+      if (first && !parseHeader()) {
+        return false;
+      }
+
+      // The previous vertex of an edge chain such as "a -> b -> c", or -1 between statements.
+      int previous = -1;
+      boolean arrow = false;
+
+      for (int token = next(); token != END; token = next()) {
+        empty = false;
+
+        if (closed) {
+          return false;
+        }
+
+        switch (token) {
+          case ID:
+            if (!quoted && isKeyword(text)) {
+              return false;
+            }
+
+            final int id = getId(text);
+
+            if (arrow) {
+              addEdge(previous, id);
+              arrow = false;
+
+              if (edgeCount % LoadProgress.EDGES_PER_REPORT == 0) {
+                progress.advance(position - reportedPosition, LoadProgress.EDGES_PER_REPORT);
+                reportedPosition = position;
+              }
+            }
+
+            previous = id;
+            break;
+          case ARROW:
+            if (previous == -1 || arrow) {
+              return false;
+            }
+
+            arrow = true;
+            break;
+          case SEMICOLON:
+          case ATTRIBUTES:
+          case CLOSE_BRACE:
+            if (arrow) {
+              return false;
+            }
+
+            closed = token == CLOSE_BRACE;
+            previous = -1;
+            break;
+          default:
+            return false;
+        }
+      }
+
+      progress.advance(
+          buffer.limit() - reportedPosition, edgeCount % LoadProgress.EDGES_PER_REPORT);
+
+      // An edge chain that ends with an arrow continues in the next chunk.
+      return !arrow;
+    }
+
+    /**
+     * Parses the "[strict] digraph [name] {" header of the graph.
+     *
+     * @return If the header was read.
+     */
+    private boolean parseHeader() {
+      int token = next();
+
+      if (token == ID && !quoted && text.equalsIgnoreCase("strict")) {
+        token = next();
+      }
+
+      if (token != ID || quoted || !text.equalsIgnoreCase("digraph")) {
+        return false;
+      }
+
+      token = next();
+
+      if (token == ID) {
+        token = next();
+      }
+
+      return token == OPEN_BRACE;
+    }
+
+    /**
+     * Reads the next token of the chunk, skipping whitespace and comments.
+     *
+     * @return The type of the token.
+     */
+    private int next() {
+      final int limit = buffer.limit();
+
+      while (position < limit) {
+        final byte b = buffer.get(position);
+
+        if (b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '\f') {
+          position++;
+        } else if (b == '#' || (b == '/' && peek(1) == '/')) {
+          while (position < limit && buffer.get(position) != '\n') {
+            position++;
+          }
+        } else if (b == '/' && peek(1) == '*') {
+          if (!skipBlockComment()) {
+            return UNSUPPORTED;
+          }
+        } else {
+          break;
+        }
+      }
+
+      if (position >= limit) {
+        return END;
+      }
+
+      final byte b = buffer.get(position);
+
+      switch (b) {
+        case ';':
+          position++;
+          return SEMICOLON;
+        case '{':
+          position++;
+          return OPEN_BRACE;
+        case '}':
+          position++;
+          return CLOSE_BRACE;
+        case '[':
+          return skipAttributes() ? ATTRIBUTES : UNSUPPORTED;
+        case '"':
+          return readQuoted() ? ID : UNSUPPORTED;
+        case '-':
+          if (peek(1) == '>') {
+            position += 2;
+            return ARROW;
+          }
+
+          if (isDigit(peek(1)) || peek(1) == '.') {
+            return readId();
+          }
+
+          return UNSUPPORTED;
+        default:
+          return isIdByte(b) ? readId() : UNSUPPORTED;
+      }
+    }
+
+    /**
+     * Reads an unquoted name or number, which may start with a minus sign.
+     *
+     * @return The type of the token.
+     */
+    private int readId() {
+      final int start = position++;
+
+      while (position < buffer.limit() && isIdByte(buffer.get(position))) {
+        position++;
+      }
+
+      text = decode(start, position);
+      quoted = false;
+      return ID;
+    }
+
+    /**
+     * Reads a quoted name on one line, keeping its quotes and escapes as the full parser does.
+     *
+     * @return If the closing quote was found on the same line.
+     */
+    private boolean readQuoted() {
+      final int start = position++;
+
+      while (position < buffer.limit()) {
+        final byte b = buffer.get(position);
+
+        if (b == '\n') {
+          return false;
+        } else if (b == '\\') {
+          position += 2;
+        } else if (b == '"') {
+          text = decode(start, ++position);
+          quoted = true;
+          return true;
+        } else {
+          position++;
+        }
+      }
+
+      return false;
+    }
+
+    /**
+     * Skips an attribute list on one line, including any quoted values.
+     *
+     * @return If the closing bracket was found on the same line.
+     */
+    private boolean skipAttributes() {
+      boolean inQuotes = false;
+      position++;
+
+      while (position < buffer.limit()) {
+        final byte b = buffer.get(position++);
+
+        if (b == '\n') {
+          return false;
+        } else if (inQuotes && b == '\\') {
+          position++;
+        } else if (b == '"') {
+          inQuotes = !inQuotes;
+        } else if (!inQuotes && b == ']') {
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    /**
+     * Skips a block comment on one line.
+     *
+     * @return If the end of the comment was found on the same line.
+     */
+    private boolean skipBlockComment() {
+      position += 2;
+
+      while (position < buffer.limit()) {
+        final byte b = buffer.get(position++);
+
+        if (b == '\n') {
+          return false;
+        } else if (b == '*' && position < buffer.limit() && buffer.get(position) == '/') {
+          position++;
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    /**
+     * Gets the byte ahead of the current position.
+     *
+     * @param offset How far ahead the byte is.
+     * @return The byte, or 0 past the end of the chunk.
+     */
+    private byte peek(final int offset) {
+      return position + offset < buffer.limit() ? buffer.get(position + offset) : 0;
+    }
+
+    /**
+     * Decodes part of the chunk as UTF-8.
+     *
+     * @param start The position of the first byte, inclusive.
+     * @param end The position of the last byte, exclusive.
+     * @return The decoded text.
+     */
+    private String decode(final int start, final int end) {
+      final byte[] bytes = new byte[end - start];
+      buffer.get(start, bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the id of a vertex in the dictionary of this chunk, adding it if it is new.
+     *
+     * @param name The name of the vertex.
+     * @return The id of the vertex within this chunk.
+     */
+    private int getId(final String name) {
+      final Integer id = ids.get(name);
+
+      if (id != null) {
+        return id;
+      }
+
+      ids.put(name, names.size());
+      names.add(name);
+      return names.size() - 1;
+    }
+
+    /**
+     * Adds an edge to the buffer of this chunk, growing the buffer if it is full.
+     *
+     * @param source The id of the source within this chunk.
+     * @param destination The id of the destination within this chunk.
+     */
+    private void addEdge(final int source, final int destination) {
+      if (2 * edgeCount + 2 > edges.length) {
+        final int[] grown = new int[edges.length * 2];
+        System.arraycopy(edges, 0, grown, 0, edges.length);
+        edges = grown;
+      }
+
+      edges[2 * edgeCount] = source;
+      edges[2 * edgeCount + 1] = destination;
+      edgeCount++;
+    }
+
+    /**
+     * Checks if a name is a keyword of the DOT language, which starts a statement the chunks do not
+     * read.
+     *
+     * @param name The unquoted name.
+     * @return If the name is a keyword.
+     */
+    private static boolean isKeyword(final String name) {
+      return name.equalsIgnoreCase("node")
+          || name.equalsIgnoreCase("edge")
+          || name.equalsIgnoreCase("graph")
+          || name.equalsIgnoreCase("digraph")
+          || name.equalsIgnoreCase("subgraph")
+          || name.equalsIgnoreCase("strict");
+    }
+
+    /**
+     * Checks if a byte can be part of an unquoted name or number.
+     *
+     * @param b The byte.
+     * @return If the byte is a letter, digit, underscore, dot or part of a non-ASCII character.
+     */
+    private static boolean isIdByte(final byte b) {
+      return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || isDigit(b) || b == '_' || b == '.'
+          || b < 0;
+    }
+
+    /**
+     * Checks if a byte is an ASCII digit.
+     *
+     * @param b The byte.
+     * @return If the byte is a digit.
+     */
+    private static boolean isDigit(final byte b) {
+      return b >= '0' && b <= '9';
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package nz.ac.auckland.se281;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import nz.ac.auckland.se281.datastructures.MemoryFootprint;
+
+/**
+ * Loads a whitespace separated edge list, where each line holds the integer source and destination
+ * of an edge followed by any other columns, such as a weight, which are ignored. Blank lines and
+ * lines that start with '#' or '%' are skipped. The verticies are the integers used by the edges.
+ */
+public class EdgeListLoader implements GraphFileLoader {
+  private final int[] verticies;
+
+  private final int[] sources;
+
+  private final int[] destinations;
+
+  private String[] names;
+
+  /**
+   * Loads an edge list file.
+   *
+   * @param file The file to read.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If a line does not start with two integers.
+   */
+  public EdgeListLoader(final Path file) throws FileNotFoundException {
+    this(file, new LoadProgress());
+  }
+
+  /**
+   * Loads an edge list file, reporting progress as it reads.
+   *
+   * @param file The file to read.
+   * @param progress The progress of the load, which can cancel it.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If a line does not start with two integers.
+   * @throws java.util.concurrent.CancellationException If the load is cancelled.
+   */
+  public EdgeListLoader(final Path file, final LoadProgress progress)
+      throws FileNotFoundException {
+    final int[][] values = {new int[16], new int[16]};
+    final int[] count = {0};
+
+    readEdges(
+        file,
+        progress,
+        (source, destination) -> {
+          if (count[0] == values[0].length) {
+            values[0] = Arrays.copyOf(values[0], count[0] * 2);
+            values[1] = Arrays.copyOf(values[1], count[0] * 2);
+          }
+
+          values[0][count[0]] = source;
+          values[1][count[0]++] = destination;
+        });
+
+    // The verticies are the distinct integers of the edges, in ascending order.
+    final int edges = count[0];
+    final int[] sorted = Arrays.copyOf(values[0], 2 * edges);
+    System.arraycopy(values[1], 0, sorted, edges, edges);
+    Arrays.sort(sorted);
+    int size = 0;
+
+    for (int i = 0; i < sorted.length; i++) {
+      if (i == 0 || sorted[i] != sorted[i - 1]) {
+        sorted[size++] = sorted[i];
+      }
+    }
+
+    verticies = Arrays.copyOf(sorted, size);
+    sources = new int[edges];
+    destinations = new int[edges];
+
+    for (int i = 0; i < edges; i++) {
+      sources[i] = Arrays.binarySearch(verticies, values[0][i]);
+      destinations[i] = Arrays.binarySearch(verticies, values[1][i]);
+    }
+  }
+
+  /**
+   * Reads the edges of an edge list file one at a time, in the order of the file, without keeping
+   * them. Blank lines and lines that start with '#' or '%' are skipped, as are any columns after
+   * the first two.
+   *
+   * @param file The file to read.
+   * @param progress The progress of the read, which can cancel it.
+   * @param consumer The consumer of each edge.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If a line does not start with two integers.
+   * @throws java.util.concurrent.CancellationException If the read is cancelled.
+   */
+  public static void readEdges(
+      final Path file, final LoadProgress progress, final EdgeConsumer consumer)
+      throws FileNotFoundException {
+    int count = 0;
+    long reportedBytes = 0;
+
+    try (IntegerTextReader reader = new IntegerTextReader(new FileInputStream(file.toFile()))) {
+      for (int b = reader.peek(); b != -1; b = reader.peek()) {
+        if (b != '\n' && b != '#' && b != '%') {
+          final int source = reader.readInt();
+          consumer.accept(source, reader.readInt());
+          count++;
+
+          if (count % LoadProgress.EDGES_PER_REPORT == 0) {
+            progress.advance(reader.getBytesRead() - reportedBytes, LoadProgress.EDGES_PER_REPORT);
+            reportedBytes = reader.getBytesRead();
+          }
+        }
+
+        reader.skipLine();
+      }
+
+      progress.advance(
+          reader.getBytesRead() - reportedBytes, count % LoadProgress.EDGES_PER_REPORT);
+    }
+  }
+
+  /**
+   * Gets every vertex of the file as a string, which are only created when first needed.
+   *
+   * @return The verticies in ascending numerical order.
+   */
+  @Override
+  public String[] getVerticies() {
+    if (names == null) {
+      names = new String[verticies.length];
+
+      for (int i = 0; i < verticies.length; i++) {
+        names[i] = String.valueOf(verticies[i]);
+      }
+    }
+
+    return names;
+  }
+
+  /**
+   * Gets every vertex of the file as an integer.
+   *
+   * @return The verticies in ascending numerical order.
+   */
+  @Override
+  public int[] getIntegerVerticies() {
+    return verticies;
+  }
+
+  /**
+   * Gets the position of the source of every line of the file.
+   *
+   * @return The sources.
+   */
+  @Override
+  public int[] getSources() {
+    return sources;
+  }
+
+  /**
+   * Gets the position of the destination of every line of the file.
+   *
+   * @return The destinations, in the same order as the sources.
+   */
+  @Override
+  public int[] getDestinations() {
+    return destinations;
+  }
+
+  /**
+   * Adds the estimated sizes of the verticies and edges read from the file to a footprint.
+   *
+   * @param footprint The footprint to add to.
+   */
+  @Override
+  public void estimateFootprint(final MemoryFootprint footprint) {
+    footprint.add("file vertex names", MemoryFootprint.estimateStringBytes(names));
+    footprint.add("file vertex numbers", MemoryFootprint.estimateArrayBytes(verticies));
+    footprint.add(
+        "file edges",
+        MemoryFootprint.estimateArrayBytes(sources)
+            + MemoryFootprint.estimateArrayBytes(destinations));
+  }
+
+  /** Accepts the edges read from an edge list. */
+  @FunctionalInterface
+  public interface EdgeConsumer {
+    /**
+     * Accepts an edge.
+     *
+     * @param source The integer source of the edge.
+     * @param destination The integer destination of the edge.
+     */
+    void accept(int source, int destination);
+  }
+}
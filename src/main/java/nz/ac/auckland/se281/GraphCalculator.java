@@ -1,17 +1,32 @@
 package nz.ac.auckland.se281;
 
-import com.paypal.digraph.parser.GraphEdge;
-import com.paypal.digraph.parser.GraphNode;
-import com.paypal.digraph.parser.GraphParser;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import nz.ac.auckland.se281.datastructures.AbstractGraph;
+import nz.ac.auckland.se281.datastructures.DegreeStatistics;
 import nz.ac.auckland.se281.datastructures.Edge;
+import nz.ac.auckland.se281.datastructures.ExternalBreadthFirstSearch;
 import nz.ac.auckland.se281.datastructures.Graph;
+import nz.ac.auckland.se281.datastructures.GraphStorage;
+import nz.ac.auckland.se281.datastructures.IntGraph;
+import nz.ac.auckland.se281.datastructures.MemoryFootprint;
+import nz.ac.auckland.se281.datastructures.PackedEdgeSet;
+import nz.ac.auckland.se281.datastructures.ReachabilityIndex;
+import nz.ac.auckland.se281.datastructures.RelationProfile;
+import nz.ac.auckland.se281.datastructures.VertexOrdering;
+import nz.ac.auckland.se281.datastructures.WeaklyConnectedComponents;
 
 /**
  * The calculator that reports properties of graphs to the user.
@@ -21,41 +36,144 @@ import nz.ac.auckland.se281.datastructures.Graph;
 public class GraphCalculator {
   private static final Path TESTCASES = Path.of("testcases");
 
+  /** External search orders are printed in pieces of about this many characters. */
+  private static final int PRINT_BUFFER_CHARS = 1 << 16;
+
+  /** Changes to more than this fraction of the edges build the graph again instead. */
+  private static final int MAX_CHANGED_EDGES_DIVISOR = 4;
+
   private final Path file;
 
-  private final Collection<GraphNode> verticies;
+  private final GraphStorage storage;
+
+  private final VertexOrdering ordering;
 
-  private final Collection<GraphEdge> edges;
+  private GraphFileLoader loader;
 
-  private final Graph<String> graph;
+  private Graph<String> graph;
+
+  private IntGraph intGraph;
 
   /**
-   * Creates a new graph calculator.
+   * Creates a new graph calculator that stores the graph on the Java heap.
    *
    * @param filename The name of the test case to read.
    * @throws FileNotFoundException If the file does not exist.
    */
   public GraphCalculator(final String filename) throws FileNotFoundException {
+    this(filename, GraphStorage.HEAP);
+  }
+
+  /**
+   * Creates a new graph calculator.
+   *
+   * @param filename The name of the test case to read.
+   * @param storage Where the verticies and adjacency of the graph are stored.
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  public GraphCalculator(final String filename, final GraphStorage storage)
+      throws FileNotFoundException {
+    this(filename, storage, VertexOrdering.NONE);
+  }
+
+  /**
+   * Creates a new graph calculator.
+   *
+   * @param filename The name of the test case to read.
+   * @param storage Where the verticies and adjacency of the graph are stored.
+   * @param ordering The order that the verticies of a heap graph are numbered in.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If the file is not valid in its format.
+   */
+  public GraphCalculator(
+      final String filename, final GraphStorage storage, final VertexOrdering ordering)
+      throws FileNotFoundException {
+    this(filename, storage, ordering, new LoadProgress());
+  }
+
+  /**
+   * Creates a new graph calculator, reporting the progress of reading the file.
+   *
+   * @param filename The name of the test case to read.
+   * @param storage Where the verticies and adjacency of the graph are stored.
+   * @param ordering The order that the verticies of a heap graph are numbered in.
+   * @param progress The progress of reading the file, which can cancel it.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If the file is not valid in its format.
+   * @throws java.util.concurrent.CancellationException If loading is cancelled.
+   */
+  public GraphCalculator(
+      final String filename,
+      final GraphStorage storage,
+      final VertexOrdering ordering,
+      final LoadProgress progress)
+      throws FileNotFoundException {
     file = TESTCASES.resolve(filename);
+    this.storage = storage;
+    this.ordering = ordering;
 
-    final GraphParser parser = new GraphParser(new FileInputStream(file.toFile()));
+    loader = load(progress);
 
-    this.verticies = parser.getNodes().values();
-    this.edges = parser.getEdges().values();
+    // The graph is only built if loading was not cancelled while the last edges were read.
+    progress.checkCancelled();
 
-    final Set<String> verticies = new HashSet<>();
+    createGraph();
 
-    for (final GraphNode node : this.verticies) {
-      verticies.add(node.getId());
-    }
+    // Only a compact copy of the file is kept once the graph has been built from it.
+    loader = new CompactGraphFile(loader);
+  }
 
-    final Set<Edge<String>> edges = new HashSet<>();
+  /**
+   * Gets the file that the graph was read from.
+   *
+   * @return The path of the file.
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * Reads the file again after it has changed and prints how its verticies and edges changed.
+   * When only edges changed, they are applied to the open graph, which rewrites the adjacency of
+   * just the verticies they touch and keeps the reachability index unless they can change it.
+   * Changes to the verticies, which renumber the graph, or to many of the edges build it again.
+   *
+   * @throws FileNotFoundException If the file no longer exists.
+   * @throws IllegalArgumentException If the file is no longer valid in its format.
+   */
+  public void reload() throws FileNotFoundException {
+    final GraphFileLoader changed = load(new LoadProgress());
+    final GraphFileChanges changes = new GraphFileChanges(loader, changed);
+    final long[] addedEdges = changes.getAddedEdges();
+    final long[] removedEdges = changes.getRemovedEdges();
+    final int changedEdges = addedEdges.length + removedEdges.length;
 
-    for (final GraphEdge edge : this.edges) {
-      edges.add(new Edge<>(edge.getNode1().getId(), edge.getNode2().getId()));
+    if (changes.hasVertexChanges()
+        || changedEdges > loader.getSources().length / MAX_CHANGED_EDGES_DIVISOR) {
+      close();
+      loader = changed;
+      createGraph();
+    } else {
+      // The changed edges are numbered by the positions of the verticies in the earlier load.
+      applyEdgeChanges(addedEdges, removedEdges);
+      loader = changed;
     }
 
-    graph = new Graph<>(verticies, edges);
+    loader = new CompactGraphFile(loader);
+
+    MessageCli.FILE_CHANGED.printMessage(
+        TESTCASES.relativize(file).toString(),
+        String.valueOf(changes.getAddedVerticies()),
+        String.valueOf(addedEdges.length),
+        String.valueOf(changes.getRemovedVerticies()),
+        String.valueOf(removedEdges.length));
+  }
+
+  /** Releases any off-heap memory held by the graph. The calculator must not be used afterwards. */
+  public void close() {
+    if (getOpenGraph() != null) {
+      getOpenGraph().close();
+    }
   }
 
   /** Prints the filename of the test case that is loaded. */
@@ -63,24 +181,76 @@ public class GraphCalculator {
     MessageCli.INFO.printMessage(TESTCASES.relativize(file).toString());
   }
 
+  /**
+   * Prints the estimated memory of each structure that holds the graph, both those kept from
+   * reading the file and those of the graph itself, followed by a projection for the next larger
+   * file in the same folder and format. The projection assumes that every structure grows in
+   * proportion to the size of the file on disk.
+   */
+  public void printMemory() {
+    final MemoryFootprint footprint = new MemoryFootprint();
+    loader.estimateFootprint(footprint);
+    getOpenGraph().estimateFootprint(footprint);
+
+    MessageCli.MEMORY_HEADER.printMessage(file.getFileName().toString());
+
+    for (final Map.Entry<String, Long> estimate : footprint.getEstimates().entrySet()) {
+      MessageCli.MEMORY_STRUCTURE.printMessage(
+          estimate.getKey(), String.valueOf(estimate.getValue()));
+    }
+
+    final long total = footprint.getTotalBytes();
+    MessageCli.MEMORY_TOTAL.printMessage(
+        String.valueOf(total), String.valueOf(footprint.getOffHeapBytes()));
+
+    try {
+      final long size = Files.size(file);
+      final Path next = findNextLargerFile(size);
+
+      if (next != null && size > 0) {
+        final double ratio = (double) Files.size(next) / size;
+        MessageCli.MEMORY_PROJECTION.printMessage(
+            next.getFileName().toString(),
+            String.format("%.2f", ratio),
+            String.valueOf(Math.round(total * ratio)));
+        return;
+      }
+    } catch (final IOException | UncheckedIOException e) {
+      // Falls through to the projection for a file twice the size.
+    }
+
+    MessageCli.MEMORY_PROJECTION_DOUBLED.printMessage(String.valueOf(2 * total));
+  }
+
   /** Prints the set of verticies and edges in the graph. */
   public void printVerticiesEdges() {
     final StringBuilder sb = new StringBuilder("Verticies:").append(System.lineSeparator());
 
-    // Vertically print each vertex.
-    for (final GraphNode node : verticies) {
-      sb.append("\t").append(node.getId()).append(System.lineSeparator());
+    // Vertically print each vertex, in the sorted order of the DOT parser.
+    final String[] verticies = loader.getVerticies();
+    final int[] sources = loader.getSources();
+    final int[] destinations = loader.getDestinations();
+    final String[] sortedVerticies = verticies.clone();
+    Arrays.sort(sortedVerticies);
+
+    for (final String vertex : sortedVerticies) {
+      sb.append("\t").append(vertex).append(System.lineSeparator());
     }
 
     sb.append(System.lineSeparator()).append("Edges:").append(System.lineSeparator());
 
+    // The DOT parser keys each edge by its "source-destination" name, which sorts and merges them.
+    final Map<String, String> sortedEdges = new TreeMap<>();
+
+    for (int i = 0; i < sources.length; i++) {
+      final String source = verticies[sources[i]];
+      final String destination = verticies[destinations[i]];
+      sortedEdges.put(source + "-" + destination, source + " -> " + destination);
+    }
+
     // Vertically print each edge between verticies.
-    for (final GraphEdge edge : edges) {
-      sb.append("\t")
-          .append(edge.getNode1().getId())
-          .append(" -> ")
-          .append(edge.getNode2().getId())
-          .append(System.lineSeparator());
+    for (final String edge : sortedEdges.values()) {
+      sb.append("\t").append(edge).append(System.lineSeparator());
     }
 
     System.out.print(sb.toString());
@@ -88,32 +258,153 @@ public class GraphCalculator {
 
   /** Prints the set of verticies in the graph that are root verticies. */
   public void printRoots() {
-    System.out.println(graph.getRoots());
+    final QueryEvent event = new QueryEvent("roots");
+    event.begin();
+
+    if (intGraph != null) {
+      final int[] roots = intGraph.getRoots();
+      event.resultSize = roots.length;
+      commit(event);
+      System.out.println(Arrays.toString(roots));
+      return;
+    }
+
+    final Set<String> roots = graph.getRoots();
+    event.resultSize = roots.size();
+    commit(event);
+    System.out.println(roots);
   }
 
   /** Prints if the set of verticies in the graph exhibit the reflexivity property. */
   public void printReflexitivity() {
-    MessageCli.GRAPH_REFLEXIVE.printMessage(prefixNot(graph.isReflexive()));
+    final PropertyCheckEvent event = new PropertyCheckEvent("reflexive");
+    event.begin();
+    final boolean result = getOpenGraph().isReflexive();
+    event.holds = result;
+    commit(event);
+    MessageCli.GRAPH_REFLEXIVE.printMessage(prefixNot(result));
   }
 
   /** Prints if the set of edges in the graph exhibit the symmetric property. */
   public void printSymmetry() {
-    MessageCli.GRAPH_SYMMETRIC.printMessage(prefixNot(graph.isSymmetric()));
+    final PropertyCheckEvent event = new PropertyCheckEvent("symmetric");
+    event.begin();
+    final boolean result = getOpenGraph().isSymmetric();
+    event.holds = result;
+    commit(event);
+    MessageCli.GRAPH_SYMMETRIC.printMessage(prefixNot(result));
   }
 
   /** Prints if the set of edges in the graph exhibit transitivity. */
   public void printTransitivity() {
-    MessageCli.GRAPH_TRANSITIVE.printMessage(prefixNot(graph.isTransitive()));
+    final PropertyCheckEvent event = new PropertyCheckEvent("transitive");
+    event.begin();
+    final boolean result = getOpenGraph().isTransitive();
+    event.holds = result;
+    commit(event);
+    MessageCli.GRAPH_TRANSITIVE.printMessage(prefixNot(result));
   }
 
   /** Prints if the set of edges in the graph exhibit anti-symmetry. */
   public void printAntiSymmetry() {
-    MessageCli.GRAPH_ANTI_SYMMETRIC.printMessage(prefixNot(graph.isAntiSymmetric()));
+    final PropertyCheckEvent event = new PropertyCheckEvent("anti-symmetric");
+    event.begin();
+    final boolean result = getOpenGraph().isAntiSymmetric();
+    event.holds = result;
+    commit(event);
+    MessageCli.GRAPH_ANTI_SYMMETRIC.printMessage(prefixNot(result));
   }
 
   /** Prints if the entire graph is considered an equivalence relation. */
   public void printEquivalence() {
-    MessageCli.GRAPH_EQUIVALENCE.printMessage(prefixNot(graph.isEquivalence()));
+    final PropertyCheckEvent event = new PropertyCheckEvent("equivalence");
+    event.begin();
+    final boolean result = getOpenGraph().isEquivalence();
+    event.holds = result;
+    commit(event);
+    MessageCli.GRAPH_EQUIVALENCE.printMessage(prefixNot(result));
+  }
+
+  /**
+   * Prints every property of the graph, along with how many roots and equivalence classes it has,
+   * from a single pass over the edges.
+   */
+  public void printAnalysis() {
+    final QueryEvent event = new QueryEvent("analysis");
+    event.begin();
+    final RelationProfile profile = getOpenGraph().analyze();
+    event.resultSize = profile.getClassCount();
+    commit(event);
+
+    MessageCli.GRAPH_REFLEXIVE.printMessage(prefixNot(profile.isReflexive()));
+    MessageCli.GRAPH_SYMMETRIC.printMessage(prefixNot(profile.isSymmetric()));
+    MessageCli.GRAPH_TRANSITIVE.printMessage(prefixNot(profile.isTransitive()));
+    MessageCli.GRAPH_ANTI_SYMMETRIC.printMessage(prefixNot(profile.isAntiSymmetric()));
+    MessageCli.GRAPH_EQUIVALENCE.printMessage(prefixNot(profile.isEquivalence()));
+    MessageCli.GRAPH_PARTIAL_ORDER.printMessage(prefixNot(profile.isPartialOrder()));
+    MessageCli.ROOT_COUNT.printMessage(String.valueOf(profile.getRootCount()));
+    MessageCli.CLASS_COUNT.printMessage(String.valueOf(profile.getClassCount()));
+  }
+
+  /**
+   * Prints the minimum, maximum and mean in and out degrees, how many verticies are sources, sinks
+   * or isolated, and a histogram of the degrees in power of two buckets.
+   */
+  public void printDegreeStatistics() {
+    final QueryEvent event = new QueryEvent("degree statistics");
+    event.begin();
+    final DegreeStatistics statistics = getOpenGraph().getDegreeStatistics();
+    event.resultSize = statistics.getBucketCount();
+    commit(event);
+
+    final String mean = String.format("%.2f", statistics.getMeanDegree());
+    MessageCli.DEGREE_SUMMARY.printMessage(
+        "Out",
+        String.valueOf(statistics.getMinOutDegree()),
+        String.valueOf(statistics.getMaxOutDegree()),
+        mean);
+    MessageCli.DEGREE_SUMMARY.printMessage(
+        "In",
+        String.valueOf(statistics.getMinInDegree()),
+        String.valueOf(statistics.getMaxInDegree()),
+        mean);
+    MessageCli.DEGREE_ENDS.printMessage(
+        String.valueOf(statistics.getSourceCount()),
+        String.valueOf(statistics.getSinkCount()),
+        String.valueOf(statistics.getIsolatedCount()));
+    MessageCli.DEGREE_HISTOGRAM.printMessage();
+
+    for (int bucket = 0; bucket < statistics.getBucketCount(); bucket++) {
+      final int low = DegreeStatistics.getBucketLow(bucket);
+      final int high = DegreeStatistics.getBucketHigh(bucket);
+      MessageCli.DEGREE_BUCKET.printMessage(
+          low == high ? String.valueOf(low) : low + "-" + high,
+          String.valueOf(statistics.getOutDegreeCount(bucket)),
+          String.valueOf(statistics.getInDegreeCount(bucket)));
+    }
+  }
+
+  /**
+   * Prints the number of weakly connected components, then the size and smallest vertex of each in
+   * the order of their smallest verticies.
+   */
+  public void printComponents() {
+    final QueryEvent event = new QueryEvent("weakly connected components");
+    event.begin();
+    final WeaklyConnectedComponents components = getOpenGraph().weaklyConnectedComponents();
+    event.resultSize = components.getComponentCount();
+    commit(event);
+
+    final Object[] verticies =
+        intGraph != null ? toStrings(intGraph.getVerticies()) : graph.getVerticies().toArray();
+    MessageCli.COMPONENT_COUNT.printMessage(String.valueOf(components.getComponentCount()));
+
+    for (int component = 0; component < components.getComponentCount(); component++) {
+      MessageCli.COMPONENT.printMessage(
+          String.valueOf(component),
+          String.valueOf(components.getSize(component)),
+          String.valueOf(verticies[components.getFirstPosition(component)]));
+    }
   }
 
   /**
@@ -122,29 +413,750 @@ public class GraphCalculator {
    * @param vertex The vertex to compute the equivalence class of.
    */
   public void printEquivalenceClass(final String vertex) {
-    final Object[] equivalenceClass = graph.getEquivalenceClass(vertex).toArray();
+    final QueryEvent event = new QueryEvent("equivalence class");
+    event.begin();
+    final Object[] equivalenceClass;
+
+    if (intGraph == null) {
+      equivalenceClass = graph.getEquivalenceClass(vertex).toArray();
+    } else if (IntGraph.isIntegerVertex(vertex)) {
+      equivalenceClass = toStrings(intGraph.getEquivalenceClass(Integer.parseInt(vertex)));
+    } else {
+      equivalenceClass = new Object[0];
+    }
+
+    event.resultSize = equivalenceClass.length;
+    commit(event);
+
+    // The members are sorted as strings, whichever graph holds them.
     Arrays.sort(equivalenceClass);
     System.out.println(Arrays.toString(equivalenceClass));
   }
 
+  /**
+   * Prints the equivalence class of each of the given verticies on its own line, as printed for a
+   * single vertex. The graph is checked to be an equivalence relation once for the whole batch, and
+   * each class is only formatted once however many of the verticies are in it.
+   *
+   * @param verticies The verticies to compute the equivalence classes of, separated by commas.
+   */
+  public void printEquivalenceClasses(final String verticies) {
+    final QueryEvent event = new QueryEvent("equivalence classes");
+    event.begin();
+    final String[] requested = verticies.split(",", -1);
+    final Object[] equivalenceClasses;
+
+    if (intGraph == null) {
+      equivalenceClasses = graph.getEquivalenceClasses(Arrays.asList(requested)).toArray();
+    } else {
+      // Verticies that are not integers are never in the graph, so they get the empty class.
+      final int[] integerVerticies = new int[requested.length];
+      final int[] empty = new int[0];
+
+      for (int i = 0; i < requested.length; i++) {
+        integerVerticies[i] =
+            IntGraph.isIntegerVertex(requested[i]) ? Integer.parseInt(requested[i]) : 0;
+      }
+
+      final int[][] classes = intGraph.getEquivalenceClasses(integerVerticies);
+
+      for (int i = 0; i < requested.length; i++) {
+        if (!IntGraph.isIntegerVertex(requested[i])) {
+          classes[i] = empty;
+        }
+      }
+
+      equivalenceClasses = classes;
+    }
+
+    event.resultSize = equivalenceClasses.length;
+    commit(event);
+
+    // Verticies in the same class share the same class object, so it is formatted once.
+    final Map<Object, String> formatted = new IdentityHashMap<>();
+    final StringBuilder sb = new StringBuilder();
+
+    for (final Object equivalenceClass : equivalenceClasses) {
+      String line = formatted.get(equivalenceClass);
+
+      if (line == null) {
+        final Object[] members =
+            equivalenceClass instanceof int[]
+                ? toStrings((int[]) equivalenceClass)
+                : ((Set<?>) equivalenceClass).toArray();
+
+        // The members are sorted as strings, whichever graph holds them.
+        Arrays.sort(members);
+        line = Arrays.toString(members);
+        formatted.put(equivalenceClass, line);
+      }
+
+      sb.append(line).append(System.lineSeparator());
+    }
+
+    System.out.print(sb.toString());
+  }
+
+  /**
+   * Prints the size of the quotient graph, in which each class of mutually reachable verticies is
+   * collapsed into its smallest vertex, followed by its verticies and edges.
+   */
+  public void printQuotient() {
+    final QueryEvent event = new QueryEvent("quotient");
+    event.begin();
+
+    if (intGraph != null) {
+      final IntGraph quotient = intGraph.quotient();
+      final int[] quotientVerticies = quotient.getVerticies();
+      final int[][] quotientEdges = quotient.getEdges();
+      event.resultSize = quotientVerticies.length;
+      commit(event);
+
+      MessageCli.QUOTIENT.printMessage(
+          String.valueOf(quotientVerticies.length), String.valueOf(quotientEdges.length));
+      System.out.println(Arrays.toString(quotientVerticies));
+
+      // Vertically print each edge between representatives.
+      for (final int[] edge : quotientEdges) {
+        System.out.println("\t" + edge[0] + " -> " + edge[1]);
+      }
+      return;
+    }
+
+    final Graph<String> quotient = graph.quotient();
+    final Set<String> quotientVerticies = quotient.getVerticies();
+    final List<Edge<String>> quotientEdges = quotient.getEdges();
+    event.resultSize = quotientVerticies.size();
+    commit(event);
+
+    MessageCli.QUOTIENT.printMessage(
+        String.valueOf(quotientVerticies.size()), String.valueOf(quotientEdges.size()));
+    System.out.println(quotientVerticies);
+
+    // Vertically print each edge between representatives.
+    for (final Edge<String> edge : quotientEdges) {
+      System.out.println("\t" + edge.getSource() + " -> " + edge.getDestination());
+    }
+  }
+
   /** Prints the search order of an iterative breadth first search. */
   public void printIterativeBreadthFirstSearch() {
-    System.out.println(Arrays.toString(graph.iterativeBreadthFirstSearch().toArray()));
+    final QueryEvent event = new QueryEvent("breadth first search");
+    event.begin();
+
+    if (intGraph != null) {
+      final int[] order = intGraph.iterativeBreadthFirstSearch();
+      event.resultSize = order.length;
+      commit(event);
+      System.out.println(Arrays.toString(order));
+      return;
+    }
+
+    // The search iterator visits verticies in the same order as the search methods of the graph,
+    // but marks visited verticies in an array by id rather than searching a list of them.
+    final Object[] order = graph.breadthFirstStream().toArray();
+    event.resultSize = order.length;
+    commit(event);
+    System.out.println(Arrays.toString(order));
+  }
+
+  /**
+   * Prints the search order of a breadth first search of an edge list that is not loaded into
+   * memory, in the same order as an iterative breadth first search of the opened file. The edges
+   * are sorted and searched in scratch files, and the order is printed as it is found.
+   *
+   * @param filename The name of the test case to search.
+   * @param scratchDirectory The directory to keep the scratch files in.
+   * @param bufferSize The number of pairs to sort in memory at a time.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If the file is not a valid edge list.
+   * @throws UncheckedIOException If the scratch files cannot be written.
+   */
+  public static void printExternalBreadthFirstSearch(
+      final String filename, final Path scratchDirectory, final int bufferSize)
+      throws FileNotFoundException {
+    final Path externalFile = TESTCASES.resolve(filename);
+
+    if (GraphFileFormat.detect(externalFile) != GraphFileFormat.EDGE_LIST) {
+      throw new IllegalArgumentException("only edge lists can be searched without opening them");
+    }
+
+    final QueryEvent event = new QueryEvent("external breadth first search");
+    event.begin();
+
+    try (ExternalBreadthFirstSearch search =
+        new ExternalBreadthFirstSearch(scratchDirectory, bufferSize)) {
+      EdgeListLoader.readEdges(externalFile, new LoadProgress(), search::addEdge);
+      final StringBuilder order = new StringBuilder("[");
+
+      search.search(
+          vertex -> {
+            if (event.resultSize > 0) {
+              order.append(", ");
+            }
+
+            order.append(vertex);
+            event.resultSize++;
+
+            // The order may not fit in memory, so it is printed in pieces.
+            if (order.length() >= PRINT_BUFFER_CHARS) {
+              System.out.print(order);
+              order.setLength(0);
+            }
+          });
+
+      System.out.println(order.append(']'));
+
+      if (event.shouldCommit()) {
+        event.file = externalFile.toString();
+        event.verticies = search.getVertexCount();
+        event.edges = (int) Math.min(search.getEdgeCount(), Integer.MAX_VALUE);
+        event.commit();
+      }
+    }
   }
 
   /** Prints the search order of an iterative depth first search. */
   public void printDepthFirstSearch() {
-    System.out.println(Arrays.toString(graph.iterativeDepthFirstSearch().toArray()));
+    final QueryEvent event = new QueryEvent("depth first search");
+    event.begin();
+
+    if (intGraph != null) {
+      final int[] order = intGraph.iterativeDepthFirstSearch();
+      event.resultSize = order.length;
+      commit(event);
+      System.out.println(Arrays.toString(order));
+      return;
+    }
+
+    final Object[] order = graph.depthFirstStream().toArray();
+    event.resultSize = order.length;
+    commit(event);
+    System.out.println(Arrays.toString(order));
   }
 
   /** Prints the search order of a recursive breadth first search. */
   public void printRecursiveBreadthFirstSearch() {
-    System.out.println(Arrays.toString(graph.recursiveBreadthFirstSearch().toArray()));
+    // Both graphs visit verticies in the same order recursively and iteratively, and the iterative
+    // search does not run out of stack on long paths.
+    printIterativeBreadthFirstSearch();
   }
 
   /** Prints the search order of a recursive depth first search. */
   public void printRecursiveDepthFirstSearch() {
-    System.out.println(Arrays.toString(graph.recursiveDepthFirstSearch().toArray()));
+    // Both graphs visit verticies in the same order recursively and iteratively.
+    printDepthFirstSearch();
+  }
+
+  /**
+   * Prints the first verticies of an iterative breadth first search, stopping the search once
+   * enough verticies have been visited.
+   *
+   * @param limit The maximum number of verticies to print.
+   */
+  public void printBreadthFirstSearchLimit(final String limit) {
+    final int maxSize = parseLimit(limit);
+
+    if (maxSize < 0) {
+      return;
+    }
+
+    final QueryEvent event = new QueryEvent("breadth first search");
+    event.begin();
+
+    if (intGraph != null) {
+      final int[] order = intGraph.breadthFirstSearch(maxSize);
+      event.resultSize = order.length;
+      commit(event);
+      System.out.println(Arrays.toString(order));
+      return;
+    }
+
+    final Object[] order = graph.breadthFirstStream().limit(maxSize).toArray();
+    event.resultSize = order.length;
+    commit(event);
+    System.out.println(Arrays.toString(order));
+  }
+
+  /**
+   * Prints the first verticies of an iterative depth first search, stopping the search once enough
+   * verticies have been visited.
+   *
+   * @param limit The maximum number of verticies to print.
+   */
+  public void printDepthFirstSearchLimit(final String limit) {
+    final int maxSize = parseLimit(limit);
+
+    if (maxSize < 0) {
+      return;
+    }
+
+    final QueryEvent event = new QueryEvent("depth first search");
+    event.begin();
+
+    if (intGraph != null) {
+      final int[] order = intGraph.depthFirstSearch(maxSize);
+      event.resultSize = order.length;
+      commit(event);
+      System.out.println(Arrays.toString(order));
+      return;
+    }
+
+    final Object[] order = graph.depthFirstStream().limit(maxSize).toArray();
+    event.resultSize = order.length;
+    commit(event);
+    System.out.println(Arrays.toString(order));
+  }
+
+  /**
+   * Prints if the target vertex is reachable from the source vertex. The reachability index is
+   * built on the first query, and its build time and size are reported.
+   *
+   * @param source The vertex the path starts from.
+   * @param target The vertex the path ends at.
+   */
+  public void printReachable(final String source, final String target) {
+    if (!checkVerticiesExist(source, target)) {
+      return;
+    }
+
+    final QueryEvent event = new QueryEvent("reachable");
+    event.begin();
+    final boolean built = getOpenGraph().hasReachabilityIndex();
+
+    if (!built) {
+      final ReachabilityIndex index = getOpenGraph().getReachabilityIndex();
+      MessageCli.REACHABILITY_INDEX_BUILT.printMessage(
+          String.format("%.3f", index.getBuildTimeNanos() / 1e6),
+          String.valueOf(index.getComponentCount()),
+          String.valueOf(index.estimateSizeInBytes()));
+    }
+
+    final boolean reachable =
+        intGraph != null
+            ? intGraph.isReachable(Integer.parseInt(source), Integer.parseInt(target))
+            : graph.isReachable(source, target);
+    event.resultSize = reachable ? 1 : 0;
+    commit(event);
+
+    MessageCli.VERTEX_REACHABLE.printMessage(target, prefixNot(reachable), source);
+  }
+
+  /**
+   * Prints the length of a shortest path from the source vertex to the target vertex, followed by
+   * the verticies along the path.
+   *
+   * @param source The vertex the path starts from.
+   * @param target The vertex the path ends at.
+   */
+  public void printShortestPath(final String source, final String target) {
+    if (!checkVerticiesExist(source, target)) {
+      return;
+    }
+
+    final QueryEvent event = new QueryEvent("shortest path");
+    event.begin();
+    final Object[] path =
+        intGraph != null
+            ? toStrings(
+                intGraph.getShortestPath(Integer.parseInt(source), Integer.parseInt(target)))
+            : graph.getShortestPath(source, target).toArray();
+    event.resultSize = path.length;
+    commit(event);
+
+    if (path.length == 0) {
+      MessageCli.NO_PATH.printMessage(source, target);
+      return;
+    }
+
+    MessageCli.SHORTEST_PATH.printMessage(source, target, String.valueOf(path.length - 1));
+    System.out.println(Arrays.toString(path));
+  }
+
+  /**
+   * Prints the number of edges from the given vertex to every vertex, where -1 marks verticies that
+   * cannot be reached.
+   *
+   * @param source The vertex the paths start from.
+   */
+  public void printDistances(final String source) {
+    if (!checkVerticiesExist(source)) {
+      return;
+    }
+
+    final QueryEvent event = new QueryEvent("distances");
+    event.begin();
+
+    if (intGraph != null) {
+      final int[] distances = intGraph.getDistances(Integer.parseInt(source));
+      event.resultSize = distances.length;
+      commit(event);
+      System.out.println(formatDistances(intGraph.getVerticies(), distances, false));
+      return;
+    }
+
+    final Map<String, Integer> distances = graph.getDistances(source);
+    event.resultSize = distances.size();
+    commit(event);
+    System.out.println(distances);
+  }
+
+  /**
+   * Prints, for every root vertex, how many verticies it reaches followed by the number of edges
+   * from the root to each of them.
+   */
+  public void printRootDistances() {
+    final QueryEvent event = new QueryEvent("root distances");
+    event.begin();
+
+    if (intGraph != null) {
+      final int[] roots = intGraph.getRoots();
+      final int[] verticies = intGraph.getVerticies();
+      final int[][] distances = intGraph.getRootDistances();
+      event.resultSize = roots.length;
+      commit(event);
+
+      for (int r = 0; r < roots.length; r++) {
+        int reached = 0;
+
+        for (final int distance : distances[r]) {
+          reached += distance != -1 ? 1 : 0;
+        }
+
+        MessageCli.ROOT_REACHES.printMessage(String.valueOf(roots[r]), String.valueOf(reached));
+        System.out.println(formatDistances(verticies, distances[r], true));
+      }
+      return;
+    }
+
+    final Map<String, Map<String, Integer>> rootDistances = graph.getRootDistances();
+    event.resultSize = rootDistances.size();
+    commit(event);
+
+    for (final Map.Entry<String, Map<String, Integer>> entry : rootDistances.entrySet()) {
+      MessageCli.ROOT_REACHES.printMessage(entry.getKey(), String.valueOf(entry.getValue().size()));
+      System.out.println(entry.getValue());
+    }
+  }
+
+  /**
+   * Prints the number of edges from the nearest root to every vertex, where -1 is printed for the
+   * verticies that no root reaches.
+   */
+  public void printRootLevels() {
+    final QueryEvent event = new QueryEvent("root levels");
+    event.begin();
+
+    if (intGraph != null) {
+      final int[] verticies = intGraph.getVerticies();
+      final int[] levels = intGraph.getRootLevels();
+      final long reached = Arrays.stream(levels).filter(level -> level != -1).count();
+      event.resultSize = (int) reached;
+      commit(event);
+
+      MessageCli.ROOT_LEVELS.printMessage(
+          String.valueOf(reached), String.valueOf(verticies.length));
+      System.out.println(formatDistances(verticies, levels, false));
+      return;
+    }
+
+    final Map<String, Integer> levels = graph.getRootLevels();
+    final long reached = levels.values().stream().filter(level -> level != -1).count();
+    event.resultSize = (int) reached;
+    commit(event);
+
+    MessageCli.ROOT_LEVELS.printMessage(String.valueOf(reached), String.valueOf(levels.size()));
+    System.out.println(levels);
+  }
+
+  /**
+   * Gets whichever graph holds the verticies and edges of the file, for the queries that do not
+   * depend on how the verticies are represented.
+   *
+   * @return The open graph.
+   */
+  private AbstractGraph<?> getOpenGraph() {
+    return intGraph != null ? intGraph : graph;
+  }
+
+  /** Creates the graph of the verticies and edges read from the file. */
+  private void createGraph() {
+    final BuildEvent event = new BuildEvent();
+    event.begin();
+
+    // Integer verticies on the heap are kept in the primitive graph, which never boxes them.
+    if (storage == GraphStorage.HEAP
+        && ordering == VertexOrdering.NONE
+        && loader.getIntegerVerticies() != null) {
+      intGraph = createIntGraph();
+      graph = null;
+    } else {
+      intGraph = null;
+      graph = createGenericGraph();
+    }
+
+    event.storage = storage.name();
+    event.ordering = ordering.name();
+    event.primitive = intGraph != null;
+    commit(event);
+  }
+
+  /**
+   * Reads the verticies and edges of the file, in the format detected from its name.
+   *
+   * @param progress The progress of reading the file, which can cancel it.
+   * @return The loader holding the verticies and edges of the file.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If the file is not valid in its format.
+   */
+  private GraphFileLoader load(final LoadProgress progress) throws FileNotFoundException {
+    final ParseEvent event = new ParseEvent();
+    event.begin();
+    final GraphFileFormat format = GraphFileFormat.detect(file);
+    final GraphFileLoader loaded = format.load(file, progress);
+
+    if (event.shouldCommit()) {
+      // The graph is not built yet, so its size is taken from what was read.
+      final int[] integerVerticies = loaded.getIntegerVerticies();
+      event.file = file.toString();
+      event.format = format.name();
+      event.verticies =
+          integerVerticies != null ? integerVerticies.length : loaded.getVerticies().length;
+      event.edges = loaded.getSources().length;
+      event.commit();
+    }
+
+    return loaded;
+  }
+
+  /**
+   * Records an event about the open graph, filling in the file and the size of the graph only if
+   * the event is enabled and long enough to be recorded.
+   *
+   * @param event The event, which has been started.
+   */
+  private void commit(final GraphEvent event) {
+    if (event.shouldCommit()) {
+      event.file = file.toString();
+      event.verticies = getOpenGraph().getVertexCount();
+      event.edges = getOpenGraph().getEdgeCount();
+      event.commit();
+    }
+  }
+
+  /**
+   * Adds and removes edges between verticies of the open graph.
+   *
+   * @param addedEdges The packed positions in the loaded verticies of each edge to add.
+   * @param removedEdges The packed positions in the loaded verticies of each edge to remove.
+   */
+  private void applyEdgeChanges(final long[] addedEdges, final long[] removedEdges) {
+    if (intGraph != null) {
+      final int[] verticies = loader.getIntegerVerticies();
+      intGraph.applyChanges(
+          toIntegerEdges(verticies, addedEdges), toIntegerEdges(verticies, removedEdges));
+      return;
+    }
+
+    final String[] names = loader.getVerticies();
+    final List<Edge<String>> added = new ArrayList<>(addedEdges.length);
+    final List<Edge<String>> removed = new ArrayList<>(removedEdges.length);
+
+    for (final long edge : addedEdges) {
+      added.add(
+          new Edge<>(
+              names[PackedEdgeSet.getSource(edge)], names[PackedEdgeSet.getTarget(edge)]));
+    }
+
+    for (final long edge : removedEdges) {
+      removed.add(
+          new Edge<>(
+              names[PackedEdgeSet.getSource(edge)], names[PackedEdgeSet.getTarget(edge)]));
+    }
+
+    graph.applyChanges(added, removed);
+  }
+
+  /**
+   * Converts packed positions of verticies into pairs of integer verticies.
+   *
+   * @param verticies The integer verticies, in the order of their positions.
+   * @param edges The packed positions of the verticies of each edge.
+   * @return Each edge as a pair of its source and destination.
+   */
+  private int[][] toIntegerEdges(final int[] verticies, final long[] edges) {
+    final int[][] pairs = new int[edges.length][];
+
+    for (int i = 0; i < edges.length; i++) {
+      final int source = verticies[PackedEdgeSet.getSource(edges[i])];
+      final int destination = verticies[PackedEdgeSet.getTarget(edges[i])];
+      pairs[i] = new int[] {source, destination};
+    }
+
+    return pairs;
+  }
+
+  /**
+   * Creates the generic graph of the verticies and edges read from the file.
+   *
+   * @return The graph.
+   */
+  private Graph<String> createGenericGraph() {
+    final String[] names = loader.getVerticies();
+    final int[] sources = loader.getSources();
+    final int[] destinations = loader.getDestinations();
+    final Set<String> verticies = new HashSet<>(Arrays.asList(names));
+
+    // duplicate edges are dropped by the packed edge set of the graph
+    final List<Edge<String>> edges = new ArrayList<>(sources.length);
+
+    for (int i = 0; i < sources.length; i++) {
+      edges.add(new Edge<>(names[sources[i]], names[destinations[i]]));
+    }
+
+    return new Graph<>(verticies, edges, storage, ordering);
+  }
+
+  /**
+   * Creates the primitive graph of the verticies and edges read from the file, which must all be
+   * integers.
+   *
+   * @return The graph.
+   */
+  private IntGraph createIntGraph() {
+    final int[] verticies = loader.getIntegerVerticies();
+    final int[] sourceIds = loader.getSources();
+    final int[] destinationIds = loader.getDestinations();
+
+    // duplicate edges are dropped by the packed edge set of the graph
+    final int[] sources = new int[sourceIds.length];
+    final int[] destinations = new int[destinationIds.length];
+
+    for (int i = 0; i < sources.length; i++) {
+      sources[i] = verticies[sourceIds[i]];
+      destinations[i] = verticies[destinationIds[i]];
+    }
+
+    return new IntGraph(verticies, sources, destinations);
+  }
+
+  /**
+   * Finds the smallest file in the same folder and format as the open file that is larger than it.
+   *
+   * @param size The size of the open file in bytes.
+   * @return The next larger file, or null if the open file is the largest.
+   * @throws IOException If the folder cannot be listed.
+   */
+  private Path findNextLargerFile(final long size) throws IOException {
+    final GraphFileFormat format = GraphFileFormat.detect(file);
+    Path next = null;
+    long nextSize = Long.MAX_VALUE;
+
+    try (Stream<Path> files = Files.list(file.toAbsolutePath().getParent())) {
+      for (final Path other : (Iterable<Path>) files::iterator) {
+        if (!Files.isRegularFile(other) || GraphFileFormat.detect(other) != format) {
+          continue;
+        }
+
+        final long otherSize = Files.size(other);
+
+        if (otherSize > size && otherSize < nextSize) {
+          next = other;
+          nextSize = otherSize;
+        }
+      }
+    }
+
+    return next;
+  }
+
+  /**
+   * Checks that every given vertex is in the graph, printing an error for the first that is not.
+   *
+   * @param verticies The verticies to check.
+   * @return If every vertex is in the graph.
+   */
+  private boolean checkVerticiesExist(final String... verticies) {
+    for (final String vertex : verticies) {
+      final boolean found;
+
+      if (intGraph != null) {
+        found =
+            IntGraph.isIntegerVertex(vertex) && intGraph.containsVertex(Integer.parseInt(vertex));
+      } else {
+        found = graph.containsVertex(vertex);
+      }
+
+      if (!found) {
+        MessageCli.VERTEX_NOT_FOUND.printMessage(vertex);
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Parses a limit on the number of verticies to print, printing an error if it is not valid.
+   *
+   * @param limit The limit entered by the user.
+   * @return The limit, or -1 if it is not valid.
+   */
+  private int parseLimit(final String limit) {
+    try {
+      final int maxSize = Integer.parseInt(limit);
+
+      if (maxSize >= 0) {
+        return maxSize;
+      }
+    } catch (final NumberFormatException e) {
+      // Falls through to the error below.
+    }
+
+    MessageCli.INVALID_LIMIT.printMessage(limit);
+    return -1;
+  }
+
+  /**
+   * Converts integer verticies into their strings.
+   *
+   * @param verticies The verticies to convert.
+   * @return The strings of the verticies, in the same order.
+   */
+  private Object[] toStrings(final int[] verticies) {
+    final Object[] strings = new Object[verticies.length];
+
+    for (int i = 0; i < verticies.length; i++) {
+      strings[i] = String.valueOf(verticies[i]);
+    }
+
+    return strings;
+  }
+
+  /**
+   * Formats each vertex with its distance as a map of them is printed, keeping the order of the
+   * verticies. The distances are written straight from the arrays rather than boxed into a map.
+   *
+   * @param verticies The verticies in order.
+   * @param distances The distance to each vertex, which is -1 if it cannot be reached.
+   * @param reachedOnly If verticies that cannot be reached are left out.
+   * @return The formatted distances.
+   */
+  private String formatDistances(
+      final int[] verticies, final int[] distances, final boolean reachedOnly) {
+    final StringBuilder sb = new StringBuilder("{");
+
+    for (int i = 0; i < verticies.length; i++) {
+      if (!reachedOnly || distances[i] != -1) {
+        if (sb.length() > 1) {
+          sb.append(", ");
+        }
+
+        sb.append(verticies[i]).append('=').append(distances[i]);
+      }
+    }
+
+    return sb.append('}').toString();
   }
 
   /**
@@ -0,0 +1,24 @@
+package nz.ac.auckland.se281;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event about the work done on a graph file, which records the file and the
+ * size of its graph. The sizes are only filled in when the event is committed, so an event that is
+ * not being recorded costs no more than checking that it is disabled.
+ */
+@Category("Graph Calculator")
+@StackTrace(false)
+abstract class GraphEvent extends Event {
+  @Label("File")
+  String file;
+
+  @Label("Verticies")
+  int verticies;
+
+  @Label("Edges")
+  int edges;
+}
@@ -0,0 +1,165 @@
+package nz.ac.auckland.se281;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import nz.ac.auckland.se281.datastructures.PackedEdgeSet;
+
+/**
+ * The verticies and edges that changed between two loads of a graph file. Verticies are matched by
+ * name, and the changed edges are numbered by the positions of their verticies in the earlier
+ * load, with verticies that were added numbered from the end of the earlier verticies.
+ */
+public class GraphFileChanges {
+  private final int addedVerticies;
+
+  private final int removedVerticies;
+
+  private final long[] addedEdges;
+
+  private final long[] removedEdges;
+
+  /**
+   * Finds the changes from one load of a file to the next.
+   *
+   * @param before The file as it was loaded before it changed.
+   * @param after The file as it was loaded after it changed.
+   */
+  public GraphFileChanges(final GraphFileLoader before, final GraphFileLoader after) {
+    final String[] oldVerticies = before.getVerticies();
+    final String[] newVerticies = after.getVerticies();
+    final Map<String, Integer> oldPositions = new HashMap<>(oldVerticies.length * 2);
+
+    for (int i = 0; i < oldVerticies.length; i++) {
+      oldPositions.put(oldVerticies[i], i);
+    }
+
+    // Each vertex of the new load is renumbered to its position in the old load, if it had one.
+    final int[] renumbered = new int[newVerticies.length];
+    int added = 0;
+
+    for (int i = 0; i < newVerticies.length; i++) {
+      final Integer position = oldPositions.get(newVerticies[i]);
+      renumbered[i] = position != null ? position : oldVerticies.length + added++;
+    }
+
+    addedVerticies = added;
+    removedVerticies = oldVerticies.length - (newVerticies.length - added);
+
+    final long[] oldEdges = toSortedEdges(before.getSources(), before.getDestinations(), null);
+    final long[] newEdges = toSortedEdges(after.getSources(), after.getDestinations(), renumbered);
+
+    // Both edge lists are sorted, so one merge finds the edges only found in either of them.
+    long[] addedFound = new long[16];
+    long[] removedFound = new long[16];
+    int addedCount = 0;
+    int removedCount = 0;
+    int o = 0;
+    int n = 0;
+
+    while (o < oldEdges.length || n < newEdges.length) {
+      if (n == newEdges.length || (o < oldEdges.length && oldEdges[o] < newEdges[n])) {
+        if (removedCount == removedFound.length) {
+          removedFound = Arrays.copyOf(removedFound, removedCount * 2);
+        }
+        removedFound[removedCount++] = oldEdges[o++];
+      } else if (o == oldEdges.length || newEdges[n] < oldEdges[o]) {
+        if (addedCount == addedFound.length) {
+          addedFound = Arrays.copyOf(addedFound, addedCount * 2);
+        }
+        addedFound[addedCount++] = newEdges[n++];
+      } else {
+        o++;
+        n++;
+      }
+    }
+
+    addedEdges = Arrays.copyOf(addedFound, addedCount);
+    removedEdges = Arrays.copyOf(removedFound, removedCount);
+  }
+
+  /**
+   * Checks if nothing changed between the two loads.
+   *
+   * @return If the verticies and edges are the same.
+   */
+  public boolean isEmpty() {
+    return !hasVertexChanges() && addedEdges.length == 0 && removedEdges.length == 0;
+  }
+
+  /**
+   * Checks if any verticies were added or removed, which renumbers the verticies of a graph.
+   *
+   * @return If the verticies changed.
+   */
+  public boolean hasVertexChanges() {
+    return addedVerticies > 0 || removedVerticies > 0;
+  }
+
+  /**
+   * Gets the number of verticies only found in the later load.
+   *
+   * @return The number of verticies added.
+   */
+  public int getAddedVerticies() {
+    return addedVerticies;
+  }
+
+  /**
+   * Gets the number of verticies only found in the earlier load.
+   *
+   * @return The number of verticies removed.
+   */
+  public int getRemovedVerticies() {
+    return removedVerticies;
+  }
+
+  /**
+   * Gets the distinct edges only found in the later load.
+   *
+   * @return The packed positions of the verticies of each edge, sorted by source.
+   */
+  public long[] getAddedEdges() {
+    return addedEdges;
+  }
+
+  /**
+   * Gets the distinct edges only found in the earlier load.
+   *
+   * @return The packed positions of the verticies of each edge, sorted by source.
+   */
+  public long[] getRemovedEdges() {
+    return removedEdges;
+  }
+
+  /**
+   * Packs the positions of the verticies of each edge, then sorts them and drops repeated edges.
+   *
+   * @param sources The position of the source of each edge.
+   * @param destinations The position of the destination of each edge.
+   * @param renumbered The new number of each position, or null to keep the positions.
+   * @return The sorted distinct edges.
+   */
+  private static long[] toSortedEdges(
+      final int[] sources, final int[] destinations, final int[] renumbered) {
+    final long[] edges = new long[sources.length];
+
+    for (int i = 0; i < edges.length; i++) {
+      edges[i] =
+          renumbered == null
+              ? PackedEdgeSet.pack(sources[i], destinations[i])
+              : PackedEdgeSet.pack(renumbered[sources[i]], renumbered[destinations[i]]);
+    }
+
+    Arrays.sort(edges);
+    int size = 0;
+
+    for (int i = 0; i < edges.length; i++) {
+      if (i == 0 || edges[i] != edges[i - 1]) {
+        edges[size++] = edges[i];
+      }
+    }
+
+    return Arrays.copyOf(edges, size);
+  }
+}
@@ -0,0 +1,122 @@
+package nz.ac.auckland.se281;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/** The formats of graph files that can be opened, each of which has its own loader. */
+public enum GraphFileFormat {
+  DOT("a DOT digraph"),
+  EDGE_LIST("a whitespace separated edge list"),
+  MATRIX_MARKET("a Matrix Market coordinate matrix");
+
+  private static final int MAX_HEADER_LINES = 1000;
+
+  private static final Pattern EDGE_LINE = Pattern.compile("\\s*-?\\d+\\s+-?\\d+(\\s.*)?");
+
+  private final String description;
+
+  /**
+   * Create a new graph file format.
+   *
+   * @param description The description of the files in the format.
+   */
+  private GraphFileFormat(final String description) {
+    this.description = description;
+  }
+
+  /**
+   * Get the description of the files in the format.
+   *
+   * @return The description.
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * Detects the format of a file from its extension, or otherwise from its first lines. Files
+   * ending in ".mtx" or starting with a "%%MatrixMarket" banner are Matrix Market files, files
+   * ending in ".el", ".edges" or ".edgelist" or whose first line that is not a comment holds two
+   * integers are edge lists, and every other file is a DOT file.
+   *
+   * @param file The file to detect the format of.
+   * @return The format of the file.
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  public static GraphFileFormat detect(final Path file) throws FileNotFoundException {
+    if (!Files.isRegularFile(file)) {
+      throw new FileNotFoundException(file.toString());
+    }
+
+    final String name = file.getFileName().toString().toLowerCase();
+
+    if (name.endsWith(".mtx")) {
+      return MATRIX_MARKET;
+    } else if (name.endsWith(".el") || name.endsWith(".edges") || name.endsWith(".edgelist")) {
+      return EDGE_LIST;
+    } else if (name.endsWith(".dot") || name.endsWith(".gv")) {
+      return DOT;
+    }
+
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+      String line = reader.readLine();
+
+      if (line != null && line.regionMatches(true, 0, "%%MatrixMarket", 0, 14)) {
+        return MATRIX_MARKET;
+      }
+
+      // Only the first line that is not blank or a comment decides between the other formats.
+      for (int i = 0; line != null && i < MAX_HEADER_LINES; i++, line = reader.readLine()) {
+        final String trimmed = line.trim();
+
+        if (!trimmed.isEmpty() && !trimmed.startsWith("#") && !trimmed.startsWith("%")) {
+          return EDGE_LINE.matcher(line).matches() ? EDGE_LIST : DOT;
+        }
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return DOT;
+  }
+
+  /**
+   * Loads a file in this format.
+   *
+   * @param file The file to read.
+   * @return The loader holding the verticies and edges of the file.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If the file is not valid in this format.
+   */
+  public GraphFileLoader load(final Path file) throws FileNotFoundException {
+    return load(file, new LoadProgress());
+  }
+
+  /**
+   * Loads a file in this format, reporting progress as it reads.
+   *
+   * @param file The file to read.
+   * @param progress The progress of the load, which can cancel it.
+   * @return The loader holding the verticies and edges of the file.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If the file is not valid in this format.
+   * @throws java.util.concurrent.CancellationException If the load is cancelled.
+   */
+  public GraphFileLoader load(final Path file, final LoadProgress progress)
+      throws FileNotFoundException {
+    switch (this) {
+      case EDGE_LIST:
+        return new EdgeListLoader(file, progress);
+      case MATRIX_MARKET:
+        return new MatrixMarketLoader(file, progress);
+      default:
+        return new DotFileLoader(file, progress);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package nz.ac.auckland.se281;
+
+import nz.ac.auckland.se281.datastructures.MemoryFootprint;
+
+/**
+ * The verticies and edges read from a graph file, where each edge is given by the positions of its
+ * verticies in {@link #getVerticies()}.
+ */
+public interface GraphFileLoader {
+
+  /**
+   * Gets every vertex of the file.
+   *
+   * @return The verticies, each of which appears once.
+   */
+  String[] getVerticies();
+
+  /**
+   * Gets every vertex of the file as an integer, in the same order as {@link #getVerticies()}.
+   *
+   * @return The verticies, or null if any vertex is not the decimal string of an integer.
+   */
+  int[] getIntegerVerticies();
+
+  /**
+   * Gets the position of the source of every edge of the file.
+   *
+   * @return The sources, which may repeat an edge that appears more than once in the file.
+   */
+  int[] getSources();
+
+  /**
+   * Gets the position of the destination of every edge of the file.
+   *
+   * @return The destinations, in the same order as the sources.
+   */
+  int[] getDestinations();
+
+  /**
+   * Adds the estimated sizes of the verticies and edges held by the loader to a footprint. Strings
+   * or integers that are only created when first needed are not counted until they have been.
+   *
+   * @param footprint The footprint to add to.
+   */
+  void estimateFootprint(MemoryFootprint footprint);
+}
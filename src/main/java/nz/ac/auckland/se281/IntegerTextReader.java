@@ -0,0 +1,184 @@
+package nz.ac.auckland.se281;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads lines of whitespace separated integers from a stream of text one buffer at a time, parsing
+ * each integer straight from the bytes rather than from a string.
+ */
+public class IntegerTextReader implements AutoCloseable {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final InputStream input;
+
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+
+  private int position;
+
+  private int limit;
+
+  private int line = 1;
+
+  private long bytesRead;
+
+  /**
+   * Creates a reader over a stream of text.
+   *
+   * @param input The stream to read, which is closed with the reader.
+   */
+  public IntegerTextReader(final InputStream input) {
+    this.input = input;
+  }
+
+  /**
+   * Gets the number of the line being read, starting from 1.
+   *
+   * @return The line number.
+   */
+  public int getLine() {
+    return line;
+  }
+
+  /**
+   * Gets the number of bytes read from the stream so far, which may be ahead of the text parsed.
+   *
+   * @return The number of bytes.
+   */
+  public long getBytesRead() {
+    return bytesRead;
+  }
+
+  /**
+   * Skips spaces and tabs on the current line, then gets the next byte without reading it.
+   *
+   * @return The next byte, which is a line break at the end of a line, or -1 at the end of file.
+   */
+  public int peek() {
+    while (fill()) {
+      final byte b = buffer[position];
+
+      if (b != ' ' && b != '\t' && b != '\r' && b != '\f') {
+        return b;
+      }
+
+      position++;
+    }
+
+    return -1;
+  }
+
+  /** Skips the rest of the current line, including its line break. */
+  public void skipLine() {
+    while (fill()) {
+      if (buffer[position++] == '\n') {
+        line++;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Reads the next integer on the current line.
+   *
+   * @return The integer.
+   * @throws IllegalArgumentException If the next word on the line is not an integer.
+   */
+  public int readInt() {
+    int b = peek();
+    final boolean negative = b == '-';
+
+    if (negative) {
+      position++;
+      b = fill() ? buffer[position] : -1;
+    }
+
+    if (b < '0' || b > '9') {
+      throw new IllegalArgumentException("expected an integer on line " + line);
+    }
+
+    long value = 0;
+
+    while (fill() && buffer[position] >= '0' && buffer[position] <= '9') {
+      value = value * 10 + (buffer[position++] - '0');
+
+      if (value > (long) Integer.MAX_VALUE + 1) {
+        throw new IllegalArgumentException("integer too large on line " + line);
+      }
+    }
+
+    if (!isEndOfWord()) {
+      throw new IllegalArgumentException("expected an integer on line " + line);
+    }
+
+    value = negative ? -value : value;
+
+    if (value > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("integer too large on line " + line);
+    }
+
+    return (int) value;
+  }
+
+  /**
+   * Reads the next word on the current line, which is only used for short keywords.
+   *
+   * @return The word, which is empty at the end of a line.
+   */
+  public String readWord() {
+    peek();
+    final StringBuilder word = new StringBuilder();
+
+    while (!isEndOfWord()) {
+      word.append((char) (buffer[position++] & 0xff));
+    }
+
+    return word.toString();
+  }
+
+  /** Closes the stream. */
+  @Override
+  public void close() {
+    try {
+      input.close();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Checks if the next byte ends a word, which it does if it is whitespace or the end of the file.
+   *
+   * @return If the word has ended.
+   */
+  private boolean isEndOfWord() {
+    if (!fill()) {
+      return true;
+    }
+
+    final byte b = buffer[position];
+    return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == '\n';
+  }
+
+  /**
+   * Makes sure there is a byte to read, reading the next buffer from the stream if needed.
+   *
+   * @return If there is a byte to read, or false at the end of the file.
+   */
+  private boolean fill() {
+    if (position < limit) {
+      return true;
+    }
+
+    try {
+      limit = Math.max(0, input.read(buffer));
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    position = 0;
+    bytesRead += limit;
+    return limit > 0;
+  }
+}
@@ -0,0 +1,75 @@
+package nz.ac.auckland.se281;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The progress of loading a graph file, which loaders update as they read and which can be read or
+ * cancelled from another thread. Loaders check for cancellation as they report progress.
+ */
+public class LoadProgress {
+  /** The number of edges loaders parse between reports of their progress. */
+  public static final int EDGES_PER_REPORT = 1 << 16;
+
+  private final AtomicLong bytesRead = new AtomicLong();
+
+  private final AtomicLong edgesParsed = new AtomicLong();
+
+  private volatile boolean cancelled;
+
+  /**
+   * Records that more of the file has been read, stopping the load if it has been cancelled.
+   *
+   * @param bytes The number of bytes read since the last report.
+   * @param edges The number of edges parsed since the last report.
+   * @throws CancellationException If the load has been cancelled.
+   */
+  public void advance(final long bytes, final long edges) {
+    bytesRead.addAndGet(bytes);
+    edgesParsed.addAndGet(edges);
+    checkCancelled();
+  }
+
+  /**
+   * Gets the number of bytes of the file read so far.
+   *
+   * @return The number of bytes.
+   */
+  public long getBytesRead() {
+    return bytesRead.get();
+  }
+
+  /**
+   * Gets the number of edges parsed so far, which includes any repeated edges.
+   *
+   * @return The number of edges.
+   */
+  public long getEdgesParsed() {
+    return edgesParsed.get();
+  }
+
+  /** Asks the load to stop the next time it reports progress. */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Checks if the load has been asked to stop.
+   *
+   * @return If the load has been cancelled.
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Stops the load if it has been cancelled.
+   *
+   * @throws CancellationException If the load has been cancelled.
+   */
+  public void checkCancelled() {
+    if (cancelled) {
+      throw new CancellationException("Loading was cancelled");
+    }
+  }
+}
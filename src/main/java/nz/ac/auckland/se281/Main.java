@@ -1,7 +1,24 @@
 package nz.ac.auckland.se281;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.Scanner;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import nz.ac.auckland.se281.datastructures.ExternalBreadthFirstSearch;
+import nz.ac.auckland.se281.datastructures.GraphStorage;
+import nz.ac.auckland.se281.datastructures.VertexOrdering;
 
 /**
  * The entry point of the graph calculator command line interface.
@@ -46,6 +63,32 @@ public class Main {
 
   private GraphCalculator calculator;
 
+  private GraphStorage storage = GraphStorage.HEAP;
+
+  private VertexOrdering ordering = VertexOrdering.NONE;
+
+  private Path scratchDirectory = Path.of(System.getProperty("java.io.tmpdir"));
+
+  private int scratchBufferSize = ExternalBreadthFirstSearch.DEFAULT_BUFFER_SIZE;
+
+  private final ExecutorService background =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            final Thread thread = new Thread(runnable, "graph-calculator-loader");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private Future<GraphCalculator> loading;
+
+  private String loadingFilename;
+
+  private LoadProgress loadingProgress;
+
+  private WatchService watcher;
+
+  private WatchKey watchKey;
+
   /**
    * Create a new command line interface.
    *
@@ -69,12 +112,19 @@ public class Main {
   }
 
   /**
-   * Execute a command entered by the user and determine if more commands are expected.
+   * Execute a command entered by the user and determine if more commands are expected. This is
+   * package-private so that the CLI benchmark can time each command of a script on its own.
    *
    * @param input The command entered by the user.
    * @return If the program should continue to wait for another command.
    */
-  private boolean processCommand(String input) {
+  boolean processCommand(String input) {
+    // Report a file that finished opening in the background before anything else.
+    finishLoading();
+
+    // Changes to a watched file are applied between commands, never during one.
+    applyFileChanges();
+
     // Remove whitespace at the beginning and end of the input.
     input = input.trim();
 
@@ -102,13 +152,26 @@ public class Main {
     }
 
     // A file is only open if there is a calculator instance.
-    // The user cannot do anything other than open a file, exit,
-    // or get help if there is no file.
+    // The user cannot do anything other than open a file, choose
+    // the storage, order or scratch files, search a file externally, exit, or get help if there
+    // is no file.
     if (calculator == null
         && command != Command.OPEN_FILE
+        && command != Command.OPEN_FILE_ASYNC
+        && command != Command.LOAD_STATUS
+        && command != Command.CANCEL_LOAD
+        && command != Command.WAIT_LOAD
+        && command != Command.STORAGE
+        && command != Command.ORDER
+        && command != Command.SCRATCH
+        && command != Command.GRAPH_SEARCH_EXTERNAL_BFS
         && command != Command.EXIT
         && command != Command.HELP) {
-      MessageCli.FILE_NOT_OPEN.printMessage();
+      if (loading != null) {
+        MessageCli.FILE_STILL_LOADING.printMessage(loadingFilename);
+      } else {
+        MessageCli.FILE_NOT_OPEN.printMessage();
+      }
       return true;
     }
 
@@ -116,16 +179,122 @@ public class Main {
       case OPEN_FILE:
         final String filename = args[1];
 
+        // The newest file to open replaces any file still opening in the background.
+        cancelLoading();
+
         try {
-          calculator = new GraphCalculator(filename);
+          final GraphCalculator opened = new GraphCalculator(filename, storage, ordering);
+
+          // Release the previous graph only once the new one has loaded.
+          if (calculator != null) {
+            calculator.close();
+          }
+
+          calculator = opened;
           MessageCli.OPENED_FILE_SUCCESSFULLY.printMessage(filename);
         } catch (FileNotFoundException e) {
           MessageCli.FILE_NOT_FOUND.printMessage(filename);
+        } catch (final IllegalArgumentException e) {
+          MessageCli.FILE_NOT_VALID.printMessage(filename, e.getMessage());
+        } catch (final UncheckedIOException e) {
+          MessageCli.FILE_NOT_VALID.printMessage(filename, e.getCause().getMessage());
+        }
+        break;
+      case OPEN_FILE_ASYNC:
+        cancelLoading();
+
+        final String asyncFilename = args[1];
+        final GraphStorage asyncStorage = storage;
+        final VertexOrdering asyncOrdering = ordering;
+        final LoadProgress progress = new LoadProgress();
+
+        loadingFilename = asyncFilename;
+        loadingProgress = progress;
+        loading =
+            background.submit(
+                () -> openInBackground(asyncFilename, asyncStorage, asyncOrdering, progress));
+        MessageCli.FILE_LOADING.printMessage(asyncFilename);
+        break;
+      case LOAD_STATUS:
+        if (loading == null) {
+          MessageCli.NOT_LOADING.printMessage();
+        } else {
+          MessageCli.FILE_LOADING_PROGRESS.printMessage(
+              loadingFilename,
+              String.valueOf(loadingProgress.getBytesRead()),
+              String.valueOf(loadingProgress.getEdgesParsed()));
+        }
+        break;
+      case CANCEL_LOAD:
+        if (loading == null) {
+          MessageCli.NOT_LOADING.printMessage();
+        } else {
+          cancelLoading();
+        }
+        break;
+      case WAIT_LOAD:
+        if (loading == null) {
+          MessageCli.NOT_LOADING.printMessage();
+        } else {
+          awaitLoading();
+          finishLoading();
+        }
+        break;
+      case WATCH:
+        try {
+          watchFile();
+          MessageCli.WATCHING.printMessage();
+        } catch (final UncheckedIOException e) {
+          stopWatching();
+          MessageCli.WATCH_FAILED.printMessage(e.getCause().getMessage());
+        }
+        break;
+      case UNWATCH:
+        if (watcher == null) {
+          MessageCli.NOT_WATCHING.printMessage();
+        } else {
+          stopWatching();
+          MessageCli.WATCH_STOPPED.printMessage();
+        }
+        break;
+      case STORAGE:
+        final String storageStr = args[1].toUpperCase().replaceAll("-", "_");
+
+        try {
+          storage = GraphStorage.valueOf(storageStr);
+          MessageCli.STORAGE_SELECTED.printMessage(storage.getDescription());
+        } catch (final IllegalArgumentException e) {
+          MessageCli.STORAGE_NOT_FOUND.printMessage(args[1]);
+        }
+        break;
+      case ORDER:
+        try {
+          ordering = VertexOrdering.valueOf(args[1].toUpperCase());
+          MessageCli.ORDER_SELECTED.printMessage(ordering.getDescription());
+        } catch (final IllegalArgumentException e) {
+          MessageCli.ORDER_NOT_FOUND.printMessage(args[1]);
+        }
+        break;
+      case SCRATCH:
+        final Path directory = Path.of(args[1]);
+        final int bufferSize = parseBufferSize(args[2]);
+
+        if (!Files.isDirectory(directory)) {
+          MessageCli.SCRATCH_DIRECTORY_NOT_FOUND.printMessage(args[1]);
+        } else if (bufferSize < 1) {
+          MessageCli.INVALID_BUFFER_SIZE.printMessage(args[2]);
+        } else {
+          scratchDirectory = directory;
+          scratchBufferSize = bufferSize;
+          MessageCli.SCRATCH_SELECTED.printMessage(args[1], args[2]);
         }
         break;
       case INFO:
         calculator.printInfo();
         break;
+      case MEMORY:
+        calculator.printMemory();
+        break;
       case LIST_VERTICIES_EDGES:
         calculator.printVerticiesEdges();
         break;
@@ -147,9 +316,24 @@ public class Main {
       case CHECK_EQUIVALENCE:
         calculator.printEquivalence();
         break;
+      case ANALYZE:
+        calculator.printAnalysis();
+        break;
+      case DEGREE_STATS:
+        calculator.printDegreeStatistics();
+        break;
+      case COMPONENTS:
+        calculator.printComponents();
+        break;
       case COMPUTE_EQUIVALENCE:
         calculator.printEquivalenceClass(args[1]);
         break;
+      case COMPUTE_EQUIVALENCE_BATCH:
+        calculator.printEquivalenceClasses(args[1]);
+        break;
+      case QUOTIENT:
+        calculator.printQuotient();
+        break;
       case GRAPH_SEARCH_IBFS:
         calculator.printIterativeBreadthFirstSearch();
         break;
@@ -162,7 +346,49 @@ public class Main {
       case GRAPH_SEARCH_RDFS:
         calculator.printRecursiveDepthFirstSearch();
         break;
+      case GRAPH_SEARCH_IBFS_LIMIT:
+        calculator.printBreadthFirstSearchLimit(args[1]);
+        break;
+      case GRAPH_SEARCH_IDFS_LIMIT:
+        calculator.printDepthFirstSearchLimit(args[1]);
+        break;
+      case GRAPH_SEARCH_EXTERNAL_BFS:
+        try {
+          GraphCalculator.printExternalBreadthFirstSearch(
+              args[1], scratchDirectory, scratchBufferSize);
+        } catch (FileNotFoundException e) {
+          MessageCli.FILE_NOT_FOUND.printMessage(args[1]);
+        } catch (final IllegalArgumentException e) {
+          MessageCli.FILE_NOT_VALID.printMessage(args[1], e.getMessage());
+        } catch (final UncheckedIOException e) {
+          MessageCli.SCRATCH_FAILED.printMessage(
+              scratchDirectory.toString(), e.getCause().getMessage());
+        }
+        break;
+      case REACHABLE:
+        calculator.printReachable(args[1], args[2]);
+        break;
+      case SHORTEST_PATH:
+        calculator.printShortestPath(args[1], args[2]);
+        break;
+      case DISTANCES:
+        calculator.printDistances(args[1]);
+        break;
+      case ROOT_DISTANCES:
+        calculator.printRootDistances();
+        break;
+      case ROOT_LEVELS:
+        calculator.printRootLevels();
+        break;
       case EXIT:
+        cancelLoading();
+        background.shutdown();
+        stopWatching();
+
+        if (calculator != null) {
+          calculator.close();
+        }
+
         MessageCli.END.printMessage();
 
         // Signal that the program should exit.
@@ -176,6 +402,204 @@ public class Main {
     return true;
   }
 
+  /**
+   * Open a file on the loader thread. This is package-private so that tests can make the loading
+   * fail in ways that real files cannot.
+   *
+   * @param filename The name of the test case to read.
+   * @param storage Where the verticies and adjacency of the graph are stored.
+   * @param ordering The order that the verticies of a heap graph are numbered in.
+   * @param progress The progress of reading the file, which can cancel it.
+   * @return The calculator of the opened file.
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  GraphCalculator openInBackground(
+      final String filename,
+      final GraphStorage storage,
+      final VertexOrdering ordering,
+      final LoadProgress progress)
+      throws FileNotFoundException {
+    return new GraphCalculator(filename, storage, ordering, progress);
+  }
+
+  /**
+   * Switch to the file opened in the background once it has finished, printing if it opened.
+   * Nothing is printed for a file that was cancelled, as that was printed when it was cancelled.
+   */
+  private void finishLoading() {
+    if (loading == null || !loading.isDone()) {
+      return;
+    }
+
+    final String filename = loadingFilename;
+
+    try {
+      final GraphCalculator opened = loading.get();
+
+      // Release the previous graph only once the new one has loaded.
+      if (calculator != null) {
+        calculator.close();
+      }
+
+      calculator = opened;
+      MessageCli.OPENED_FILE_SUCCESSFULLY.printMessage(filename);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof FileNotFoundException) {
+        MessageCli.FILE_NOT_FOUND.printMessage(filename);
+      } else if (e.getCause() instanceof IllegalArgumentException) {
+        MessageCli.FILE_NOT_VALID.printMessage(filename, e.getCause().getMessage());
+      } else if (e.getCause() instanceof UncheckedIOException) {
+        MessageCli.FILE_NOT_VALID.printMessage(filename, e.getCause().getCause().getMessage());
+      } else if (!(e.getCause() instanceof CancellationException)) {
+        // Any other failure, such as running out of memory, still keeps the current graph open.
+        MessageCli.FILE_LOAD_FAILED.printMessage(filename, String.valueOf(e.getCause()));
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      loading = null;
+      loadingFilename = null;
+      loadingProgress = null;
+    }
+  }
+
+  /** Wait for the file opening in the background to finish, whether or not it succeeds. */
+  private void awaitLoading() {
+    try {
+      loading.get();
+    } catch (final ExecutionException | CancellationException e) {
+      // The outcome is reported when the load is finished.
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Cancel the file opening in the background, if there is one. The loader stops the next time it
+   * reports progress, and a graph it finished building in the meantime is released.
+   */
+  private void cancelLoading() {
+    if (loading == null) {
+      return;
+    }
+
+    final Future<GraphCalculator> cancelled = loading;
+    loadingProgress.cancel();
+    MessageCli.FILE_LOADING_CANCELLED.printMessage(loadingFilename);
+
+    // The loader thread runs one task at a time, so this runs once the cancelled load has ended.
+    background.submit(
+        () -> {
+          try {
+            cancelled.get().close();
+          } catch (final ExecutionException | CancellationException e) {
+            // The load stopped before a graph was built.
+          }
+          return null;
+        });
+
+    loading = null;
+    loadingFilename = null;
+    loadingProgress = null;
+  }
+
+  /**
+   * Watch the directory of the open file for changes, if it is not already watched. A file opened
+   * afterwards is watched in its place.
+   */
+  private void watchFile() {
+    final Path directory = calculator.getFile().toAbsolutePath().getParent();
+
+    if (watchKey != null && watchKey.watchable().equals(directory)) {
+      return;
+    }
+
+    try {
+      if (watcher == null) {
+        watcher = FileSystems.getDefault().newWatchService();
+      } else {
+        watchKey.cancel();
+      }
+
+      watchKey =
+          directory.register(
+              watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Stop watching the open file, if it is watched. */
+  private void stopWatching() {
+    if (watcher == null) {
+      return;
+    }
+
+    try {
+      watcher.close();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    watcher = null;
+    watchKey = null;
+  }
+
+  /**
+   * Apply the changes to the watched file since the last command. Any number of saves between two
+   * commands are read as one change, and a file that cannot be read, such as one that is still
+   * being written, keeps the graph as it was. The file stops being watched if its directory can no
+   * longer be watched.
+   */
+  private void applyFileChanges() {
+    if (watcher == null || calculator == null) {
+      return;
+    }
+
+    // The events of a file opened since are only seen once its directory is watched.
+    final WatchKey previousKey = watchKey;
+
+    try {
+      watchFile();
+    } catch (final UncheckedIOException e) {
+      stopWatching();
+      MessageCli.WATCH_FAILED.printMessage(e.getCause().getMessage());
+      return;
+    }
+
+    boolean changed = false;
+
+    for (WatchKey key = watcher.poll(); key != null; key = watcher.poll()) {
+      for (final WatchEvent<?> event : key.pollEvents()) {
+        changed |=
+            key == previousKey
+                && (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || calculator.getFile().getFileName().equals(event.context()));
+      }
+
+      key.reset();
+    }
+
+    if (!changed) {
+      return;
+    }
+
+    final String filename = calculator.getFile().getFileName().toString();
+
+    try {
+      calculator.reload();
+    } catch (final FileNotFoundException e) {
+      MessageCli.FILE_NOT_FOUND.printMessage(filename);
+    } catch (final IllegalArgumentException e) {
+      MessageCli.FILE_NOT_VALID.printMessage(filename, e.getMessage());
+    } catch (final UncheckedIOException e) {
+      MessageCli.FILE_NOT_VALID.printMessage(filename, e.getCause().getMessage());
+    } catch (final RuntimeException e) {
+      // Any other failure, such as a chunk of the file failing to parse, keeps the graph open.
+      MessageCli.FILE_LOAD_FAILED.printMessage(filename, String.valueOf(e));
+    }
+  }
+
   /**
    * Check that the correct number of arguments were provided for the command.
    *
@@ -186,4 +610,18 @@ public class Main {
   private boolean checkArgs(final Command command, final String[] args) {
     return command.getNumArgs() == args.length - 1;
   }
+
+  /**
+   * Parses the number of pairs that external searches sort in memory at a time.
+   *
+   * @param bufferSize The buffer size entered by the user.
+   * @return The buffer size, or -1 if it is not a whole number.
+   */
+  private int parseBufferSize(final String bufferSize) {
+    try {
+      return Integer.parseInt(bufferSize);
+    } catch (final NumberFormatException e) {
+      return -1;
+    }
+  }
 }
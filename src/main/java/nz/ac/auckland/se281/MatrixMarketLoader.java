@@ -0,0 +1,230 @@
+package nz.ac.auckland.se281;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import nz.ac.auckland.se281.datastructures.MemoryFootprint;
+
+/**
+ * Loads a sparse Matrix Market coordinate file as the adjacency matrix of a graph. The verticies
+ * are the row and column numbers from 1 up to the larger dimension of the matrix, and each entry at
+ * row i and column j is an edge from i to j, whatever its value. Symmetric, skew-symmetric and
+ * hermitian files only store one triangle, so each entry off the diagonal also adds the edge from j
+ * to i.
+ */
+public class MatrixMarketLoader implements GraphFileLoader {
+  private final int[] verticies;
+
+  private final int[] sources;
+
+  private final int[] destinations;
+
+  private String[] names;
+
+  /**
+   * Loads a Matrix Market file.
+   *
+   * @param file The file to read.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If the file is not a valid coordinate matrix.
+   */
+  public MatrixMarketLoader(final Path file) throws FileNotFoundException {
+    this(file, new LoadProgress());
+  }
+
+  /**
+   * Loads a Matrix Market file, reporting progress as it reads.
+   *
+   * @param file The file to read.
+   * @param progress The progress of the load, which can cancel it.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If the file is not a valid coordinate matrix.
+   * @throws java.util.concurrent.CancellationException If the load is cancelled.
+   */
+  public MatrixMarketLoader(final Path file, final LoadProgress progress)
+      throws FileNotFoundException {
+    try (IntegerTextReader reader = new IntegerTextReader(new FileInputStream(file.toFile()))) {
+      final boolean mirrored = readBanner(reader);
+      skipComments(reader);
+
+      final int sizeLine = reader.getLine();
+      final int rows = reader.readInt();
+      final int columns = reader.readInt();
+      final int entries = reader.readInt();
+      reader.skipLine();
+
+      if (rows < 0 || columns < 0 || entries < 0) {
+        throw new IllegalArgumentException("negative matrix size on line " + sizeLine);
+      }
+
+      verticies = new int[Math.max(rows, columns)];
+
+      for (int i = 0; i < verticies.length; i++) {
+        verticies[i] = i + 1;
+      }
+
+      // Each stored entry becomes at most two edges, between the positions of its row and column.
+      // The declared number of entries is not trusted to size the arrays up front.
+      int[] rowIds = new int[16];
+      int[] columnIds = new int[16];
+      int count = 0;
+      long reportedBytes = 0;
+
+      for (int entry = 0; entry < entries; entry++) {
+        if (entry % LoadProgress.EDGES_PER_REPORT == 0 && entry > 0) {
+          progress.advance(reader.getBytesRead() - reportedBytes, LoadProgress.EDGES_PER_REPORT);
+          reportedBytes = reader.getBytesRead();
+        }
+
+        skipComments(reader);
+
+        if (reader.peek() == -1) {
+          throw new IllegalArgumentException(
+              "expected " + entries + " entries but found " + entry);
+        }
+
+        final int line = reader.getLine();
+        final int row = reader.readInt();
+        final int column = reader.readInt();
+        reader.skipLine();
+
+        if (row < 1 || row > rows || column < 1 || column > columns) {
+          throw new IllegalArgumentException("entry outside the matrix on line " + line);
+        }
+
+        if (count + 2 > rowIds.length) {
+          rowIds = Arrays.copyOf(rowIds, rowIds.length * 2);
+          columnIds = Arrays.copyOf(columnIds, columnIds.length * 2);
+        }
+
+        rowIds[count] = row - 1;
+        columnIds[count++] = column - 1;
+
+        if (mirrored && row != column) {
+          rowIds[count] = column - 1;
+          columnIds[count++] = row - 1;
+        }
+      }
+
+      final int reportedEntries = Math.max(0, entries - 1) / LoadProgress.EDGES_PER_REPORT;
+      progress.advance(
+          reader.getBytesRead() - reportedBytes,
+          entries - reportedEntries * LoadProgress.EDGES_PER_REPORT);
+      sources = Arrays.copyOf(rowIds, count);
+      destinations = Arrays.copyOf(columnIds, count);
+    }
+  }
+
+  /**
+   * Gets every vertex of the file as a string, which are only created when first needed.
+   *
+   * @return The verticies from 1 up to the larger dimension of the matrix.
+   */
+  @Override
+  public String[] getVerticies() {
+    if (names == null) {
+      names = new String[verticies.length];
+
+      for (int i = 0; i < verticies.length; i++) {
+        names[i] = String.valueOf(verticies[i]);
+      }
+    }
+
+    return names;
+  }
+
+  /**
+   * Gets every vertex of the file as an integer.
+   *
+   * @return The verticies from 1 up to the larger dimension of the matrix.
+   */
+  @Override
+  public int[] getIntegerVerticies() {
+    return verticies;
+  }
+
+  /**
+   * Gets the position of the row of every entry, along with the mirrored entries.
+   *
+   * @return The sources.
+   */
+  @Override
+  public int[] getSources() {
+    return sources;
+  }
+
+  /**
+   * Gets the position of the column of every entry, along with the mirrored entries.
+   *
+   * @return The destinations, in the same order as the sources.
+   */
+  @Override
+  public int[] getDestinations() {
+    return destinations;
+  }
+
+  /**
+   * Adds the estimated sizes of the verticies and edges read from the file to a footprint.
+   *
+   * @param footprint The footprint to add to.
+   */
+  @Override
+  public void estimateFootprint(final MemoryFootprint footprint) {
+    footprint.add("file vertex names", MemoryFootprint.estimateStringBytes(names));
+    footprint.add("file vertex numbers", MemoryFootprint.estimateArrayBytes(verticies));
+    footprint.add(
+        "file edges",
+        MemoryFootprint.estimateArrayBytes(sources)
+            + MemoryFootprint.estimateArrayBytes(destinations));
+  }
+
+  /**
+   * Reads the "%%MatrixMarket matrix coordinate FIELD SYMMETRY" banner on the first line.
+   *
+   * @param reader The reader at the start of the file.
+   * @return If each entry off the diagonal stands for a mirrored pair of entries.
+   * @throws IllegalArgumentException If the banner is missing or not for a coordinate matrix.
+   */
+  private static boolean readBanner(final IntegerTextReader reader) {
+    if (!reader.readWord().equalsIgnoreCase("%%MatrixMarket")
+        || !reader.readWord().equalsIgnoreCase("matrix")) {
+      throw new IllegalArgumentException("missing %%MatrixMarket matrix banner on line 1");
+    }
+
+    if (!reader.readWord().equalsIgnoreCase("coordinate")) {
+      throw new IllegalArgumentException("only sparse coordinate matrices are supported");
+    }
+
+    final String field = reader.readWord().toLowerCase();
+
+    if (!Arrays.asList("real", "double", "integer", "complex", "pattern").contains(field)) {
+      throw new IllegalArgumentException("unknown matrix field '" + field + "' on line 1");
+    }
+
+    final String symmetry = reader.readWord().toLowerCase();
+    reader.skipLine();
+
+    switch (symmetry) {
+      case "general":
+        return false;
+      case "symmetric":
+      case "skew-symmetric":
+      case "hermitian":
+        return true;
+      default:
+        throw new IllegalArgumentException("unknown matrix symmetry '" + symmetry + "' on line 1");
+    }
+  }
+
+  /**
+   * Skips blank lines and comment lines, which start with '%'.
+   *
+   * @param reader The reader at the start of a line.
+   */
+  private static void skipComments(final IntegerTextReader reader) {
+    for (int b = reader.peek(); b == '\n' || b == '%'; b = reader.peek()) {
+      reader.skipLine();
+    }
+  }
+}
@@ -15,13 +15,59 @@ public enum MessageCli {
   OPENED_FILE_SUCCESSFULLY("Successfully opened graph from file %s"),
   FILE_NOT_OPEN("Error: no valid file open"),
   FILE_NOT_FOUND("Error: file '%s' not found in `testcases` folder"),
+  FILE_NOT_VALID("Error: file '%s' could not be read, %s"),
+  FILE_LOAD_FAILED("Error: file '%s' could not be opened, %s"),
+  FILE_LOADING("Opening file %s in the background"),
+  FILE_LOADING_PROGRESS("Opening file %s: %s bytes read, %s edges parsed"),
+  FILE_LOADING_CANCELLED("Cancelled opening file %s"),
+  FILE_STILL_LOADING("Error: file '%s' is still opening in the background"),
+  NOT_LOADING("Error: no file is opening in the background"),
+  WATCHING("Watching the open file for changes"),
+  WATCH_STOPPED("Stopped watching the open file"),
+  NOT_WATCHING("Error: no file is being watched"),
+  WATCH_FAILED("Error: the open file could not be watched, %s"),
+  FILE_CHANGED(
+      "File %s changed: %s verticies and %s edges added, %s verticies and %s edges removed"),
   INFO("File name: %s"),
+  MEMORY_HEADER("Estimated memory of the graph from file %s:"),
+  MEMORY_STRUCTURE("\t%s: %s bytes"),
+  MEMORY_TOTAL("Total: %s bytes, of which %s bytes are off the heap"),
+  MEMORY_PROJECTION("Projected for %s, %s times the size on disk: %s bytes"),
+  MEMORY_PROJECTION_DOUBLED("Projected for a file twice the size on disk: %s bytes"),
+  STORAGE_SELECTED("Graphs opened from now on are stored %s"),
+  STORAGE_NOT_FOUND(
+      "Error: storage '%s' not found, expected HEAP, COMPRESSED, OFF_HEAP or MAPPED_FILE"),
+  ORDER_SELECTED("Verticies of HEAP graphs opened from now on are numbered %s"),
+  ORDER_NOT_FOUND("Error: order '%s' not found, expected NONE, BFS, RCM or DEGREE"),
+  SCRATCH_SELECTED("External searches keep scratch files in %s and sort %s pairs at a time"),
+  SCRATCH_DIRECTORY_NOT_FOUND("Error: scratch directory '%s' not found"),
+  INVALID_BUFFER_SIZE("Error: buffer size '%s' is not a whole number of one or more"),
+  SCRATCH_FAILED("Error: scratch files in '%s' could not be used, %s"),
+  INVALID_LIMIT("Error: limit '%s' is not a whole number of zero or more"),
+  VERTEX_NOT_FOUND("Error: vertex '%s' not found in the graph"),
 
   GRAPH_REFLEXIVE("The graph is %sreflexive"),
   GRAPH_SYMMETRIC("The graph is %ssymmetric"),
   GRAPH_ANTI_SYMMETRIC("The graph is %santisymmetric"),
   GRAPH_EQUIVALENCE("The graph is %san equivalence relation"),
   GRAPH_TRANSITIVE("The graph is %stransitive"),
+  GRAPH_PARTIAL_ORDER("The graph is %sa partial order"),
+  ROOT_COUNT("The graph has %s root verticies"),
+  CLASS_COUNT("The graph has %s equivalence classes"),
+  DEGREE_SUMMARY("%s degree: min %s, max %s, mean %s"),
+  DEGREE_ENDS("The graph has %s source verticies, %s sink verticies and %s isolated verticies"),
+  DEGREE_HISTOGRAM("Degree histogram:"),
+  DEGREE_BUCKET("\t%s: %s out, %s in"),
+  COMPONENT_COUNT("The graph has %s weakly connected components"),
+  COMPONENT("\tComponent %s: %s verticies, smallest vertex %s"),
+
+  REACHABILITY_INDEX_BUILT("Built reachability index in %s ms (%s components, %s bytes)"),
+  VERTEX_REACHABLE("Vertex %s is %sreachable from vertex %s"),
+  SHORTEST_PATH("Shortest path from vertex %s to vertex %s has length %s"),
+  QUOTIENT("The quotient graph has %s verticies and %s edges"),
+  ROOT_REACHES("Root %s reaches %s verticies"),
+  ROOT_LEVELS("The roots reach %s of %s verticies"),
+  NO_PATH("There is no path from vertex %s to vertex %s"),
 
   END("You closed the terminal. Goodbye.");
 
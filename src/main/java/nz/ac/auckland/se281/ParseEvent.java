@@ -0,0 +1,14 @@
+package nz.ac.auckland.se281;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Reading the verticies and edges of a graph file, before the graph is built from them. */
+@Name("nz.ac.auckland.se281.Parse")
+@Label("Parse Graph File")
+@Description("Reading a graph file, where the edges include any repeated edges")
+class ParseEvent extends GraphEvent {
+  @Label("Format")
+  String format;
+}
@@ -0,0 +1,24 @@
+package nz.ac.auckland.se281;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Checking if the edges of a graph have one of the properties of a relation. */
+@Name("nz.ac.auckland.se281.PropertyCheck")
+@Label("Check Property")
+class PropertyCheckEvent extends GraphEvent {
+  @Label("Property")
+  String property;
+
+  @Label("Holds")
+  boolean holds;
+
+  /**
+   * Creates an event for checking a property.
+   *
+   * @param property The name of the property.
+   */
+  PropertyCheckEvent(final String property) {
+    this.property = property;
+  }
+}
@@ -0,0 +1,26 @@
+package nz.ac.auckland.se281;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Computing the roots, equivalence classes, searches or paths of a graph. */
+@Name("nz.ac.auckland.se281.Query")
+@Label("Query Graph")
+class QueryEvent extends GraphEvent {
+  @Label("Query")
+  String query;
+
+  @Label("Result Size")
+  @Description("The number of verticies or classes in the result, or 1 if a target is reachable")
+  int resultSize;
+
+  /**
+   * Creates an event for a query.
+   *
+   * @param query The name of the query.
+   */
+  QueryEvent(final String query) {
+    this.query = query;
+  }
+}
@@ -0,0 +1,589 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * The AbstractGraph class holds the algorithms that Graph and IntGraph share. They work on the
+ * dense ids of an adjacency index, so they never depend on the type of the verticies. Subclasses
+ * only convert verticies to ids and back, and compare two verticies when the smallest member of a
+ * class is chosen. Results that list every vertex are given in vertex order, which is the ascending
+ * order of the verticies whether or not the ids were relabelled.
+ *
+ * @param <T> The type of each vertex.
+ */
+public abstract class AbstractGraph<T> implements AutoCloseable {
+
+  // instance variables
+  private AdjacencyIndex<T> index;
+  private ReachabilityIndex reachabilityIndex;
+  private ShortestPaths shortestPaths;
+
+  // constructor
+  protected AbstractGraph(AdjacencyIndex<T> index) {
+    this.index = index;
+  }
+
+  /**
+   * This method determines whether the graph is reflexive, returns true if so.
+   *
+   * @return boolean
+   */
+  public boolean isReflexive() {
+
+    // iterates through all verticies of the graph
+    for (int id = 0; id < index.size(); id++) {
+
+      // returns false if any vertex does not have an edge to itself
+      if (!index.hasEdge(id, id)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * This method determines whether the graph is symmetric, returns true if so.
+   *
+   * @return boolean
+   */
+  public boolean isSymmetric() {
+
+    // iterates through all edges of the graph
+    for (int source = 0; source < index.size(); source++) {
+      for (int i = 0; i < index.getOutDegree(source); i++) {
+
+        // returns false if any edge does not have a symmetric edge counterpart
+        if (!index.hasEdge(index.getOutNeighbour(source, i), source)) {
+          return false;
+        }
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * This method determines whether the graph is transitive, returns true if so.
+   *
+   * @return boolean
+   */
+  public boolean isTransitive() {
+
+    // iterates through all pairs of edges where the first edge ends where the second edge starts
+    for (int first = 0; first < index.size(); first++) {
+      for (int i = 0; i < index.getOutDegree(first); i++) {
+        int middle = index.getOutNeighbour(first, i);
+        for (int j = 0; j < index.getOutDegree(middle); j++) {
+
+          // returns false if there is no edge that starts where the first edge starts and ends
+          // where the second edge ends
+          if (!index.hasEdge(first, index.getOutNeighbour(middle, j))) {
+            return false;
+          }
+        }
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * This method determines whether the graph is anti-symmetric, returns true if so.
+   *
+   * @return boolean
+   */
+  public boolean isAntiSymmetric() {
+
+    // iterates through all edges of the graph
+    for (int source = 0; source < index.size(); source++) {
+      for (int i = 0; i < index.getOutDegree(source); i++) {
+        int target = index.getOutNeighbour(source, i);
+
+        // returns false if there are two edges in the graph that are symmetric and not reflexive
+        if (source != target && index.hasEdge(target, source)) {
+          return false;
+        }
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * This method determines whether the graph is an equivalence relation, returns true if so.
+   *
+   * @return boolean
+   */
+  public boolean isEquivalence() {
+
+    // checks if the graph is equivalence by checking its reflexive, symmetric and transitive
+    // properties
+    return isReflexive() && isSymmetric() && isTransitive();
+  }
+
+  /**
+   * This method determines every relation property of the graph together in one pass over its
+   * edges, which is faster than checking each property separately.
+   *
+   * @return the properties of the graph
+   */
+  public RelationProfile analyze() {
+    return new RelationProfile(index);
+  }
+
+  /**
+   * This method summarises the in and out degrees of every vertex in one pass over the verticies.
+   *
+   * @return the degree statistics of the graph
+   */
+  public DegreeStatistics getDegreeStatistics() {
+    return new DegreeStatistics(index);
+  }
+
+  /**
+   * This method finds the weakly connected components of the graph, joining chunks of the edges in
+   * parallel when the storage can be read by several threads at once.
+   *
+   * @return the components, where verticies are given by their position in vertex order
+   */
+  public WeaklyConnectedComponents weaklyConnectedComponents() {
+    return new WeaklyConnectedComponents(index);
+  }
+
+  /**
+   * This method runs a vertex program at every vertex of the graph in supersteps, computing the
+   * verticies in parallel when the storage can be read by several threads at once.
+   *
+   * @param program : the program to compute at each vertex
+   * @param initialValues : the value of each vertex in vertex order before the first superstep
+   * @param maxSupersteps : the maximum number of supersteps to run
+   * @return the value of each vertex in vertex order once the program has finished
+   */
+  public long[] runVertexProgram(VertexProgram program, long[] initialValues, int maxSupersteps) {
+
+    long[] values = new long[index.size()];
+    for (int rank = 0; rank < values.length; rank++) {
+      values[index.getIdAtRank(rank)] = initialValues[rank];
+    }
+
+    return toVertexOrder(new SuperstepEngine(index).run(program, values, maxSupersteps));
+  }
+
+  /**
+   * This method determines whether the reachability index of the graph has been built, returns
+   * true if so.
+   *
+   * @return a boolean
+   */
+  public boolean hasReachabilityIndex() {
+    return reachabilityIndex != null;
+  }
+
+  /**
+   * This method gets the reachability index of the graph, building it on first use.
+   *
+   * @return the reachability index
+   */
+  public ReachabilityIndex getReachabilityIndex() {
+    if (reachabilityIndex == null) {
+      reachabilityIndex = new ReachabilityIndex(index);
+    }
+    return reachabilityIndex;
+  }
+
+  /**
+   * This method gets the number of verticies in the graph, without listing them.
+   *
+   * @return the number of verticies
+   */
+  public int getVertexCount() {
+    return index.size();
+  }
+
+  /**
+   * This method gets the number of distinct edges in the graph, without listing them.
+   *
+   * @return the number of edges
+   */
+  public int getEdgeCount() {
+    return index.edgeCount();
+  }
+
+  /**
+   * This method adds the estimated sizes of the structures of the graph to a footprint, including
+   * the reachability index and search buffers kept by earlier queries.
+   *
+   * @param footprint : the footprint to add to
+   */
+  public void estimateFootprint(MemoryFootprint footprint) {
+    index.estimateFootprint(footprint);
+    if (reachabilityIndex != null) {
+      footprint.add("reachability index", reachabilityIndex.estimateSizeInBytes());
+    }
+    if (shortestPaths != null) {
+      footprint.add("shortest path buffers", shortestPaths.estimateSizeInBytes());
+    }
+  }
+
+  /** This method releases any off-heap memory held by the graph. */
+  @Override
+  public void close() {
+    index.close();
+  }
+
+  /**
+   * This method compares two verticies in their natural order, which decides the smallest member
+   * of an equivalence class or of a class of mutually reachable verticies.
+   *
+   * @param firstId : the id of the first vertex
+   * @param secondId : the id of the second vertex
+   * @return a negative number, zero or a positive number as the first vertex is less than, equal to
+   *     or greater than the second vertex
+   */
+  protected abstract int compareVerticies(int firstId, int secondId);
+
+  /**
+   * This method gets the adjacency index of the graph.
+   *
+   * @return the adjacency index
+   */
+  protected AdjacencyIndex<T> getIndex() {
+    return index;
+  }
+
+  /**
+   * This method gets the ids of the root verticies of the graph, which are the verticies with
+   * edges out but none in, and in an equivalence relation the smallest member of each class.
+   *
+   * @return the ids of the roots in vertex order
+   */
+  protected int[] getRootIds() {
+
+    int[] roots = new int[index.size()];
+    int count = 0;
+
+    // only an equivalence relation has non-empty equivalence classes, so it is checked once
+    boolean equivalence = isEquivalence();
+
+    // visits the verticies in vertex order, so the roots are found in order
+    for (int rank = 0; rank < index.size(); rank++) {
+      int id = index.getIdAtRank(rank);
+      if (checkIfRootViaDegree(id) || (equivalence && checkSmallestEquivalence(id))) {
+        roots[count++] = id;
+      }
+    }
+
+    return Arrays.copyOf(roots, count);
+  }
+
+  /**
+   * This method determines the equivalence class of a vertex.
+   *
+   * @param id : the id of a vertex, or -1 for a vertex that is not in the graph
+   * @return the ids of the class in ascending vertex order, or an empty array if the graph is not
+   *     an equivalence relation or does not contain the vertex
+   */
+  protected int[] getEquivalenceClassIds(int id) {
+    return getEquivalenceClassIds(new int[] {id})[0];
+  }
+
+  /**
+   * This method determines the equivalence classes of many verticies at once, checking that the
+   * graph is an equivalence relation only once. Verticies in the same class share the same array.
+   *
+   * @param ids : the ids of the verticies, which are -1 for verticies that are not in the graph
+   * @return the ids of the class of each vertex in ascending vertex order, which are empty if the
+   *     vertex is not in the graph or the graph is not an equivalence relation
+   */
+  protected int[][] getEquivalenceClassIds(int[] ids) {
+
+    int[][] equivalenceClasses = new int[ids.length][];
+    int[] empty = new int[0];
+    boolean equivalence = isEquivalence();
+
+    // every member of a class has the same neighbours, so the first neighbour names the class
+    int[][] classByFirstMember = new int[equivalence ? index.size() : 0][];
+
+    for (int v = 0; v < ids.length; v++) {
+      int id = ids[v];
+      if (id == -1 || !equivalence) {
+        equivalenceClasses[v] = empty;
+        continue;
+      }
+
+      // the members of the class are the verticies adjacent to the vertex
+      int first = index.getOutNeighbour(id, 0);
+      if (classByFirstMember[first] == null) {
+        int[] equivalenceClass = new int[index.getOutDegree(id)];
+        for (int i = 0; i < equivalenceClass.length; i++) {
+          equivalenceClass[i] = index.getOutNeighbour(id, i);
+        }
+        classByFirstMember[first] = equivalenceClass;
+      }
+      equivalenceClasses[v] = classByFirstMember[first];
+    }
+
+    return equivalenceClasses;
+  }
+
+  /**
+   * This method performs a breadth-first search from the roots that stops once enough verticies
+   * have been visited. Each vertex is queued at most once.
+   *
+   * @param limit : the maximum number of verticies to visit
+   * @return the ids of the visited verticies in the order they were visited
+   */
+  protected int[] breadthFirstSearchIds(int limit) {
+    BreadthFirstIterator<T> search = new BreadthFirstIterator<>(index, getRootIds());
+
+    int[] visited = new int[Math.min(limit, index.size())];
+    int count = 0;
+    while (count < visited.length && search.hasNext()) {
+      visited[count++] = search.nextId();
+    }
+
+    return Arrays.copyOf(visited, count);
+  }
+
+  /**
+   * This method performs a depth-first search from the roots that stops once enough verticies have
+   * been visited. The smallest unvisited adjacent vertex is always visited next.
+   *
+   * @param limit : the maximum number of verticies to visit
+   * @return the ids of the visited verticies in the order they were visited
+   */
+  protected int[] depthFirstSearchIds(int limit) {
+    DepthFirstIterator<T> search = new DepthFirstIterator<>(index, getRootIds());
+
+    int[] visited = new int[Math.min(limit, index.size())];
+    int count = 0;
+    while (count < visited.length && search.hasNext()) {
+      visited[count++] = search.nextId();
+    }
+
+    return Arrays.copyOf(visited, count);
+  }
+
+  /**
+   * This method finds a shortest path between two verticies, measured in edges, with a
+   * bidirectional breadth-first search.
+   *
+   * @param source : the id of the vertex the path starts from
+   * @param target : the id of the vertex the path ends at
+   * @return the ids along the path, or an empty array if there is no path
+   */
+  protected int[] getShortestPathIds(int source, int target) {
+    return getShortestPaths().findPath(source, target);
+  }
+
+  /**
+   * This method finds the number of edges on a shortest path from a vertex to every vertex of the
+   * graph.
+   *
+   * @param source : the id of the vertex the paths start from
+   * @return the distance to each vertex in vertex order, which is -1 if the vertex cannot be
+   *     reached
+   */
+  protected int[] getDistancesInOrder(int source) {
+    return toVertexOrder(getShortestPaths().findDistances(source));
+  }
+
+  /**
+   * This method finds the number of edges on a shortest path from each root vertex of the graph to
+   * every vertex, searching from every root at once.
+   *
+   * @param rootIds : the ids of the roots
+   * @return the distances from each root in the order of the roots, to each vertex in vertex order,
+   *     which are -1 for verticies that cannot be reached
+   */
+  protected int[][] getRootDistancesInOrder(int[] rootIds) {
+
+    int[][] distances = new MultiSourceBreadthFirstSearch(index).findDistances(rootIds);
+    for (int r = 0; r < distances.length; r++) {
+      distances[r] = toVertexOrder(distances[r]);
+    }
+
+    return distances;
+  }
+
+  /**
+   * This method finds the number of edges on a shortest path from the nearest root vertex to every
+   * vertex, computing every vertex in parallel supersteps.
+   *
+   * @return the level of each vertex in vertex order, which is -1 for verticies that no root
+   *     reaches
+   */
+  protected int[] getRootLevelsInOrder() {
+
+    long[] initialLevels = new long[index.size()];
+    Arrays.fill(initialLevels, LevelPropagation.UNREACHED);
+    for (int id : getRootIds()) {
+      initialLevels[id] = 0;
+    }
+
+    long[] levels =
+        new SuperstepEngine(index).run(new LevelPropagation(), initialLevels, Integer.MAX_VALUE);
+
+    int[] rootLevels = new int[levels.length];
+    for (int rank = 0; rank < levels.length; rank++) {
+      long level = levels[index.getIdAtRank(rank)];
+      rootLevels[rank] = level == LevelPropagation.UNREACHED ? -1 : (int) level;
+    }
+
+    return rootLevels;
+  }
+
+  /**
+   * This method picks the smallest member of every class of mutually reachable verticies, in one
+   * pass over the verticies.
+   *
+   * @return the id of the representative of each class, by the number of the class in the
+   *     reachability index
+   */
+  protected int[] getQuotientRepresentatives() {
+
+    ReachabilityIndex components = getReachabilityIndex();
+    int[] representative = new int[components.getComponentCount()];
+    Arrays.fill(representative, -1);
+
+    for (int id = 0; id < index.size(); id++) {
+      int component = components.getComponent(id);
+      if (representative[component] == -1
+          || compareVerticies(id, representative[component]) < 0) {
+        representative[component] = id;
+      }
+    }
+
+    return representative;
+  }
+
+  /**
+   * This method maps every edge between two different classes of mutually reachable verticies onto
+   * the classes it joins, in one pass over the edges. Edges that join the same two classes are
+   * all kept.
+   *
+   * @return the edges between classes, each packed from the numbers of its classes
+   */
+  protected long[] getQuotientEdges() {
+
+    ReachabilityIndex components = getReachabilityIndex();
+    long[] edges = new long[index.edgeCount()];
+    int count = 0;
+
+    for (int source = 0; source < index.size(); source++) {
+      int from = components.getComponent(source);
+      for (int i = 0; i < index.getOutDegree(source); i++) {
+        int to = components.getComponent(index.getOutNeighbour(source, i));
+        if (from != to) {
+          edges[count++] = PackedEdgeSet.pack(from, to);
+        }
+      }
+    }
+
+    return Arrays.copyOf(edges, count);
+  }
+
+  /**
+   * This method adds and removes edges between verticies already in the graph, rewriting only the
+   * adjacency of the verticies they touch. The reachability index is kept when the changes cannot
+   * change which verticies reach each other, and is otherwise built again on its next use.
+   *
+   * @param addedEdges : the packed ids of the edges to add
+   * @param removedEdges : the packed ids of the edges to remove
+   */
+  protected void applyPackedChanges(long[] addedEdges, long[] removedEdges) {
+    if (reachabilityIndex != null && !reachabilityIndex.isUnchangedBy(addedEdges, removedEdges)) {
+      reachabilityIndex = null;
+    }
+    index.applyChanges(addedEdges, removedEdges);
+  }
+
+  /**
+   * This method packs the ids of the ends of a changed edge, which must both be in the graph.
+   *
+   * @param source : the id of the source vertex, or -1 if it is not in the graph
+   * @param destination : the id of the destination vertex, or -1 if it is not in the graph
+   * @return the packed edge
+   */
+  protected static long packChangedEdge(int source, int destination) {
+    if (source == -1 || destination == -1) {
+      throw new IllegalArgumentException("Changed edges must be between verticies of the graph");
+    }
+    return PackedEdgeSet.pack(source, destination);
+  }
+
+  // private methods
+
+  /**
+   * This method reorders values given by id into vertex order.
+   *
+   * @param valuesById : the value of each vertex by id
+   * @return the value of each vertex in vertex order
+   */
+  private int[] toVertexOrder(int[] valuesById) {
+    int[] values = new int[valuesById.length];
+    for (int rank = 0; rank < values.length; rank++) {
+      values[rank] = valuesById[index.getIdAtRank(rank)];
+    }
+    return values;
+  }
+
+  /**
+   * This method reorders values given by id into vertex order.
+   *
+   * @param valuesById : the value of each vertex by id
+   * @return the value of each vertex in vertex order
+   */
+  private long[] toVertexOrder(long[] valuesById) {
+    long[] values = new long[valuesById.length];
+    for (int rank = 0; rank < values.length; rank++) {
+      values[rank] = valuesById[index.getIdAtRank(rank)];
+    }
+    return values;
+  }
+
+  /**
+   * This method gets the shortest path finder of the graph, creating it on first use.
+   *
+   * @return the shortest path finder
+   */
+  private ShortestPaths getShortestPaths() {
+    if (shortestPaths == null) {
+      shortestPaths = new ShortestPaths(index);
+    }
+    return shortestPaths;
+  }
+
+  /**
+   * This method determines whether the input vertex is a root in the graph, returns true if so.
+   *
+   * @param id : the id of a vertex in the graph
+   * @return a boolean
+   */
+  private boolean checkIfRootViaDegree(int id) {
+
+    // a root has edges that start from it but none that end at it
+    return index.getInDegree(id) == 0 && index.getOutDegree(id) > 0;
+  }
+
+  /**
+   * This method determines whether the input vertex is the smallest of it's equivalence class,
+   * returns true if so. The graph must be an equivalence relation.
+   *
+   * @param id : the id of a vertex of the graph
+   * @return a boolean
+   */
+  private boolean checkSmallestEquivalence(int id) {
+
+    // checks if the input vertex is the smallest of it's equivalence class, which in an
+    // equivalence relation is the set of adjacent verticies
+    for (int i = 0; i < index.getOutDegree(id); i++) {
+      if (compareVerticies(id, index.getOutNeighbour(id, i)) > 0) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+}
@@ -0,0 +1,294 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The AdjacencyIndex class assigns every vertex of a graph a dense integer id and stores the
+ * distinct edges of the graph as forward and reverse adjacency over those ids. Ids follow the total
+ * ordering of the verticies unless the verticies are relabelled for locality, and every neighbour
+ * list is sorted in ascending vertex order either way. The verticies and adjacency are kept either
+ * on the Java heap or outside it, as chosen by the graph storage. Only verticies stored on the Java
+ * heap without compression are relabelled.
+ *
+ * @param <T> The type of each vertex.
+ */
+public class AdjacencyIndex<T> implements AutoCloseable {
+
+  // instance variables
+  private VertexDictionary<T> dictionary;
+  private AdjacencyStorage storage;
+  private OffHeapArena arena;
+  private VertexRelabelling relabelling;
+
+  // constructors
+  public AdjacencyIndex(VertexDictionary<T> dictionary, AdjacencyStorage storage) {
+    this.dictionary = dictionary;
+    this.storage = storage;
+  }
+
+  public AdjacencyIndex(
+      Collection<T> verticies, Collection<Edge<T>> edges, Comparator<T> vertexOrder) {
+    this(verticies, edges, vertexOrder, GraphStorage.HEAP);
+  }
+
+  public AdjacencyIndex(
+      Collection<T> verticies,
+      Collection<Edge<T>> edges,
+      Comparator<T> vertexOrder,
+      GraphStorage graphStorage) {
+    this(verticies, edges, vertexOrder, graphStorage, VertexOrdering.NONE);
+  }
+
+  public AdjacencyIndex(
+      Collection<T> verticies,
+      Collection<Edge<T>> edges,
+      Comparator<T> vertexOrder,
+      GraphStorage graphStorage,
+      VertexOrdering vertexOrdering) {
+
+    // sorts the verticies so that ids follow the ordering of the verticies
+    List<T> sortedVerticies = new ArrayList<>(verticies);
+    sortedVerticies.sort(vertexOrder);
+    HeapVertexDictionary<T> heapDictionary = new HeapVertexDictionary<>(sortedVerticies);
+
+    // converts each edge into a pair of ids, dropping duplicate edges
+    PackedEdgeSet edgeSet = new PackedEdgeSet(edges.size());
+    for (Edge<T> edge : edges) {
+      edgeSet.add(
+          heapDictionary.getId(edge.getSource()), heapDictionary.getId(edge.getDestination()));
+    }
+
+    if (graphStorage == GraphStorage.HEAP && vertexOrdering != VertexOrdering.NONE) {
+
+      // renumbers the verticies, so the ids are no longer the positions in vertex order
+      this.relabelling = new VertexRelabelling(vertexOrdering, sortedVerticies.size(), edgeSet);
+      List<T> relabelledVerticies = new ArrayList<>(sortedVerticies.size());
+      for (int id = 0; id < sortedVerticies.size(); id++) {
+        relabelledVerticies.add(sortedVerticies.get(relabelling.getRank(id)));
+      }
+      this.dictionary = new HeapVertexDictionary<>(relabelledVerticies);
+      PackedEdgeSet relabelledEdges = relabelling.relabel(edgeSet);
+      this.storage = new HeapAdjacencyStorage(sortedVerticies.size(), relabelledEdges, relabelling);
+    } else if (graphStorage == GraphStorage.HEAP) {
+      this.dictionary = heapDictionary;
+      this.storage = new HeapAdjacencyStorage(sortedVerticies.size(), edgeSet);
+    } else if (graphStorage == GraphStorage.COMPRESSED) {
+      this.dictionary = heapDictionary;
+      this.storage = new CompressedAdjacencyStorage(sortedVerticies.size(), edgeSet);
+    } else {
+      this.arena = new OffHeapArena(graphStorage == GraphStorage.MAPPED_FILE);
+      this.dictionary = createOffHeapDictionary(sortedVerticies);
+      this.storage = new OffHeapAdjacencyStorage(sortedVerticies.size(), edgeSet, arena);
+    }
+  }
+
+  /**
+   * This method gets the number of verticies in the index.
+   *
+   * @return the number of verticies
+   */
+  public int size() {
+    return dictionary.size();
+  }
+
+  /**
+   * This method gets the number of distinct edges in the index.
+   *
+   * @return the number of edges
+   */
+  public int edgeCount() {
+    return storage.edgeCount();
+  }
+
+  /**
+   * This method gets the id of the input vertex, or -1 if the vertex is not in the graph.
+   *
+   * @param vertex : a vertex of the graph
+   * @return the id of the vertex
+   */
+  public int getId(T vertex) {
+    return dictionary.getId(vertex);
+  }
+
+  /**
+   * This method gets the vertex with the input id.
+   *
+   * @param id : the id of a vertex
+   * @return the vertex
+   */
+  public T getVertex(int id) {
+    return dictionary.getVertex(id);
+  }
+
+  /**
+   * This method gets the id of the vertex at the input position in vertex order.
+   *
+   * @param rank : the position of a vertex in vertex order
+   * @return the id of the vertex
+   */
+  public int getIdAtRank(int rank) {
+    return relabelling == null ? rank : relabelling.getId(rank);
+  }
+
+  /**
+   * This method gets the number of edges that start from the input vertex.
+   *
+   * @param id : the id of a vertex
+   * @return the out degree of the vertex
+   */
+  public int getOutDegree(int id) {
+    return storage.getOutDegree(id);
+  }
+
+  /**
+   * This method gets the i-th vertex adjacent to the input vertex, in ascending order.
+   *
+   * @param id : the id of a vertex
+   * @param i : the position of the neighbour, from 0 up to the out degree
+   * @return the id of the neighbour
+   */
+  public int getOutNeighbour(int id, int i) {
+    return storage.getOutNeighbour(id, i);
+  }
+
+  /**
+   * This method determines whether there is an edge from the source vertex to the target vertex,
+   * returns true if so.
+   *
+   * @param source : the id of the source vertex
+   * @param target : the id of the target vertex
+   * @return a boolean
+   */
+  public boolean hasEdge(int source, int target) {
+    return storage.hasEdge(source, target);
+  }
+
+  /**
+   * This method gets the number of edges that end at the input vertex.
+   *
+   * @param id : the id of a vertex
+   * @return the in degree of the vertex
+   */
+  public int getInDegree(int id) {
+    return storage.getInDegree(id);
+  }
+
+  /**
+   * This method gets the i-th vertex with an edge to the input vertex, in ascending order.
+   *
+   * @param id : the id of a vertex
+   * @param i : the position of the neighbour, from 0 up to the in degree
+   * @return the id of the neighbour
+   */
+  public int getInNeighbour(int id, int i) {
+    return storage.getInNeighbour(id, i);
+  }
+
+  /**
+   * This method adds and removes edges between verticies already in the index. Added edges that
+   * are already in the index and removed edges that are not are ignored. The first change puts an
+   * overlay over the storage, which only rewrites the neighbour lists of the verticies touched, so
+   * each change costs time in proportion to its size rather than to the size of the graph.
+   *
+   * @param addedEdges : the packed ids of the edges to add
+   * @param removedEdges : the packed ids of the edges to remove
+   */
+  public void applyChanges(long[] addedEdges, long[] removedEdges) {
+    if (!(storage instanceof OverlayAdjacencyStorage)) {
+      storage = new OverlayAdjacencyStorage(size(), storage, relabelling);
+    }
+
+    // drops changes that would not change the edges, and duplicates within each change
+    PackedEdgeSet added = new PackedEdgeSet(addedEdges.length);
+    for (long edge : addedEdges) {
+      if (!hasEdge(PackedEdgeSet.getSource(edge), PackedEdgeSet.getTarget(edge))) {
+        added.add(PackedEdgeSet.getSource(edge), PackedEdgeSet.getTarget(edge));
+      }
+    }
+    PackedEdgeSet removed = new PackedEdgeSet(removedEdges.length);
+    for (long edge : removedEdges) {
+      if (hasEdge(PackedEdgeSet.getSource(edge), PackedEdgeSet.getTarget(edge))) {
+        removed.add(PackedEdgeSet.getSource(edge), PackedEdgeSet.getTarget(edge));
+      }
+    }
+
+    ((OverlayAdjacencyStorage) storage)
+        .applyChanges(added.toSortedArray(), removed.toSortedArray());
+  }
+
+  /**
+   * This method estimates the number of bytes used by the verticies and adjacency of the index.
+   *
+   * @return the estimated size in bytes
+   */
+  public long estimateSizeInBytes() {
+    long bytes = dictionary.estimateSizeInBytes() + storage.estimateSizeInBytes();
+    return relabelling == null ? bytes : bytes + relabelling.estimateSizeInBytes();
+  }
+
+  /**
+   * This method determines whether several threads can read the adjacency at once, returns true if
+   * so.
+   *
+   * @return a boolean
+   */
+  public boolean isThreadSafe() {
+    return storage.isThreadSafe();
+  }
+
+  /**
+   * This method gets the number of bytes the index holds outside the Java heap.
+   *
+   * @return the number of off-heap bytes
+   */
+  public long getOffHeapBytes() {
+    return arena == null ? 0 : arena.getAllocatedBytes();
+  }
+
+  /**
+   * This method adds the estimated sizes of the dictionary, the adjacency and any relabelling of
+   * the verticies to a footprint.
+   *
+   * @param footprint : the footprint to add to
+   */
+  public void estimateFootprint(MemoryFootprint footprint) {
+    footprint.add("vertex dictionary", dictionary.estimateSizeInBytes());
+    footprint.add("adjacency", storage.estimateSizeInBytes());
+    if (relabelling != null) {
+      footprint.add("vertex ordering", relabelling.estimateSizeInBytes());
+    }
+    footprint.addOffHeap(getOffHeapBytes());
+  }
+
+  /** This method releases any off-heap memory held by the index. */
+  @Override
+  public void close() {
+    if (arena != null) {
+      arena.close();
+    }
+  }
+
+  // private methods
+
+  /**
+   * This method copies the names of the verticies into an off-heap dictionary. Only verticies that
+   * are strings can be stored as names.
+   *
+   * @param verticies : the verticies in id order
+   * @return the off-heap dictionary
+   */
+  @SuppressWarnings("unchecked")
+  private VertexDictionary<T> createOffHeapDictionary(List<T> verticies) {
+
+    for (T vertex : verticies) {
+      if (!(vertex instanceof String)) {
+        throw new IllegalArgumentException("Off-heap storage requires verticies to be strings");
+      }
+    }
+
+    return (VertexDictionary<T>) new OffHeapVertexDictionary((List<String>) verticies, arena);
+  }
+}
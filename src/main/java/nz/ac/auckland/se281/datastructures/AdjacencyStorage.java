@@ -0,0 +1,74 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * The AdjacencyStorage interface stores the forward and reverse adjacency of a graph over vertex
+ * ids. Every neighbour list is sorted in ascending id order.
+ */
+public interface AdjacencyStorage {
+
+  /**
+   * This method gets the number of distinct edges in the storage.
+   *
+   * @return the number of edges
+   */
+  public int edgeCount();
+
+  /**
+   * This method gets the number of edges that start from the input vertex.
+   *
+   * @param id : the id of a vertex
+   * @return the out degree of the vertex
+   */
+  public int getOutDegree(int id);
+
+  /**
+   * This method gets the i-th vertex adjacent to the input vertex, in ascending order.
+   *
+   * @param id : the id of a vertex
+   * @param i : the position of the neighbour, from 0 up to the out degree
+   * @return the id of the neighbour
+   */
+  public int getOutNeighbour(int id, int i);
+
+  /**
+   * This method gets the number of edges that end at the input vertex.
+   *
+   * @param id : the id of a vertex
+   * @return the in degree of the vertex
+   */
+  public int getInDegree(int id);
+
+  /**
+   * This method gets the i-th vertex with an edge to the input vertex, in ascending order.
+   *
+   * @param id : the id of a vertex
+   * @param i : the position of the neighbour, from 0 up to the in degree
+   * @return the id of the neighbour
+   */
+  public int getInNeighbour(int id, int i);
+
+  /**
+   * This method determines whether there is an edge from the source vertex to the target vertex,
+   * returns true if so.
+   *
+   * @param source : the id of the source vertex
+   * @param target : the id of the target vertex
+   * @return a boolean
+   */
+  public boolean hasEdge(int source, int target);
+
+  /**
+   * This method estimates the number of bytes used by the storage.
+   *
+   * @return the estimated size in bytes
+   */
+  public long estimateSizeInBytes();
+
+  /**
+   * This method determines whether several threads can read the storage at once, returns true if
+   * so.
+   *
+   * @return a boolean
+   */
+  public boolean isThreadSafe();
+}
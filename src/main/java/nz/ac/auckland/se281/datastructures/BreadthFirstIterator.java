@@ -0,0 +1,86 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The BreadthFirstIterator class produces the verticies of a breadth-first search one at a time,
+ * in the same order as the iterative breadth-first search of a graph. A vertex is only expanded
+ * when it is produced, so stopping early skips the rest of the search.
+ *
+ * @param <T> The type of each vertex.
+ */
+public class BreadthFirstIterator<T> implements Iterator<T> {
+
+  // instance variables
+  private AdjacencyIndex<T> index;
+  private boolean[] queued;
+  private int[] queue;
+  private int head;
+  private int tail;
+
+  // constructor
+  public BreadthFirstIterator(AdjacencyIndex<T> index, int[] roots) {
+    this.index = index;
+    this.queued = new boolean[index.size()];
+    this.queue = new int[index.size()];
+
+    // every vertex is queued at most once, so the queue never holds more than every vertex
+    for (int root : roots) {
+      enqueue(root);
+    }
+  }
+
+  /**
+   * This method determines whether the search has another vertex, returns true if so.
+   *
+   * @return a boolean
+   */
+  @Override
+  public boolean hasNext() {
+    return head < tail;
+  }
+
+  /**
+   * This method gets the next vertex of the search.
+   *
+   * @return the next vertex
+   */
+  @Override
+  public T next() {
+    return index.getVertex(nextId());
+  }
+
+  /**
+   * This method gets the id of the next vertex of the search, and queues its unvisited neighbours
+   * in ascending order.
+   *
+   * @return the id of the next vertex
+   */
+  public int nextId() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    int vertex = queue[head++];
+    for (int i = 0; i < index.getOutDegree(vertex); i++) {
+      enqueue(index.getOutNeighbour(vertex, i));
+    }
+
+    return vertex;
+  }
+
+  // private methods
+
+  /**
+   * This method queues the input vertex if it has not been queued before.
+   *
+   * @param id : the id of a vertex
+   */
+  private void enqueue(int id) {
+    if (!queued[id]) {
+      queued[id] = true;
+      queue[tail++] = id;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * The CompressedAdjacencyStorage class stores the adjacency of a graph on the Java heap as gap and
+ * variable length encoded neighbour lists, which take a fraction of the memory of plain compressed
+ * sparse row (CSR) arrays at the cost of decoding lists when they are read.
+ */
+public class CompressedAdjacencyStorage implements AdjacencyStorage {
+
+  // instance variables
+  private CompressedNeighbourLists outLists;
+  private CompressedNeighbourLists inLists;
+  private int edgeCount;
+
+  // constructor
+  public CompressedAdjacencyStorage(int size, PackedEdgeSet edges) {
+
+    // builds plain rows first, which are only kept until they are encoded
+    long[] sortedEdges = edges.toSortedArray();
+    this.edgeCount = sortedEdges.length;
+    int[] offsets = new int[size + 1];
+    int[] rows = PackedEdgeSet.toRows(sortedEdges, size, true, offsets);
+    this.outLists = new CompressedNeighbourLists(offsets, rows);
+
+    offsets = new int[size + 1];
+    rows = PackedEdgeSet.toRows(sortedEdges, size, false, offsets);
+    this.inLists = new CompressedNeighbourLists(offsets, rows);
+  }
+
+  /**
+   * This method gets the number of distinct edges in the storage.
+   *
+   * @return the number of edges
+   */
+  @Override
+  public int edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * This method gets the number of edges that start from the input vertex.
+   *
+   * @param id : the id of a vertex
+   * @return the out degree of the vertex
+   */
+  @Override
+  public int getOutDegree(int id) {
+    return outLists.getDegree(id);
+  }
+
+  /**
+   * This method gets the i-th vertex adjacent to the input vertex, in ascending order.
+   *
+   * @param id : the id of a vertex
+   * @param i : the position of the neighbour, from 0 up to the out degree
+   * @return the id of the neighbour
+   */
+  @Override
+  public int getOutNeighbour(int id, int i) {
+    return outLists.get(id, i);
+  }
+
+  /**
+   * This method gets the number of edges that end at the input vertex.
+   *
+   * @param id : the id of a vertex
+   * @return the in degree of the vertex
+   */
+  @Override
+  public int getInDegree(int id) {
+    return inLists.getDegree(id);
+  }
+
+  /**
+   * This method gets the i-th vertex with an edge to the input vertex, in ascending order.
+   *
+   * @param id : the id of a vertex
+   * @param i : the position of the neighbour, from 0 up to the in degree
+   * @return the id of the neighbour
+   */
+  @Override
+  public int getInNeighbour(int id, int i) {
+    return inLists.get(id, i);
+  }
+
+  /**
+   * This method determines whether there is an edge from the source vertex to the target vertex,
+   * returns true if so.
+   *
+   * @param source : the id of the source vertex
+   * @param target : the id of the target vertex
+   * @return a boolean
+   */
+  @Override
+  public boolean hasEdge(int source, int target) {
+    return outLists.contains(source, target);
+  }
+
+  /**
+   * This method estimates the number of bytes used by the storage.
+   *
+   * @return the estimated size in bytes
+   */
+  @Override
+  public long estimateSizeInBytes() {
+    return outLists.estimateSizeInBytes() + inLists.estimateSizeInBytes();
+  }
+
+  /**
+   * This method determines whether several threads can read the storage at once, returns true if
+   * so.
+   *
+   * @return a boolean
+   */
+  @Override
+  public boolean isThreadSafe() {
+
+    // the neighbour lists decode into shared caches
+    return false;
+  }
+}
@@ -0,0 +1,414 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * The CompressedNeighbourLists class stores one sorted neighbour list per vertex as a sequence of
+ * variable length encoded bytes, in the style of WebGraph. Each list records its length, then may
+ * copy entries from a similar list of one of the previous few verticies, and encodes its remaining
+ * entries as gaps. Lists are decoded on demand into a small cache of recently used lists, so
+ * reading a list from start to end only decodes it once. The buffers used to decode a list that
+ * copies from another only grow to the longest such list actually decoded, so a few very long lists
+ * do not cost a buffer of their length for every level of a reference chain.
+ *
+ * <p>The cache makes instances unsafe for use by several threads at once.
+ */
+public class CompressedNeighbourLists {
+
+  private static final int REFERENCE_WINDOW = 7;
+  private static final int MAX_REFERENCE_CHAIN = 3;
+  private static final int MIN_COPIED_ENTRIES = 2;
+  private static final int CACHE_SLOTS = 16;
+
+  // instance variables
+  private byte[] data;
+  private int length;
+  private int[] rowStart;
+  private int position;
+  private int[][] copiedScratch;
+  private int[][] residualScratch;
+  private int[][] referenceScratch;
+  private int[] cachedIds;
+  private int[][] cachedRows;
+
+  // constructor
+  public CompressedNeighbourLists(int[] offsets, int[] neighbours) {
+
+    int size = offsets.length - 1;
+    this.data = new byte[Math.max(16, neighbours.length)];
+    this.rowStart = new int[size + 1];
+
+    int[] chain = new int[size];
+    boolean[] copied = new boolean[0];
+    int[] residuals = new int[0];
+
+    for (int vertex = 0; vertex < size; vertex++) {
+      rowStart[vertex] = length;
+      int start = offsets[vertex];
+      int degree = offsets[vertex + 1] - start;
+      writeVarint(degree);
+      if (degree == 0) {
+        continue;
+      }
+
+      // picks the previous list sharing the most entries, unless the reference chain is too long
+      int reference = 0;
+      int bestCommon = MIN_COPIED_ENTRIES - 1;
+      for (int distance = 1; distance <= REFERENCE_WINDOW && vertex - distance >= 0; distance++) {
+        int other = vertex - distance;
+        if (chain[other] >= MAX_REFERENCE_CHAIN) {
+          continue;
+        }
+        int common = countCommon(offsets, neighbours, vertex, other);
+        if (common > bestCommon) {
+          bestCommon = common;
+          reference = distance;
+        }
+      }
+      writeVarint(reference);
+
+      if (residuals.length < degree) {
+        residuals = new int[degree];
+      }
+      int residualCount = 0;
+
+      if (reference == 0) {
+        System.arraycopy(neighbours, start, residuals, 0, degree);
+        residualCount = degree;
+      } else {
+        int other = vertex - reference;
+        chain[vertex] = chain[other] + 1;
+        int otherStart = offsets[other];
+        int otherDegree = offsets[other + 1] - otherStart;
+        if (copied.length < otherDegree) {
+          copied = new boolean[otherDegree];
+        }
+
+        // marks which entries of the reference list are copied, keeping the rest as residuals
+        int i = 0;
+        int j = 0;
+        Arrays.fill(copied, 0, otherDegree, false);
+        while (i < degree) {
+          while (j < otherDegree && neighbours[otherStart + j] < neighbours[start + i]) {
+            j++;
+          }
+          if (j < otherDegree && neighbours[otherStart + j] == neighbours[start + i]) {
+            copied[j++] = true;
+          } else {
+            residuals[residualCount++] = neighbours[start + i];
+          }
+          i++;
+        }
+
+        writeCopyBlocks(copied, otherDegree);
+      }
+
+      // the first residual is relative to the vertex, and the rest are gaps from the previous
+      if (residualCount > 0) {
+        writeVarint(zigzag(residuals[0] - vertex));
+        for (int r = 1; r < residualCount; r++) {
+          writeVarint(residuals[r] - residuals[r - 1] - 1);
+        }
+      }
+    }
+    rowStart[size] = length;
+    this.data = Arrays.copyOf(data, length);
+
+    // each level of a reference chain has its own scratch arrays, which grow when first needed
+    this.copiedScratch = new int[MAX_REFERENCE_CHAIN + 1][0];
+    this.residualScratch = new int[MAX_REFERENCE_CHAIN + 1][0];
+    this.referenceScratch = new int[MAX_REFERENCE_CHAIN + 1][0];
+    this.cachedIds = new int[CACHE_SLOTS];
+    this.cachedRows = new int[CACHE_SLOTS][];
+    Arrays.fill(cachedIds, -1);
+  }
+
+  /**
+   * This method gets the number of entries in the list of the input vertex.
+   *
+   * @param id : the id of a vertex
+   * @return the number of entries
+   */
+  public int getDegree(int id) {
+    position = rowStart[id];
+    return readVarint();
+  }
+
+  /**
+   * This method gets the i-th entry in the list of the input vertex.
+   *
+   * @param id : the id of a vertex
+   * @param i : the position of the entry, from 0 up to the degree
+   * @return the entry
+   */
+  public int get(int id, int i) {
+    return getRow(id)[i];
+  }
+
+  /**
+   * This method determines whether the list of the input vertex contains the input value, returns
+   * true if so.
+   *
+   * @param id : the id of a vertex
+   * @param value : the value to search for
+   * @return a boolean
+   */
+  public boolean contains(int id, int value) {
+    int degree = getDegree(id);
+    return Arrays.binarySearch(getRow(id), 0, degree, value) >= 0;
+  }
+
+  /**
+   * This method estimates the number of bytes used by the encoded lists and the decoding buffers.
+   *
+   * @return the estimated size in bytes
+   */
+  public long estimateSizeInBytes() {
+    long bytes = data.length + 4L * rowStart.length;
+    for (int depth = 0; depth <= MAX_REFERENCE_CHAIN; depth++) {
+      bytes += 4L * copiedScratch[depth].length;
+      bytes += 4L * residualScratch[depth].length;
+      bytes += 4L * referenceScratch[depth].length;
+    }
+    for (int[] row : cachedRows) {
+      bytes += row == null ? 0 : 4L * row.length;
+    }
+    return bytes;
+  }
+
+  // private methods
+
+  /**
+   * This method gets the decoded list of the input vertex from the cache, decoding it into the
+   * cache first if it is not there.
+   *
+   * @param id : the id of a vertex
+   * @return an array starting with the entries of the list
+   */
+  private int[] getRow(int id) {
+
+    int slot = id & (CACHE_SLOTS - 1);
+    if (cachedIds[slot] != id) {
+      int degree = getDegree(id);
+      if (cachedRows[slot] == null || cachedRows[slot].length < degree) {
+        cachedRows[slot] = new int[Math.max(degree, 4)];
+      }
+      decode(id, cachedRows[slot], 0);
+      cachedIds[slot] = id;
+    }
+
+    return cachedRows[slot];
+  }
+
+  /**
+   * This method decodes the list of the input vertex, decoding the reference list first if the
+   * list copies from one.
+   *
+   * @param id : the id of a vertex
+   * @param target : the array to write the entries to
+   * @param depth : how many referencing lists are waiting on this list
+   * @return the number of entries
+   */
+  private int decode(int id, int[] target, int depth) {
+
+    position = rowStart[id];
+    int degree = readVarint();
+    if (degree == 0) {
+      return 0;
+    }
+    int reference = readVarint();
+
+    // a list that copies from no other list is only gaps, so it is read straight into the target
+    if (reference == 0) {
+      readResiduals(id, target, degree);
+      return degree;
+    }
+
+    // copies the entries of the reference list that are inside copy blocks
+    int copiedCount = 0;
+    int[] copiedEntries = growScratch(copiedScratch, depth, degree);
+    int resume = position;
+    int[] referenceRow = growScratch(referenceScratch, depth, getDegree(id - reference));
+    decode(id - reference, referenceRow, depth + 1);
+    position = resume;
+
+    int blocks = readVarint();
+    int entry = 0;
+    for (int block = 0; block < blocks; block++) {
+      int blockLength = readVarint();
+      if (block % 2 == 0) {
+        System.arraycopy(referenceRow, entry, copiedEntries, copiedCount, blockLength);
+        copiedCount += blockLength;
+      }
+      entry += blockLength;
+    }
+
+    // reads the residual entries from their gaps
+    int residualCount = degree - copiedCount;
+    int[] residualEntries = growScratch(residualScratch, depth, residualCount);
+    readResiduals(id, residualEntries, residualCount);
+
+    // merges the two sorted sequences into the target
+    int c = 0;
+    int r = 0;
+    for (int i = 0; i < degree; i++) {
+      if (r >= residualCount || (c < copiedCount && copiedEntries[c] < residualEntries[r])) {
+        target[i] = copiedEntries[c++];
+      } else {
+        target[i] = residualEntries[r++];
+      }
+    }
+
+    return degree;
+  }
+
+  /**
+   * This method reads residual entries from their gaps at the current position.
+   *
+   * @param id : the id of the vertex the list belongs to
+   * @param target : the array to write the entries to
+   * @param count : the number of residual entries
+   */
+  private void readResiduals(int id, int[] target, int count) {
+    if (count > 0) {
+      target[0] = id + unzigzag(readVarint());
+      for (int r = 1; r < count; r++) {
+        target[r] = target[r - 1] + readVarint() + 1;
+      }
+    }
+  }
+
+  /**
+   * This method gets the scratch array of a level of a reference chain, growing it first if it is
+   * too short. Arrays grow to at least double their length, so they are grown only a few times.
+   *
+   * @param scratch : the scratch arrays of each level
+   * @param depth : the level of the reference chain
+   * @param size : the number of entries needed
+   * @return the scratch array, which has room for at least the number of entries
+   */
+  private int[] growScratch(int[][] scratch, int depth, int size) {
+    if (scratch[depth].length < size) {
+      scratch[depth] = new int[Math.max(size, 2 * scratch[depth].length)];
+    }
+    return scratch[depth];
+  }
+
+  /**
+   * This method counts the entries that two sorted lists have in common.
+   *
+   * @param offsets : the start of each list
+   * @param neighbours : the concatenated lists
+   * @param first : the id of the first list
+   * @param second : the id of the second list
+   * @return the number of common entries
+   */
+  private int countCommon(int[] offsets, int[] neighbours, int first, int second) {
+    int i = offsets[first];
+    int j = offsets[second];
+    int common = 0;
+    while (i < offsets[first + 1] && j < offsets[second + 1]) {
+      if (neighbours[i] < neighbours[j]) {
+        i++;
+      } else if (neighbours[i] > neighbours[j]) {
+        j++;
+      } else {
+        common++;
+        i++;
+        j++;
+      }
+    }
+    return common;
+  }
+
+  /**
+   * This method writes which entries of a reference list are copied as alternating lengths of
+   * copied and skipped blocks, starting with a copied block. A final skipped block is left out.
+   *
+   * @param copied : whether each entry of the reference list is copied
+   * @param count : the number of entries in the reference list
+   */
+  private void writeCopyBlocks(boolean[] copied, int count) {
+
+    // trims the final skipped block
+    int end = count;
+    while (end > 0 && !copied[end - 1]) {
+      end--;
+    }
+
+    // counts the blocks, then writes their lengths
+    int blocks = 0;
+    boolean copying = true;
+    for (int i = 0; i < end; blocks++) {
+      while (i < end && copied[i] == copying) {
+        i++;
+      }
+      copying = !copying;
+    }
+    writeVarint(blocks);
+
+    copying = true;
+    for (int i = 0; i < end; ) {
+      int blockStart = i;
+      while (i < end && copied[i] == copying) {
+        i++;
+      }
+      writeVarint(i - blockStart);
+      copying = !copying;
+    }
+  }
+
+  /**
+   * This method appends a non-negative integer using 7 bits per byte, where the high bit of each
+   * byte marks that another byte follows.
+   *
+   * @param value : the value to write
+   */
+  private void writeVarint(int value) {
+    if (length + 5 > data.length) {
+      data = Arrays.copyOf(data, data.length * 2);
+    }
+    while ((value & ~0x7F) != 0) {
+      data[length++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    data[length++] = (byte) value;
+  }
+
+  /**
+   * This method reads a variable length integer at the current position and moves past it.
+   *
+   * @return the value
+   */
+  private int readVarint() {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = data[position++];
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+
+  /**
+   * This method maps a signed integer to a non-negative one, so small negative values stay small.
+   *
+   * @param value : a signed value
+   * @return the encoded value
+   */
+  private int zigzag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  /**
+   * This method reverses the zigzag encoding.
+   *
+   * @param value : an encoded value
+   * @return the signed value
+   */
+  private int unzigzag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
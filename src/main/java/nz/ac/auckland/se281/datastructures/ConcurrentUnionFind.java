@@ -0,0 +1,80 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The ConcurrentUnionFind class keeps disjoint sets of ids that several threads can join at once
+ * without locks. Each id points to its parent, and the pointers are only changed by compare and
+ * set, so a thread that loses a race reads the pointers again and retries. A root is always linked
+ * under a smaller root, so the pointers can never form a cycle and the root of every set is its
+ * smallest id, whatever order the sets were joined in. Finding a root halves the path to it.
+ */
+public class ConcurrentUnionFind {
+
+  // instance variables
+  private AtomicIntegerArray parents;
+
+  // constructor
+  public ConcurrentUnionFind(int size) {
+    this.parents = new AtomicIntegerArray(size);
+    for (int id = 0; id < size; id++) {
+      parents.set(id, id);
+    }
+  }
+
+  /**
+   * This method finds the root of the set holding the input id, which is its smallest id.
+   *
+   * @param id : an id
+   * @return the root of the set
+   */
+  public int find(int id) {
+    while (true) {
+      int parent = parents.get(id);
+      if (parent == id) {
+        return id;
+      }
+
+      // points the id past its parent, which only fails if another thread moved it first
+      int grandparent = parents.get(parent);
+      if (parent != grandparent) {
+        parents.compareAndSet(id, parent, grandparent);
+      }
+      id = grandparent;
+    }
+  }
+
+  /**
+   * This method joins the sets holding the two input ids.
+   *
+   * @param first : an id
+   * @param second : another id
+   */
+  public void union(int first, int second) {
+    while (true) {
+      int firstRoot = find(first);
+      int secondRoot = find(second);
+      if (firstRoot == secondRoot) {
+        return;
+      }
+
+      // the larger root is linked under the smaller, unless another thread has linked it already
+      int larger = Math.max(firstRoot, secondRoot);
+      int smaller = Math.min(firstRoot, secondRoot);
+      if (parents.compareAndSet(larger, larger, smaller)) {
+        return;
+      }
+      first = firstRoot;
+      second = secondRoot;
+    }
+  }
+
+  /**
+   * This method gets the number of ids in the sets.
+   *
+   * @return the number of ids
+   */
+  public int size() {
+    return parents.length();
+  }
+}
@@ -0,0 +1,198 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * The DegreeStatistics class summarises the in and out degrees of every vertex of an adjacency
+ * index in one pass over its verticies. The degrees are read from the offsets of the adjacency, so
+ * the pass never visits an edge. Degrees are counted in a histogram of power of two buckets, where
+ * bucket 0 holds degree 0 and bucket k holds the degrees from 2^(k-1) up to 2^k - 1.
+ */
+public class DegreeStatistics {
+
+  // instance variables
+  private int vertexCount;
+  private long edgeCount;
+  private int minOutDegree;
+  private int maxOutDegree;
+  private int minInDegree;
+  private int maxInDegree;
+  private int sourceCount;
+  private int sinkCount;
+  private int isolatedCount;
+  private int[] outHistogram;
+  private int[] inHistogram;
+
+  // constructor
+  public DegreeStatistics(AdjacencyIndex<?> index) {
+
+    this.vertexCount = index.size();
+    this.minOutDegree = vertexCount == 0 ? 0 : Integer.MAX_VALUE;
+    this.minInDegree = minOutDegree;
+    int[] outCounts = new int[Integer.SIZE + 1];
+    int[] inCounts = new int[Integer.SIZE + 1];
+    int buckets = 1;
+
+    for (int id = 0; id < vertexCount; id++) {
+      int outDegree = index.getOutDegree(id);
+      int inDegree = index.getInDegree(id);
+
+      edgeCount += outDegree;
+      minOutDegree = Math.min(minOutDegree, outDegree);
+      maxOutDegree = Math.max(maxOutDegree, outDegree);
+      minInDegree = Math.min(minInDegree, inDegree);
+      maxInDegree = Math.max(maxInDegree, inDegree);
+
+      // a source only has edges that start from it, and a sink only has edges that end at it
+      if (inDegree == 0 && outDegree > 0) {
+        sourceCount++;
+      } else if (outDegree == 0 && inDegree > 0) {
+        sinkCount++;
+      } else if (outDegree == 0) {
+        isolatedCount++;
+      }
+
+      outCounts[getBucket(outDegree)]++;
+      inCounts[getBucket(inDegree)]++;
+      buckets = Math.max(buckets, Math.max(getBucket(outDegree), getBucket(inDegree)) + 1);
+    }
+
+    this.outHistogram = Arrays.copyOf(outCounts, buckets);
+    this.inHistogram = Arrays.copyOf(inCounts, buckets);
+  }
+
+  /**
+   * This method gets the bucket of the histogram that counts the input degree.
+   *
+   * @param degree : a degree of zero or more
+   * @return the bucket of the degree
+   */
+  public static int getBucket(int degree) {
+    return Integer.SIZE - Integer.numberOfLeadingZeros(degree);
+  }
+
+  /**
+   * This method gets the smallest degree counted by a bucket of the histogram.
+   *
+   * @param bucket : a bucket of the histogram
+   * @return the smallest degree of the bucket
+   */
+  public static int getBucketLow(int bucket) {
+    return bucket == 0 ? 0 : 1 << (bucket - 1);
+  }
+
+  /**
+   * This method gets the largest degree counted by a bucket of the histogram.
+   *
+   * @param bucket : a bucket of the histogram
+   * @return the largest degree of the bucket
+   */
+  public static int getBucketHigh(int bucket) {
+    return bucket == 0 ? 0 : (int) ((1L << bucket) - 1);
+  }
+
+  /**
+   * This method gets the smallest number of edges that start from a vertex.
+   *
+   * @return the minimum out degree, which is 0 for a graph without verticies
+   */
+  public int getMinOutDegree() {
+    return minOutDegree;
+  }
+
+  /**
+   * This method gets the largest number of edges that start from a vertex.
+   *
+   * @return the maximum out degree
+   */
+  public int getMaxOutDegree() {
+    return maxOutDegree;
+  }
+
+  /**
+   * This method gets the smallest number of edges that end at a vertex.
+   *
+   * @return the minimum in degree, which is 0 for a graph without verticies
+   */
+  public int getMinInDegree() {
+    return minInDegree;
+  }
+
+  /**
+   * This method gets the largest number of edges that end at a vertex.
+   *
+   * @return the maximum in degree
+   */
+  public int getMaxInDegree() {
+    return maxInDegree;
+  }
+
+  /**
+   * This method gets the mean degree of the verticies, which is the same for in and out degrees as
+   * every edge starts from one vertex and ends at one vertex.
+   *
+   * @return the mean degree, which is 0 for a graph without verticies
+   */
+  public double getMeanDegree() {
+    return vertexCount == 0 ? 0 : (double) edgeCount / vertexCount;
+  }
+
+  /**
+   * This method gets the number of verticies with edges that start from them but none that end at
+   * them, which are the roots found by their degrees.
+   *
+   * @return the number of sources
+   */
+  public int getSourceCount() {
+    return sourceCount;
+  }
+
+  /**
+   * This method gets the number of verticies with edges that end at them but none that start from
+   * them.
+   *
+   * @return the number of sinks
+   */
+  public int getSinkCount() {
+    return sinkCount;
+  }
+
+  /**
+   * This method gets the number of verticies without any edges.
+   *
+   * @return the number of isolated verticies
+   */
+  public int getIsolatedCount() {
+    return isolatedCount;
+  }
+
+  /**
+   * This method gets the number of buckets of the histogram, up to the last bucket that counts a
+   * degree.
+   *
+   * @return the number of buckets
+   */
+  public int getBucketCount() {
+    return outHistogram.length;
+  }
+
+  /**
+   * This method gets the number of verticies whose out degree is counted by a bucket.
+   *
+   * @param bucket : a bucket of the histogram
+   * @return the number of verticies
+   */
+  public int getOutDegreeCount(int bucket) {
+    return outHistogram[bucket];
+  }
+
+  /**
+   * This method gets the number of verticies whose in degree is counted by a bucket.
+   *
+   * @param bucket : a bucket of the histogram
+   * @return the number of verticies
+   */
+  public int getInDegreeCount(int bucket) {
+    return inHistogram[bucket];
+  }
+}
@@ -0,0 +1,96 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The DepthFirstIterator class produces the verticies of a depth-first search one at a time, in
+ * the same order as the iterative depth-first search of a graph. A vertex is only expanded when it
+ * is produced, so stopping early skips the rest of the search.
+ *
+ * @param <T> The type of each vertex.
+ */
+public class DepthFirstIterator<T> implements Iterator<T> {
+
+  // instance variables
+  private AdjacencyIndex<T> index;
+  private boolean[] visited;
+  private int[] stack;
+  private int top;
+
+  // constructor
+  public DepthFirstIterator(AdjacencyIndex<T> index, int[] roots) {
+    this.index = index;
+    this.visited = new boolean[index.size()];
+    this.stack = new int[Math.max(16, roots.length)];
+
+    // pushes the roots in reverse, so the first root is on top
+    for (int i = roots.length - 1; i >= 0; i--) {
+      push(roots[i]);
+    }
+  }
+
+  /**
+   * This method determines whether the search has another vertex, returns true if so.
+   *
+   * @return a boolean
+   */
+  @Override
+  public boolean hasNext() {
+
+    // drops verticies that were visited after they were pushed
+    while (top > 0 && visited[stack[top - 1]]) {
+      top--;
+    }
+
+    return top > 0;
+  }
+
+  /**
+   * This method gets the next vertex of the search.
+   *
+   * @return the next vertex
+   */
+  @Override
+  public T next() {
+    return index.getVertex(nextId());
+  }
+
+  /**
+   * This method gets the id of the next vertex of the search, and pushes its unvisited neighbours
+   * so that the smallest is on top.
+   *
+   * @return the id of the next vertex
+   */
+  public int nextId() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    int vertex = stack[--top];
+    visited[vertex] = true;
+    for (int i = index.getOutDegree(vertex) - 1; i >= 0; i--) {
+      int adjacent = index.getOutNeighbour(vertex, i);
+      if (!visited[adjacent]) {
+        push(adjacent);
+      }
+    }
+
+    return vertex;
+  }
+
+  // private methods
+
+  /**
+   * This method pushes the input vertex, growing the stack if it is full.
+   *
+   * @param id : the id of a vertex
+   */
+  private void push(int id) {
+    if (top == stack.length) {
+      stack = Arrays.copyOf(stack, stack.length * 2);
+    }
+    stack[top++] = id;
+  }
+}
@@ -1,5 +1,7 @@
 package nz.ac.auckland.se281.datastructures;
 
+import java.util.Objects;
+
 /**
  * An edge in a graph that connects two verticies.
  *
@@ -36,4 +38,34 @@ public class Edge<T> {
   public T getDestination() {
     return destination;
   }
+
+  /**
+   * This method determines whether the input object is an edge with the same source and
+   * destination, returns true if so.
+   *
+   * @param other : the object to compare with
+   * @return a boolean
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof Edge)) {
+      return false;
+    }
+
+    Edge<?> edge = (Edge<?>) other;
+    return Objects.equals(source, edge.source) && Objects.equals(destination, edge.destination);
+  }
+
+  /**
+   * This method computes a hash code from the source and destination of the edge.
+   *
+   * @return the hash code
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(source, destination);
+  }
 }
@@ -0,0 +1,428 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * The ExternalBreadthFirstSearch class runs a breadth-first search over a graph of integer
+ * verticies that may be larger than memory, visiting the verticies in the same order as
+ * IntGraph.iterativeBreadthFirstSearch. The edges are sorted externally into an adjacency file
+ * grouped by source, and the frontiers and visited bitmap are kept in memory mapped scratch files.
+ * Each level sorts its frontier by id, so the rows of the adjacency are read in a single forward
+ * pass, and then sorts the unvisited neighbours back into the order the in-memory queue would
+ * reach them. Only the sort buffers are held on the heap, whose size is chosen by the caller.
+ */
+public class ExternalBreadthFirstSearch implements AutoCloseable {
+
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+  // instance variables
+  private Path scratchDirectory;
+  private int bufferSize;
+  private ExternalLongSorter edgeSorter;
+  private ExternalLongSorter vertexSorter;
+  private List<ScratchFile> files;
+  private ScratchFile verticies;
+  private ScratchFile offsets;
+  private ScratchFile targets;
+  private ScratchFile incoming;
+  private int vertexCount;
+  private long edgeCount;
+  private int levelCount;
+
+  // constructor
+  public ExternalBreadthFirstSearch(Path scratchDirectory, int bufferSize) {
+    if (bufferSize < 1) {
+      throw new IllegalArgumentException("The sort buffer must hold at least one pair");
+    }
+    this.scratchDirectory = scratchDirectory;
+    this.bufferSize = bufferSize;
+    this.edgeSorter = new ExternalLongSorter(scratchDirectory, bufferSize);
+    this.vertexSorter = new ExternalLongSorter(scratchDirectory, bufferSize);
+    this.files = new ArrayList<>();
+  }
+
+  /**
+   * This method adds an edge of the graph. Edges cannot be added once the graph has been searched.
+   *
+   * @param source : the source of the edge
+   * @param destination : the destination of the edge
+   */
+  public void addEdge(int source, int destination) {
+    if (verticies != null) {
+      throw new IllegalStateException("Edges cannot be added once the graph has been searched");
+    }
+
+    // the destination is offset so that the packed edges sort by signed source then destination
+    edgeSorter.add(((long) source << 32) | ((destination ^ Integer.MIN_VALUE) & 0xFFFFFFFFL));
+    vertexSorter.add(source);
+    vertexSorter.add(destination);
+  }
+
+  /**
+   * This method performs the breadth-first search, passing each vertex to the visitor in the order
+   * it is visited. The adjacency file is built by the first search.
+   *
+   * @param visitor : the consumer of the visited verticies
+   */
+  public void search(IntConsumer visitor) {
+    if (verticies == null) {
+      build();
+    }
+
+    try (ScratchFile visited = createBitmap();
+        ScratchFile frontier = new ScratchFile(scratchDirectory);
+        ScratchFile nextFrontier = new ScratchFile(scratchDirectory)) {
+      frontier.map(4L * vertexCount);
+      nextFrontier.map(4L * vertexCount);
+
+      int size = findRoots(frontier);
+      for (int i = 0; i < size; i++) {
+        visited.setBit(frontier.getInt(i));
+        visitor.accept(verticies.getInt(frontier.getInt(i)));
+      }
+
+      // the frontiers swap files each level, as a level is only read while the next is written
+      levelCount = 0;
+      ScratchFile current = frontier;
+      ScratchFile next = nextFrontier;
+      while (size > 0) {
+        size = expand(current, size, next, visited, visitor);
+        ScratchFile swap = current;
+        current = next;
+        next = swap;
+        levelCount++;
+      }
+    }
+  }
+
+  /**
+   * This method gets the number of distinct verticies of the graph, once it has been searched.
+   *
+   * @return the number of verticies
+   */
+  public int getVertexCount() {
+    return vertexCount;
+  }
+
+  /**
+   * This method gets the number of distinct edges of the graph, once it has been searched.
+   *
+   * @return the number of edges
+   */
+  public long getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * This method gets the number of levels expanded by the last search, including the last level
+   * that found no new verticies.
+   *
+   * @return the number of levels
+   */
+  public int getLevelCount() {
+    return levelCount;
+  }
+
+  /** This method deletes every scratch file of the search. */
+  @Override
+  public void close() {
+    edgeSorter.close();
+    vertexSorter.close();
+    for (ScratchFile file : files) {
+      file.close();
+    }
+    files.clear();
+  }
+
+  // private methods
+
+  /**
+   * This method writes the sorted verticies, then the adjacency of the sorted edges as the offsets
+   * of each row and the ids of their targets. The id of a vertex is its position in ascending
+   * numerical order, as in an IntGraph.
+   */
+  private void build() {
+    verticies = createFile();
+    try (DataOutputStream output = verticies.openOutput()) {
+      while (vertexSorter.hasNext()) {
+        output.writeInt((int) vertexSorter.nextLong());
+        vertexCount++;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    vertexSorter.close();
+    verticies.map(4L * vertexCount);
+
+    offsets = createFile();
+    targets = createFile();
+    incoming = createBitmap();
+    files.add(incoming);
+
+    try (DataOutputStream offsetOutput = offsets.openOutput();
+        DataOutputStream targetOutput = targets.openOutput()) {
+      int source = 0;
+      offsetOutput.writeLong(0);
+
+      // the edges come grouped by source in ascending order, so a row ends at the next source
+      while (edgeSorter.hasNext()) {
+        long edge = edgeSorter.nextLong();
+        while (verticies.getInt(source) != (int) (edge >> 32)) {
+          offsetOutput.writeLong(edgeCount);
+          source++;
+        }
+        int target = findId((int) edge ^ Integer.MIN_VALUE);
+        targetOutput.writeInt(target);
+        incoming.setBit(target);
+        edgeCount++;
+      }
+      for (; source < vertexCount; source++) {
+        offsetOutput.writeLong(edgeCount);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    edgeSorter.close();
+    offsets.map(8L * (vertexCount + 1));
+    targets.map(4L * edgeCount);
+  }
+
+  /**
+   * This method writes the roots of the graph to the frontier, in the same order as
+   * IntGraph.getRoots.
+   *
+   * @param frontier : the mapped file to write the ids of the roots to
+   * @return the number of roots
+   */
+  private int findRoots(ScratchFile frontier) {
+    int count = 0;
+
+    // a root has edges that start from it but none that end at it
+    for (int id = 0; id < vertexCount; id++) {
+      if (!incoming.getBit(id) && getStart(id) < getStart(id + 1)) {
+        frontier.putInt(count++, id);
+      }
+    }
+
+    // every vertex of an equivalence relation has an edge to itself, so it has no degree roots
+    if (count > 0 || !isEquivalence()) {
+      return count;
+    }
+
+    for (int id = 0; id < vertexCount; id++) {
+      if (isSmallestOfClass(id)) {
+        frontier.putInt(count++, id);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * This method determines whether the graph is an equivalence relation, returns true if so. Each
+   * vertex must have an edge to itself, and its row must be the same as the row of its first
+   * neighbour, which must also be the first neighbour of every vertex in its row.
+   *
+   * @return boolean
+   */
+  private boolean isEquivalence() {
+    for (int id = 0; id < vertexCount; id++) {
+      long start = getStart(id);
+      long end = getStart(id + 1);
+      if (!contains(start, end, id)) {
+        return false;
+      }
+
+      int first = targets.getInt(start);
+      for (long i = start; i < end; i++) {
+        int member = targets.getInt(i);
+        if (getStart(member) == getStart(member + 1)
+            || targets.getInt(getStart(member)) != first) {
+          return false;
+        }
+      }
+
+      if (!hasSameRow(id, first)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * This method determines whether the input vertex is the smallest of its equivalence class when
+   * compared as a string, returns true if so. The graph must be an equivalence relation.
+   *
+   * @param id : the id of a vertex
+   * @return boolean
+   */
+  private boolean isSmallestOfClass(int id) {
+    int vertex = verticies.getInt(id);
+    for (long i = getStart(id); i < getStart(id + 1); i++) {
+      if (IntGraph.compareAsStrings(vertex, verticies.getInt(targets.getInt(i))) > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * This method expands a level of the search, writing the verticies it reaches to the next
+   * frontier in the order the in-memory queue would reach them and passing them to the visitor.
+   *
+   * @param frontier : the mapped file holding the ids of the level
+   * @param size : the number of verticies in the level
+   * @param next : the mapped file to write the ids of the next level to
+   * @param visited : the mapped bitmap of the verticies that have been visited
+   * @param visitor : the consumer of the visited verticies
+   * @return the number of verticies in the next level
+   */
+  private int expand(
+      ScratchFile frontier, int size, ScratchFile next, ScratchFile visited, IntConsumer visitor) {
+
+    try (ExternalLongSorter byId = new ExternalLongSorter(scratchDirectory, bufferSize);
+        ExternalLongSorter byNeighbour = new ExternalLongSorter(scratchDirectory, bufferSize);
+        ExternalLongSorter byPosition = new ExternalLongSorter(scratchDirectory, bufferSize)) {
+
+      // the level is read in id order, so the rows of the adjacency are streamed in file order
+      for (int position = 0; position < size; position++) {
+        byId.add(PackedEdgeSet.pack(frontier.getInt(position), position));
+      }
+      while (byId.hasNext()) {
+        long pair = byId.nextLong();
+        int id = PackedEdgeSet.getSource(pair);
+        for (long i = getStart(id); i < getStart(id + 1); i++) {
+          int neighbour = targets.getInt(i);
+          if (!visited.getBit(neighbour)) {
+            byNeighbour.add(PackedEdgeSet.pack(neighbour, PackedEdgeSet.getTarget(pair)));
+          }
+        }
+      }
+
+      // a neighbour is queued by the first vertex of the level to reach it
+      int previous = -1;
+      while (byNeighbour.hasNext()) {
+        long pair = byNeighbour.nextLong();
+        int neighbour = PackedEdgeSet.getSource(pair);
+        if (neighbour != previous) {
+          byPosition.add(PackedEdgeSet.pack(PackedEdgeSet.getTarget(pair), neighbour));
+          previous = neighbour;
+        }
+      }
+
+      // each vertex of the level queues its neighbours in ascending order
+      int count = 0;
+      while (byPosition.hasNext()) {
+        int neighbour = PackedEdgeSet.getTarget(byPosition.nextLong());
+        visited.setBit(neighbour);
+        next.putInt(count++, neighbour);
+        visitor.accept(verticies.getInt(neighbour));
+      }
+      return count;
+    }
+  }
+
+  /**
+   * This method finds the id of a vertex by a binary search of the sorted verticies.
+   *
+   * @param vertex : a vertex of the graph
+   * @return the id of the vertex
+   */
+  private int findId(int vertex) {
+    int low = 0;
+    int high = vertexCount - 1;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (verticies.getInt(middle) < vertex) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * This method determines whether a row of the adjacency contains a vertex, by a binary search of
+   * its sorted targets.
+   *
+   * @param start : the position of the first target of the row
+   * @param end : the position after the last target of the row
+   * @param id : the id of the vertex
+   * @return boolean
+   */
+  private boolean contains(long start, long end, int id) {
+    long low = start;
+    long high = end;
+    while (low < high) {
+      long middle = (low + high) >>> 1;
+      if (targets.getInt(middle) < id) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low < end && targets.getInt(low) == id;
+  }
+
+  /**
+   * This method determines whether two verticies have the same targets, returns true if so.
+   *
+   * @param first : the id of the first vertex
+   * @param second : the id of the second vertex
+   * @return boolean
+   */
+  private boolean hasSameRow(int first, int second) {
+    long firstStart = getStart(first);
+    long secondStart = getStart(second);
+    long length = getStart(first + 1) - firstStart;
+    if (getStart(second + 1) - secondStart != length) {
+      return false;
+    }
+    for (long i = 0; i < length; i++) {
+      if (targets.getInt(firstStart + i) != targets.getInt(secondStart + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * This method gets the position of the first target of a row of the adjacency, which is also
+   * the end of the previous row.
+   *
+   * @param id : the id of a vertex, or the number of verticies for the end of the last row
+   * @return the position in the targets
+   */
+  private long getStart(int id) {
+    return offsets.getLong(id);
+  }
+
+  /**
+   * This method creates a scratch file that is deleted when the search is closed.
+   *
+   * @return the file
+   */
+  private ScratchFile createFile() {
+    ScratchFile file = new ScratchFile(scratchDirectory);
+    files.add(file);
+    return file;
+  }
+
+  /**
+   * This method creates a mapped scratch file holding a cleared bit for each vertex.
+   *
+   * @return the file
+   */
+  private ScratchFile createBitmap() {
+    ScratchFile bitmap = new ScratchFile(scratchDirectory);
+    bitmap.map(8L * ((vertexCount + 63L) / 64));
+    return bitmap;
+  }
+}
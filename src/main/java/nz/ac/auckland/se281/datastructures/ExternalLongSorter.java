@@ -0,0 +1,232 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The ExternalLongSorter class sorts more distinct longs than fit in memory. The longs are added
+ * into a buffer of a fixed size, and each time the buffer fills it is sorted and written to a
+ * scratch file as a run. Once every long has been added, the runs are merged by streaming each of
+ * them in order, so only the buffer and one block of each run are held in memory. Repeated longs
+ * are only returned once. Longs that fit in a single buffer are sorted without writing any run.
+ */
+public class ExternalLongSorter implements AutoCloseable {
+
+  private static final int MINIMUM_CAPACITY = 16;
+
+  // instance variables
+  private Path scratchDirectory;
+  private int bufferSize;
+  private long[] buffer;
+  private int count;
+  private List<ScratchFile> runs;
+  private PriorityQueue<RunReader> merge;
+  private int position;
+  private boolean sorted;
+  private boolean started;
+  private long last;
+
+  // constructor
+  public ExternalLongSorter(Path scratchDirectory, int bufferSize) {
+    this.scratchDirectory = scratchDirectory;
+    this.bufferSize = bufferSize;
+    this.buffer = new long[Math.min(bufferSize, MINIMUM_CAPACITY)];
+    this.runs = new ArrayList<>();
+  }
+
+  /**
+   * This method adds a long to be sorted. Longs cannot be added once the sorter has been sorted.
+   *
+   * @param value : the long to add
+   */
+  public void add(long value) {
+    if (count == buffer.length) {
+
+      // the buffer grows up to its full size, so small sorts do not allocate all of it
+      if (buffer.length < bufferSize) {
+        buffer = Arrays.copyOf(buffer, (int) Math.min(bufferSize, 2L * buffer.length));
+      } else {
+        writeRun();
+      }
+    }
+    buffer[count++] = value;
+  }
+
+  /**
+   * This method sorts the longs that have been added, after which they can be read in ascending
+   * order.
+   */
+  public void sort() {
+    sorted = true;
+    if (runs.isEmpty()) {
+      Arrays.sort(buffer, 0, count);
+      return;
+    }
+
+    if (count > 0) {
+      writeRun();
+    }
+    merge = new PriorityQueue<>();
+    for (ScratchFile run : runs) {
+      RunReader reader = new RunReader(run);
+      if (reader.advance()) {
+        merge.add(reader);
+      }
+    }
+  }
+
+  /**
+   * This method determines whether there is another distinct long to read, returns true if so.
+   *
+   * @return boolean
+   */
+  public boolean hasNext() {
+    if (!sorted) {
+      sort();
+    }
+
+    // skips the copies of the last long read
+    if (merge == null) {
+      while (position < count && started && buffer[position] == last) {
+        position++;
+      }
+      return position < count;
+    }
+
+    while (!merge.isEmpty() && started && merge.peek().value == last) {
+      advance(merge.poll());
+    }
+    return !merge.isEmpty();
+  }
+
+  /**
+   * This method reads the next distinct long in ascending order.
+   *
+   * @return the long
+   */
+  public long nextLong() {
+    if (!hasNext()) {
+      throw new IllegalStateException("Every long has been read");
+    }
+
+    started = true;
+    if (merge == null) {
+      last = buffer[position++];
+      return last;
+    }
+
+    RunReader reader = merge.poll();
+    last = reader.value;
+    advance(reader);
+    return last;
+  }
+
+  /** This method deletes the runs of the sorter and releases its buffer. */
+  @Override
+  public void close() {
+    if (merge != null) {
+      for (RunReader reader : merge) {
+        reader.close();
+      }
+      merge.clear();
+    }
+    for (ScratchFile run : runs) {
+      run.close();
+    }
+    runs.clear();
+    buffer = new long[0];
+    count = 0;
+  }
+
+  // private methods
+
+  /** This method sorts the full buffer and writes it to a new run, emptying the buffer. */
+  private void writeRun() {
+    Arrays.sort(buffer, 0, count);
+    ScratchFile run = new ScratchFile(scratchDirectory);
+    runs.add(run);
+
+    try (DataOutputStream output = run.openOutput()) {
+
+      // the count goes first so the run can be read without finding its end
+      output.writeInt(count);
+      for (int i = 0; i < count; i++) {
+        output.writeLong(buffer[i]);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    count = 0;
+  }
+
+  /**
+   * This method reads the next long of a run, putting the run back into the merge if it has one.
+   *
+   * @param reader : a run that has been taken from the merge
+   */
+  private void advance(RunReader reader) {
+    if (reader.advance()) {
+      merge.add(reader);
+    } else {
+      reader.close();
+    }
+  }
+
+  /** A run being merged, holding the smallest of its longs that has not been merged. */
+  private static class RunReader implements Comparable<RunReader> {
+
+    // instance variables
+    private DataInputStream input;
+    private int remaining;
+    private long value;
+
+    // constructor
+    private RunReader(ScratchFile run) {
+      this.input = run.openInput();
+      try {
+        this.remaining = input.readInt();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /**
+     * This method reads the next long of the run, returns true if there was one.
+     *
+     * @return boolean
+     */
+    private boolean advance() {
+      if (remaining == 0) {
+        return false;
+      }
+      try {
+        value = input.readLong();
+        remaining--;
+        return true;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /** This method closes the stream of the run. */
+    private void close() {
+      try {
+        input.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public int compareTo(RunReader other) {
+      return Long.compare(value, other.value);
+    }
+  }
+}
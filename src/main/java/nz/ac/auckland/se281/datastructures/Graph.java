@@ -1,27 +1,45 @@
 package nz.ac.auckland.se281.datastructures;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A graph that is composed of a set of verticies and edges.
  *
  * @param <T> The type of each vertex, that have a total ordering.
  */
-public class Graph<T extends Comparable<T>> {
+public class Graph<T extends Comparable<T>> extends AbstractGraph<T> {
 
-  // instance variables
-  private Set<T> verticies;
-  private Set<Edge<T>> edges;
+  // constructors
+  public Graph(Set<T> verticies, Collection<Edge<T>> edges) {
+    this(verticies, edges, GraphStorage.HEAP);
+  }
 
-  // constructor
-  public Graph(Set<T> verticies, Set<Edge<T>> edges) {
-    this.verticies = verticies;
-    this.edges = edges;
+  public Graph(Set<T> verticies, Collection<Edge<T>> edges, GraphStorage storage) {
+    this(verticies, edges, storage, VertexOrdering.NONE);
+  }
+
+  public Graph(
+      Set<T> verticies,
+      Collection<Edge<T>> edges,
+      GraphStorage storage,
+      VertexOrdering ordering) {
+
+    // the edges are only kept in the index, as adjacency over vertex ids
+    super(new AdjacencyIndex<>(verticies, edges, getNumericalComparator(), storage, ordering));
   }
 
   /**
@@ -35,100 +53,84 @@ public class Graph<T extends Comparable<T>> {
     // to the set are sorted in ascending numerical order
     Set<T> roots = new TreeSet<>(getNumericalComparator());
 
-    // iterates through all verticies of the graph
-    for (T currentVertex : this.verticies) {
-
-      // checks if the vertex is a root by use of its degree property
-      if (checkIfRootViaDegree(currentVertex)) {
-        roots.add(currentVertex);
-
-        // checks if the vertex is a root by use of its equivalence class property
-      } else if (getEquivalenceClass(currentVertex).contains(currentVertex)
-          && checkSmallestEquivalence(currentVertex)) {
-        roots.add(currentVertex);
-      }
+    // adds the roots found by their degree and equivalence class properties
+    for (int id : getRootIds()) {
+      roots.add(getIndex().getVertex(id));
     }
 
     return roots;
   }
 
   /**
-   * This method determines whether the graph is reflexive, returns true if so.
-   *
-   * @return boolean
-   */
-  public boolean isReflexive() {
-
-    return checkIfReflexive() ? true : false;
-  }
-
-  /**
-   * This method determines whether the graph is symmetric, returns true if so.
+   * This method gets the number of edges that start from the input vertex, from the offsets of the
+   * adjacency rather than by scanning the edges.
    *
-   * @return boolean
+   * @param vertex : a vertex in the graph
+   * @return the out degree of the vertex
    */
-  public boolean isSymmetric() {
-
-    return checkIfSymmetric() ? true : false;
+  public int outDegree(T vertex) {
+    return getIndex().getOutDegree(getIndex().getId(vertex));
   }
 
   /**
-   * This method determines whether the graph is transitive, returns true if so.
+   * This method gets the number of edges that end at the input vertex, from the offsets of the
+   * reverse adjacency rather than by scanning the edges.
    *
-   * @return boolean
+   * @param vertex : a vertex in the graph
+   * @return the in degree of the vertex
    */
-  public boolean isTransitive() {
-
-    return checkIfTransitive() ? true : false;
+  public int inDegree(T vertex) {
+    return getIndex().getInDegree(getIndex().getId(vertex));
   }
 
   /**
-   * This method determines whether the graph is anti-symmetric, returns true if so.
+   * This method determines the equivalence class with the given vertex and returns it as a set.
    *
-   * @return boolean
+   * @param vertex : a vertex in the graph
+   * @return a set of the verticies of the equivalence class
    */
-  public boolean isAntiSymmetric() {
-
-    return checkIfAntiSymmetric() ? true : false;
-  }
+  public Set<T> getEquivalenceClass(T vertex) {
 
-  /**
-   * This method determines whether the graph is an equivalence relation, returns true if so.
-   *
-   * @return boolean
-   */
-  public boolean isEquivalence() {
+    // the class is empty unless the graph is an equivalence relation and contains the vertex
+    Set<T> equivalenceClass = new HashSet<T>();
+    for (int id : getEquivalenceClassIds(getIndex().getId(vertex))) {
+      equivalenceClass.add(getIndex().getVertex(id));
+    }
 
-    return checkIfEquivalence() ? true : false;
+    return equivalenceClass;
   }
 
   /**
-   * This method determines the equivalence class with the given vertex and returns it as a set.
+   * This method determines the equivalence classes of many verticies at once, checking that the
+   * graph is an equivalence relation only once. Verticies in the same class share the same set.
    *
-   * @param vertex : a vertex in the graph
-   * @return a set of the verticies of the equivalence class
+   * @param verticies : the verticies to find the classes of
+   * @return the equivalence class of each vertex, in the same order, which is empty if the vertex
+   *     is not in the graph or the graph is not an equivalence relation
    */
-  public Set<T> getEquivalenceClass(T vertex) {
-
-    Set<T> equivalenceClass = new HashSet<T>();
+  public List<Set<T>> getEquivalenceClasses(List<T> verticies) {
 
-    // ensures the graph is an equivalence relation
-    if (!isEquivalence()) {
-      return equivalenceClass;
+    int[] ids = new int[verticies.size()];
+    for (int v = 0; v < ids.length; v++) {
+      ids[v] = getIndex().getId(verticies.get(v));
     }
 
-    // iterates through all edges of the graph
-    for (Edge<T> currentEdge : this.edges) {
-
-      // adds all equivalence class members
-      if (currentEdge.getSource().equals(vertex)) {
-        equivalenceClass.add(currentEdge.getDestination());
-      } else if (currentEdge.getDestination().equals(vertex)) {
-        equivalenceClass.add(currentEdge.getSource());
+    // verticies in the same class share the same array of ids, so each class is converted once
+    List<Set<T>> equivalenceClasses = new ArrayList<>(ids.length);
+    Map<int[], Set<T>> classes = new IdentityHashMap<>();
+    for (int[] classIds : getEquivalenceClassIds(ids)) {
+      Set<T> equivalenceClass = classes.get(classIds);
+      if (equivalenceClass == null) {
+        equivalenceClass = new HashSet<T>();
+        for (int id : classIds) {
+          equivalenceClass.add(getIndex().getVertex(id));
+        }
+        classes.put(classIds, equivalenceClass);
       }
+      equivalenceClasses.add(equivalenceClass);
     }
 
-    return equivalenceClass;
+    return equivalenceClasses;
   }
 
   /**
@@ -271,201 +273,318 @@ public class Graph<T extends Comparable<T>> {
     return recursiveDepthFunction(stack, visitedVerticies);
   }
 
-  // private methods
+  /**
+   * This method gets an iterator that produces the verticies of a breadth-first search on demand,
+   * in the same order as the iterative breadth-first search.
+   *
+   * @return an iterator over the verticies in the order they are visited
+   */
+  public Iterator<T> breadthFirstIterator() {
+    return new BreadthFirstIterator<>(getIndex(), getRootIds());
+  }
 
   /**
-   * This method determines whether the input vertex is a root in the graph, returns true if so.
+   * This method gets an iterator that produces the verticies of a depth-first search on demand, in
+   * the same order as the iterative depth-first search.
    *
-   * @param a vertex in the graph
-   * @return a boolean
+   * @return an iterator over the verticies in the order they are visited
    */
-  private boolean checkIfRootViaDegree(T vertex) {
+  public Iterator<T> depthFirstIterator() {
+    return new DepthFirstIterator<>(getIndex(), getRootIds());
+  }
 
-    int inDegree = 0;
-    int outDegree = 0;
+  /**
+   * This method gets a lazy stream of the verticies of a breadth-first search, so that operations
+   * such as limit stop the search early.
+   *
+   * @return a stream of the verticies in the order they are visited
+   */
+  public Stream<T> breadthFirstStream() {
+    return toStream(breadthFirstIterator());
+  }
 
-    // iterates through all edges of the graph
-    for (Edge<T> currentEdge : this.edges) {
+  /**
+   * This method gets a lazy stream of the verticies of a depth-first search, so that operations
+   * such as limit stop the search early.
+   *
+   * @return a stream of the verticies in the order they are visited
+   */
+  public Stream<T> depthFirstStream() {
+    return toStream(depthFirstIterator());
+  }
 
-      // counts the number of out degrees of this vertex
-      if (currentEdge.getSource() == vertex) {
-        outDegree++;
-      }
+  /**
+   * This method determines whether the input vertex is in the graph, returns true if so.
+   *
+   * @param vertex : a vertex
+   * @return a boolean
+   */
+  public boolean containsVertex(T vertex) {
+    return getIndex().getId(vertex) != -1;
+  }
 
-      // counts the number of in degrees of this vertex
-      if (currentEdge.getDestination() == vertex) {
-        inDegree++;
-      }
-    }
+  /**
+   * This method determines whether there is a path from the source vertex to the target vertex
+   * using the reachability index, returns true if so. Every vertex can reach itself.
+   *
+   * @param source : the vertex the path starts from
+   * @param target : the vertex the path ends at
+   * @return a boolean
+   */
+  public boolean isReachable(T source, T target) {
+    AdjacencyIndex<T> index = getIndex();
+    return getReachabilityIndex().isReachable(index.getId(source), index.getId(target));
+  }
 
-    if (inDegree == 0 && outDegree > 0) {
-      return true;
+  /**
+   * This method finds a shortest path from the source vertex to the target vertex, measured in
+   * edges, with a bidirectional breadth-first search.
+   *
+   * @param source : the vertex the path starts from
+   * @param target : the vertex the path ends at
+   * @return a list of the verticies along the path, or an empty list if there is no path
+   */
+  public List<T> getShortestPath(T source, T target) {
+
+    List<T> path = new ArrayList<>();
+
+    // converts the ids along the path back into verticies
+    for (int id : getShortestPathIds(getIndex().getId(source), getIndex().getId(target))) {
+      path.add(getIndex().getVertex(id));
     }
 
-    return false;
+    return path;
   }
 
   /**
-   * This method determines whether the graph is reflexive, returns true if so.
+   * This method finds the number of edges on a shortest path from the source vertex to every vertex
+   * of the graph, in ascending vertex order.
    *
-   * @return boolean
+   * @param source : the vertex the paths start from
+   * @return a map from each vertex to its distance, which is -1 if the vertex cannot be reached
    */
-  private boolean checkIfReflexive() {
+  public Map<T, Integer> getDistances(T source) {
 
-    boolean reflexiveCase = false;
+    int[] distances = getDistancesInOrder(getIndex().getId(source));
 
-    // iterates through all verticies of the graph
-    for (T currentVertex : this.verticies) {
+    // pairs each vertex with its distance, keeping the vertex order
+    Map<T, Integer> distanceMap = new LinkedHashMap<>();
+    for (int rank = 0; rank < distances.length; rank++) {
+      distanceMap.put(getVertexAtRank(rank), distances[rank]);
+    }
 
-      // iterates through all edges of the graph
-      for (Edge<T> currentEdge : this.edges) {
+    return distanceMap;
+  }
 
-        // checks if the current vertex has a destination to itself
-        if ((currentEdge.getSource() == currentVertex)
-            && (currentEdge.getSource() == currentEdge.getDestination())) {
-          reflexiveCase = true;
+  /**
+   * This method finds the verticies reachable from each root vertex of the graph and the number of
+   * edges on a shortest path to each, searching from every root at once.
+   *
+   * @return a map from each root, in ascending numerical order, to a map from each vertex it
+   *     reaches to its distance, in ascending vertex order
+   */
+  public Map<T, Map<T, Integer>> getRootDistances() {
+
+    int[] rootIds = getRootIds();
+    int[][] distances = getRootDistancesInOrder(rootIds);
+
+    // pairs each root with the verticies it reaches, keeping the vertex order
+    Map<T, Map<T, Integer>> rootDistances = new LinkedHashMap<>();
+    for (int r = 0; r < rootIds.length; r++) {
+      Map<T, Integer> distanceMap = new LinkedHashMap<>();
+      for (int rank = 0; rank < distances[r].length; rank++) {
+        if (distances[r][rank] != -1) {
+          distanceMap.put(getVertexAtRank(rank), distances[r][rank]);
         }
       }
-
-      // returns false if any vertex is not reflexive
-      if (!reflexiveCase) {
-        return false;
-      }
-      reflexiveCase = false;
+      rootDistances.put(getIndex().getVertex(rootIds[r]), distanceMap);
     }
 
-    return true;
+    return rootDistances;
   }
 
   /**
-   * This method determines whether the graph is symmetric, returns true if so.
+   * This method finds the number of edges on a shortest path from the nearest root vertex to every
+   * vertex, computing every vertex in parallel supersteps.
    *
-   * @return boolean
+   * @return a map from each vertex, in ascending vertex order, to its level, which is -1 if no root
+   *     reaches the vertex
    */
-  private boolean checkIfSymmetric() {
+  public Map<T, Integer> getRootLevels() {
 
-    boolean symmetricCase = false;
+    int[] levels = getRootLevelsInOrder();
 
-    // iterates through all edges of the graph using a nested loop
-    for (Edge<T> currentEdge : this.edges) {
-      for (Edge<T> nextEdge : this.edges) {
-
-        // checks if the current edge has a symmetric edge in the graph
-        if ((currentEdge.getDestination() == nextEdge.getSource())
-            && (currentEdge.getSource() == nextEdge.getDestination())) {
-          symmetricCase = true;
-        }
-      }
-
-      // returns false if any edge does not have a symmetric edge counterpart
-      if (!symmetricCase) {
-        return false;
-      }
-      symmetricCase = false;
+    // pairs each vertex with its level, keeping the vertex order
+    Map<T, Integer> levelMap = new LinkedHashMap<>();
+    for (int rank = 0; rank < levels.length; rank++) {
+      levelMap.put(getVertexAtRank(rank), levels[rank]);
     }
-    return true;
+
+    return levelMap;
   }
 
   /**
-   * This method determines whether the graph is transitive, returns true if so.
+   * This method runs a vertex program at every vertex of the graph in supersteps, computing the
+   * verticies in parallel when the storage can be read by several threads at once.
    *
-   * @return boolean
+   * @param program : the program to compute at each vertex
+   * @param initialValues : the value of each vertex before the first superstep, where verticies
+   *     that are missing start at 0
+   * @param maxSupersteps : the maximum number of supersteps to run
+   * @return a map from each vertex, in ascending vertex order, to its value once the program has
+   *     finished
    */
-  private boolean checkIfTransitive() {
-
-    boolean transitiveCase;
+  public Map<T, Long> runVertexProgram(
+      VertexProgram program, Map<T, Long> initialValues, int maxSupersteps) {
+
+    // places each value at the position of its vertex in vertex order
+    long[] values = new long[getIndex().size()];
+    for (int rank = 0; rank < values.length; rank++) {
+      Long value = initialValues.get(getVertexAtRank(rank));
+      values[rank] = value == null ? 0 : value;
+    }
 
-    // iterates through all edges of the graph using a nested loop
-    for (Edge<T> firstEdge : this.edges) {
-      for (Edge<T> secondEdge : this.edges) {
+    values = runVertexProgram(program, values, maxSupersteps);
 
-        // checks if the first edge ends where the second edge starts
-        if (firstEdge.getDestination() == secondEdge.getSource()) {
-          transitiveCase = false;
+    // pairs each vertex with its value, keeping the vertex order
+    Map<T, Long> valueMap = new LinkedHashMap<>();
+    for (int rank = 0; rank < values.length; rank++) {
+      valueMap.put(getVertexAtRank(rank), values[rank]);
+    }
 
-          // iterates through all edges of the graph
-          for (Edge<T> thirdEdge : this.edges) {
+    return valueMap;
+  }
 
-            // checks if there is another edge that starts where the first edge starts and
-            // ends where the second edge ends
-            if ((firstEdge.getSource() == thirdEdge.getSource())
-                && (secondEdge.getDestination() == thirdEdge.getDestination())) {
-              transitiveCase = true;
-              break;
-            }
-          }
+  /**
+   * This method collapses every class of mutually reachable verticies into its smallest member and
+   * keeps only the edges between different classes. In an equivalence relation these classes are
+   * the equivalence classes, so each class becomes the same representative that getRoots reports.
+   * The quotient is stored on the Java heap.
+   *
+   * @return the quotient graph
+   */
+  public Graph<T> quotient() {
 
-          // returns false if there is no transitive edge
-          if (!transitiveCase) {
+    // the smallest member of each class is its representative
+    List<T> representativeVerticies = new ArrayList<>();
+    for (int id : getQuotientRepresentatives()) {
+      representativeVerticies.add(getIndex().getVertex(id));
+    }
 
-            return false;
-          }
-        }
-      }
+    // maps every edge between two classes onto their representatives
+    List<Edge<T>> quotientEdges = new ArrayList<>();
+    for (long edge : getQuotientEdges()) {
+      quotientEdges.add(
+          new Edge<>(
+              representativeVerticies.get(PackedEdgeSet.getSource(edge)),
+              representativeVerticies.get(PackedEdgeSet.getTarget(edge))));
     }
-    return true;
+
+    // edges that join the same two classes are dropped as duplicates by the index
+    return new Graph<>(new HashSet<>(representativeVerticies), quotientEdges);
   }
 
   /**
-   * This method determines whether the graph is anti-symmetric, returns true if so.
+   * This method gets every vertex of the graph, in ascending numerical order.
    *
-   * @return boolean
+   * @return the verticies of the graph
    */
-  private boolean checkIfAntiSymmetric() {
-
-    boolean antiSymmetricCase = true;
+  public Set<T> getVerticies() {
 
-    // itereates through all edges of the graph using a nested loop
-    for (Edge<T> currentEdge : this.edges) {
-      for (Edge<T> nextEdge : this.edges) {
+    Set<T> verticies = new TreeSet<>(getNumericalComparator());
+    for (int id = 0; id < getIndex().size(); id++) {
+      verticies.add(getIndex().getVertex(id));
+    }
 
-        // checks if there are two edges in the graph that are symmetric and not reflexive
-        if ((currentEdge.getSource() == nextEdge.getDestination())
-            && (currentEdge.getDestination() == nextEdge.getSource())
-            && (currentEdge.getSource() != currentEdge.getDestination())) {
-          antiSymmetricCase = false;
-        }
-      }
+    return verticies;
+  }
 
-      // returns false if any edge does not have an anti-symmetric edge counterpart
-      if (!antiSymmetricCase) {
-        return false;
+  /**
+   * This method gets every distinct edge of the graph, ordered by source and then by destination
+   * in ascending numerical order.
+   *
+   * @return a list of the edges of the graph
+   */
+  public List<Edge<T>> getEdges() {
+
+    AdjacencyIndex<T> index = getIndex();
+    List<Edge<T>> edges = new ArrayList<>(index.edgeCount());
+    for (int rank = 0; rank < index.size(); rank++) {
+      int source = index.getIdAtRank(rank);
+      for (int i = 0; i < index.getOutDegree(source); i++) {
+        edges.add(
+            new Edge<>(index.getVertex(source), index.getVertex(index.getOutNeighbour(source, i))));
       }
-      antiSymmetricCase = true;
     }
 
-    return true;
+    return edges;
   }
 
   /**
-   * This method determines whether the graph is an equivalence relation, returns true if so.
+   * This method adds and removes edges between verticies already in the graph, rewriting only the
+   * adjacency of the verticies they touch. The reachability index is kept when the changes cannot
+   * change which verticies reach each other, and is otherwise built again on its next use.
    *
-   * @return boolean
+   * @param addedEdges : the edges to add, which are ignored if already in the graph
+   * @param removedEdges : the edges to remove, which are ignored if not in the graph
    */
-  private boolean checkIfEquivalence() {
+  public void applyChanges(Collection<Edge<T>> addedEdges, Collection<Edge<T>> removedEdges) {
+    applyPackedChanges(toPackedIds(addedEdges), toPackedIds(removedEdges));
+  }
 
-    // checks if the graph is equivalence by checking its reflexive, symmetric and transitive
-    // properties
-    return checkIfReflexive() && checkIfSymmetric() && checkIfTransitive() ? true : false;
+  /**
+   * This method compares two verticies in their natural order, which for strings is the order of
+   * String.compareTo.
+   *
+   * @param firstId : the id of the first vertex
+   * @param secondId : the id of the second vertex
+   * @return a negative number, zero or a positive number as the first vertex is less than, equal to
+   *     or greater than the second vertex
+   */
+  @Override
+  protected int compareVerticies(int firstId, int secondId) {
+    return getIndex().getVertex(firstId).compareTo(getIndex().getVertex(secondId));
   }
 
+  // private methods
+
   /**
-   * This method determines whether the input vertex is the smallest of it's equivalence class,
-   * returns true if so.
+   * This method gets the vertex at the input position in vertex order.
    *
-   * @param a vertex of the graph
-   * @return a boolean
+   * @param rank : the position of a vertex in vertex order
+   * @return the vertex
    */
-  private boolean checkSmallestEquivalence(T vertex) {
+  private T getVertexAtRank(int rank) {
+    return getIndex().getVertex(getIndex().getIdAtRank(rank));
+  }
 
-    // checks if the input vertex is the smallest of it's equivalence class
-    for (T equivalenceMember : getEquivalenceClass(vertex)) {
-      if (vertex.compareTo(equivalenceMember) > 0) {
-        return false;
-      }
-    }
+  /**
+   * This method wraps a traversal iterator in a sequential stream.
+   *
+   * @param iterator : an iterator that produces each vertex once
+   * @return a stream of the verticies of the iterator
+   */
+  private Stream<T> toStream(Iterator<T> iterator) {
+    int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(iterator, characteristics), false);
+  }
 
-    return true;
+  /**
+   * This method converts each edge into the packed ids of its verticies.
+   *
+   * @param edges : edges between verticies of the graph
+   * @return the packed edges
+   */
+  private long[] toPackedIds(Collection<Edge<T>> edges) {
+    long[] packed = new long[edges.size()];
+    int i = 0;
+    for (Edge<T> edge : edges) {
+      packed[i++] =
+          packChangedEdge(
+              getIndex().getId(edge.getSource()), getIndex().getId(edge.getDestination()));
+    }
+    return packed;
   }
 
   /**
@@ -477,23 +596,15 @@ public class Graph<T extends Comparable<T>> {
    */
   private List<T> getAdjacentVerticiesAscendingOrder(T vertex) {
 
+    AdjacencyIndex<T> index = getIndex();
     List<T> adjacentVerticies = new ArrayList<>();
+    int id = index.getId(vertex);
 
-    // initialises a tree set with the getNumericalComparator to ensure any integers added
-    // to the set are sorted in ascending numerical order
-    TreeSet<T> sortedAdjacentVerticies = new TreeSet<>(getNumericalComparator());
-
-    // iterates through all edges of the graph
-    for (Edge<T> currentEdge : this.edges) {
-
-      // adds all edges that start from this vertex to the tree set
-      if (currentEdge.getSource().equals(vertex)) {
-        sortedAdjacentVerticies.add(currentEdge.getDestination());
-      }
+    // the neighbours in the index are already sorted in ascending numerical order
+    for (int i = 0; i < index.getOutDegree(id); i++) {
+      adjacentVerticies.add(index.getVertex(index.getOutNeighbour(id, i)));
     }
 
-    // adds all the values from the tree set into the list
-    adjacentVerticies.addAll(sortedAdjacentVerticies);
     return adjacentVerticies;
   }
 
@@ -505,46 +616,47 @@ public class Graph<T extends Comparable<T>> {
    * @return list of adjacent verticies
    */
   private List<T> getAdjacentVerticiesDescendingOrder(T vertex) {
-    List<T> adjacentVerticies = new ArrayList<>();
-
-    // initialises a tree set with the getNumericalComparator to ensure any integers added
-    // to the set are sorted in descending numerical order
-    TreeSet<T> sortedAdjacentVerticies = new TreeSet<>(getReverseNumericalComparator());
 
-    // iterates through all edges of the graph
-    for (Edge<T> currentEdge : this.edges) {
+    AdjacencyIndex<T> index = getIndex();
+    List<T> adjacentVerticies = new ArrayList<>();
+    int id = index.getId(vertex);
 
-      // adds all edges that start from this vertex to the tree set
-      if (currentEdge.getSource().equals(vertex)) {
-        sortedAdjacentVerticies.add(currentEdge.getDestination());
-      }
+    // reads the ascending neighbours in the index backwards
+    for (int i = index.getOutDegree(id) - 1; i >= 0; i--) {
+      adjacentVerticies.add(index.getVertex(index.getOutNeighbour(id, i)));
     }
 
-    // adds all the values from the tree set into the list
-    adjacentVerticies.addAll(sortedAdjacentVerticies);
     return adjacentVerticies;
   }
 
   /**
-   * Returns a numerical comparator for elements of type T. The comparator compares the elements in
-   * ascending numerical order. If the elements are of type String, their integer values are
-   * compared. Otherwise, the default string representation of the elements is used for comparison.
+   * Returns a numerical comparator for elements of type T. Strings that are the decimal string of
+   * an integer are compared by their integer values, and come before every other string, which are
+   * compared as strings. This keeps the order total, so verticies such as "08" or "1.5" can still
+   * be ordered, and "08" stays a different vertex from "8". Elements that are not strings are
+   * compared by their default string representation.
    *
    * @return a numerical comparator for elements of type T
    */
-  private Comparator<T> getNumericalComparator() {
+  private static <T> Comparator<T> getNumericalComparator() {
     return new Comparator<T>() {
       @Override
       public int compare(T o1, T o2) {
 
         // ensures both inputs are strings
         if (o1 instanceof String && o2 instanceof String) {
-
-          // casting both objects to strings to compare their integer values and sort
-          // them in ascending numerical order
           String s1 = (String) o1;
           String s2 = (String) o2;
-          return Integer.compare(Integer.parseInt(s1), Integer.parseInt(s2));
+          boolean integer1 = IntGraph.isIntegerVertex(s1);
+          boolean integer2 = IntGraph.isIntegerVertex(s2);
+
+          // compares integer values in ascending numerical order, and integers before other strings
+          if (integer1 && integer2) {
+            return Integer.compare(Integer.parseInt(s1), Integer.parseInt(s2));
+          } else if (integer1 != integer2) {
+            return integer1 ? -1 : 1;
+          }
+          return s1.compareTo(s2);
         }
 
         // compares the two inputs using default string representation
@@ -553,35 +665,6 @@ public class Graph<T extends Comparable<T>> {
     };
   }
 
-  /**
-   * Returns a reverse numerical comparator for elements of type T. The comparator compares the
-   * elements in descending numerical order. If the elements are of type String, their integer
-   * values are compared. Otherwise, the default string representation of the elements is used for
-   * comparison.
-   *
-   * @return a reverse numerical comparator for elements of type T
-   */
-  private Comparator<T> getReverseNumericalComparator() {
-    return new Comparator<T>() {
-      @Override
-      public int compare(T o1, T o2) {
-
-        // ensures both inputs are strings
-        if (o1 instanceof String && o2 instanceof String) {
-
-          // casting both objects to strings to compare their integer values and sort
-          // them in descending numerical order
-          String s1 = (String) o1;
-          String s2 = (String) o2;
-          return Integer.compare(Integer.parseInt(s2), Integer.parseInt(s1));
-        }
-
-        // compares the two inputs using default string representation
-        return o2.toString().compareTo(o1.toString());
-      }
-    };
-  }
-
   /**
    * Performs a recursive breadth-first traversal on the graph using a queue and returns a list of
    * visited vertices.
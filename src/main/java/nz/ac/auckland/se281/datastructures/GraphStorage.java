@@ -0,0 +1,29 @@
+package nz.ac.auckland.se281.datastructures;
+
+/** The places that the verticies and adjacency of a graph can be stored in. */
+public enum GraphStorage {
+  HEAP("on the Java heap"),
+  COMPRESSED("on the Java heap as compressed neighbour lists"),
+  OFF_HEAP("in direct memory outside the Java heap"),
+  MAPPED_FILE("in memory mapped temporary files");
+
+  private final String description;
+
+  /**
+   * Create a new storage option.
+   *
+   * @param description The description of where the graph is stored.
+   */
+  private GraphStorage(final String description) {
+    this.description = description;
+  }
+
+  /**
+   * Get the description of where the graph is stored.
+   *
+   * @return The description.
+   */
+  public String getDescription() {
+    return description;
+  }
+}
@@ -0,0 +1,129 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * The HeapAdjacencyStorage class stores the adjacency of a graph in compressed sparse row (CSR)
+ * arrays on the Java heap, and keeps the packed edge set for constant time membership tests. When
+ * the verticies have been relabelled, each row is sorted in vertex order rather than id order.
+ */
+public class HeapAdjacencyStorage implements AdjacencyStorage {
+
+  // instance variables
+  private PackedEdgeSet edges;
+  private int[] outOffsets;
+  private int[] outTargets;
+  private int[] inOffsets;
+  private int[] inSources;
+
+  // constructors
+  public HeapAdjacencyStorage(int size, PackedEdgeSet edges) {
+    this(size, edges, null);
+  }
+
+  public HeapAdjacencyStorage(int size, PackedEdgeSet edges, VertexRelabelling relabelling) {
+    this.edges = edges;
+
+    long[] sortedEdges = edges.toSortedArray();
+    this.outOffsets = new int[size + 1];
+    this.outTargets = PackedEdgeSet.toRows(sortedEdges, size, true, outOffsets);
+    this.inOffsets = new int[size + 1];
+    this.inSources = PackedEdgeSet.toRows(sortedEdges, size, false, inOffsets);
+
+    // keeps every neighbour list in vertex order, which relabelled ids no longer follow
+    if (relabelling != null) {
+      relabelling.sortRows(outOffsets, outTargets);
+      relabelling.sortRows(inOffsets, inSources);
+    }
+  }
+
+  /**
+   * This method gets the number of distinct edges in the storage.
+   *
+   * @return the number of edges
+   */
+  @Override
+  public int edgeCount() {
+    return outTargets.length;
+  }
+
+  /**
+   * This method gets the number of edges that start from the input vertex.
+   *
+   * @param id : the id of a vertex
+   * @return the out degree of the vertex
+   */
+  @Override
+  public int getOutDegree(int id) {
+    return outOffsets[id + 1] - outOffsets[id];
+  }
+
+  /**
+   * This method gets the i-th vertex adjacent to the input vertex, in ascending order.
+   *
+   * @param id : the id of a vertex
+   * @param i : the position of the neighbour, from 0 up to the out degree
+   * @return the id of the neighbour
+   */
+  @Override
+  public int getOutNeighbour(int id, int i) {
+    return outTargets[outOffsets[id] + i];
+  }
+
+  /**
+   * This method gets the number of edges that end at the input vertex.
+   *
+   * @param id : the id of a vertex
+   * @return the in degree of the vertex
+   */
+  @Override
+  public int getInDegree(int id) {
+    return inOffsets[id + 1] - inOffsets[id];
+  }
+
+  /**
+   * This method gets the i-th vertex with an edge to the input vertex, in ascending order.
+   *
+   * @param id : the id of a vertex
+   * @param i : the position of the neighbour, from 0 up to the in degree
+   * @return the id of the neighbour
+   */
+  @Override
+  public int getInNeighbour(int id, int i) {
+    return inSources[inOffsets[id] + i];
+  }
+
+  /**
+   * This method determines whether there is an edge from the source vertex to the target vertex,
+   * returns true if so.
+   *
+   * @param source : the id of the source vertex
+   * @param target : the id of the target vertex
+   * @return a boolean
+   */
+  @Override
+  public boolean hasEdge(int source, int target) {
+    return edges.contains(source, target);
+  }
+
+  /**
+   * This method estimates the number of bytes used by the storage.
+   *
+   * @return the estimated size in bytes
+   */
+  @Override
+  public long estimateSizeInBytes() {
+    long adjacency =
+        4L * (outOffsets.length + outTargets.length + inOffsets.length + inSources.length);
+    return adjacency + edges.estimateSizeInBytes();
+  }
+
+  /**
+   * This method determines whether several threads can read the storage at once, returns true if
+   * so.
+   *
+   * @return a boolean
+   */
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+}
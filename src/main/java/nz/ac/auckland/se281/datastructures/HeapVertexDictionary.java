@@ -0,0 +1,72 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The HeapVertexDictionary class keeps the verticies of a graph in a list indexed by id, with a
+ * hash map from each vertex back to its id.
+ *
+ * @param <T> The type of each vertex.
+ */
+public class HeapVertexDictionary<T> implements VertexDictionary<T> {
+
+  // instance variables
+  private List<T> verticies;
+  private Map<T, Integer> ids;
+
+  // constructor
+  public HeapVertexDictionary(List<T> verticies) {
+    this.verticies = verticies;
+    this.ids = new HashMap<>();
+    for (int id = 0; id < verticies.size(); id++) {
+      this.ids.put(verticies.get(id), id);
+    }
+  }
+
+  /**
+   * This method gets the number of verticies in the dictionary.
+   *
+   * @return the number of verticies
+   */
+  @Override
+  public int size() {
+    return verticies.size();
+  }
+
+  /**
+   * This method gets the id of the input vertex, or -1 if the vertex is not in the dictionary.
+   *
+   * @param vertex : a vertex
+   * @return the id of the vertex
+   */
+  @Override
+  public int getId(T vertex) {
+    Integer id = ids.get(vertex);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * This method gets the vertex with the input id.
+   *
+   * @param id : the id of a vertex
+   * @return the vertex
+   */
+  @Override
+  public T getVertex(int id) {
+    return verticies.get(id);
+  }
+
+  /**
+   * This method estimates the number of bytes used by the dictionary.
+   *
+   * @return the estimated size in bytes
+   */
+  @Override
+  public long estimateSizeInBytes() {
+
+    // a reference in the list, plus a hash map entry and a boxed id for each vertex
+    return 4L * verticies.size() + 48L * ids.size();
+  }
+}
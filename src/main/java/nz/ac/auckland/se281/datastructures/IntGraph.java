@@ -0,0 +1,417 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A graph whose verticies are integers, specialised so that verticies are never boxed. It gives
+ * the same results as a Graph of the decimal strings of its verticies, so verticies are ordered
+ * numerically, except where Graph compares the strings themselves, such as when choosing the
+ * smallest member of an equivalence class. The algorithms are shared with Graph and work on ids,
+ * which follow ascending numerical order, and the results are returned as arrays of verticies.
+ */
+public class IntGraph extends AbstractGraph<Integer> {
+
+  // instance variables
+  private IntVertexDictionary dictionary;
+
+  // constructors
+  public IntGraph(int[] verticies, int[] sources, int[] destinations) {
+    this(new IntVertexDictionary(verticies), sources, destinations);
+  }
+
+  private IntGraph(IntVertexDictionary dictionary, int[] sources, int[] destinations) {
+    super(
+        new AdjacencyIndex<>(
+            dictionary,
+            new HeapAdjacencyStorage(
+                dictionary.size(), toEdgeSet(dictionary, sources, destinations))));
+    this.dictionary = dictionary;
+  }
+
+  /**
+   * This method determines whether the input vertex is the decimal string of an integer, so that
+   * converting it to an integer and back gives the same string, returns true if so.
+   *
+   * @param vertex : a vertex
+   * @return a boolean
+   */
+  public static boolean isIntegerVertex(String vertex) {
+    try {
+      return Integer.toString(Integer.parseInt(vertex)).equals(vertex);
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  /**
+   * This method determines the root verticies of the graph and returns it.
+   *
+   * @return the root verticies of the graph in ascending numerical order
+   */
+  public int[] getRoots() {
+    return toVerticies(getRootIds());
+  }
+
+  /**
+   * This method gets the number of edges that start from the input vertex, from the offsets of the
+   * adjacency rather than by scanning the edges.
+   *
+   * @param vertex : a vertex in the graph
+   * @return the out degree of the vertex
+   */
+  public int outDegree(int vertex) {
+    return getIndex().getOutDegree(dictionary.getIdOf(vertex));
+  }
+
+  /**
+   * This method gets the number of edges that end at the input vertex, from the offsets of the
+   * reverse adjacency rather than by scanning the edges.
+   *
+   * @param vertex : a vertex in the graph
+   * @return the in degree of the vertex
+   */
+  public int inDegree(int vertex) {
+    return getIndex().getInDegree(dictionary.getIdOf(vertex));
+  }
+
+  /**
+   * This method determines the equivalence class with the given vertex and returns it.
+   *
+   * @param vertex : a vertex in the graph
+   * @return the verticies of the equivalence class in ascending numerical order, or an empty array
+   *     if the graph is not an equivalence relation or does not contain the vertex
+   */
+  public int[] getEquivalenceClass(int vertex) {
+    return toVerticies(getEquivalenceClassIds(dictionary.getIdOf(vertex)));
+  }
+
+  /**
+   * This method determines the equivalence classes of many verticies at once, checking that the
+   * graph is an equivalence relation only once. Verticies in the same class share the same array.
+   *
+   * @param verticies : the verticies to find the classes of
+   * @return the equivalence class of each vertex in ascending numerical order, which is empty if
+   *     the vertex is not in the graph or the graph is not an equivalence relation
+   */
+  public int[][] getEquivalenceClasses(int[] verticies) {
+
+    int[] ids = new int[verticies.length];
+    for (int v = 0; v < ids.length; v++) {
+      ids[v] = dictionary.getIdOf(verticies[v]);
+    }
+
+    // verticies in the same class share the same array of ids, so each class is converted once
+    int[][] equivalenceClasses = getEquivalenceClassIds(ids);
+    Map<int[], int[]> classes = new IdentityHashMap<>();
+    for (int v = 0; v < equivalenceClasses.length; v++) {
+      int[] classIds = equivalenceClasses[v];
+      int[] equivalenceClass = classes.get(classIds);
+      if (equivalenceClass == null) {
+        equivalenceClass = toVerticies(classIds);
+        classes.put(classIds, equivalenceClass);
+      }
+      equivalenceClasses[v] = equivalenceClass;
+    }
+
+    return equivalenceClasses;
+  }
+
+  /**
+   * Performs an iterative breadth-first search traversal on the graph and returns the visited
+   * vertices, in the same order as the breadth-first searches of Graph.
+   *
+   * @return the visited vertices in the order they were visited
+   */
+  public int[] iterativeBreadthFirstSearch() {
+    return breadthFirstSearch(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Performs an iterative depth-first search traversal on the graph and returns the visited
+   * vertices, in the same order as the depth-first searches of Graph.
+   *
+   * @return the visited vertices in the order they were visited
+   */
+  public int[] iterativeDepthFirstSearch() {
+    return depthFirstSearch(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Performs a breadth-first search traversal on the graph that stops once enough vertices have
+   * been visited. Each vertex is queued at most once.
+   *
+   * @param limit : the maximum number of vertices to visit
+   * @return the visited vertices in the order they were visited
+   */
+  public int[] breadthFirstSearch(int limit) {
+    return toVerticies(breadthFirstSearchIds(limit));
+  }
+
+  /**
+   * Performs a depth-first search traversal on the graph that stops once enough vertices have been
+   * visited. The smallest unvisited adjacent vertex is always visited next.
+   *
+   * @param limit : the maximum number of vertices to visit
+   * @return the visited vertices in the order they were visited
+   */
+  public int[] depthFirstSearch(int limit) {
+    return toVerticies(depthFirstSearchIds(limit));
+  }
+
+  /**
+   * This method determines whether the input vertex is in the graph, returns true if so.
+   *
+   * @param vertex : a vertex
+   * @return a boolean
+   */
+  public boolean containsVertex(int vertex) {
+    return dictionary.getIdOf(vertex) != -1;
+  }
+
+  /**
+   * This method determines whether there is a path from the source vertex to the target vertex
+   * using the reachability index, returns true if so. Every vertex can reach itself.
+   *
+   * @param source : the vertex the path starts from
+   * @param target : the vertex the path ends at
+   * @return a boolean
+   */
+  public boolean isReachable(int source, int target) {
+    return getReachabilityIndex()
+        .isReachable(dictionary.getIdOf(source), dictionary.getIdOf(target));
+  }
+
+  /**
+   * This method finds a shortest path from the source vertex to the target vertex, measured in
+   * edges, with a bidirectional breadth-first search.
+   *
+   * @param source : the vertex the path starts from
+   * @param target : the vertex the path ends at
+   * @return the verticies along the path, or an empty array if there is no path
+   */
+  public int[] getShortestPath(int source, int target) {
+    return toVerticies(
+        getShortestPathIds(dictionary.getIdOf(source), dictionary.getIdOf(target)));
+  }
+
+  /**
+   * This method finds the number of edges on a shortest path from the source vertex to every vertex
+   * of the graph.
+   *
+   * @param source : the vertex the paths start from
+   * @return the distance to each vertex in the order of getVerticies, which is -1 if the vertex
+   *     cannot be reached
+   */
+  public int[] getDistances(int source) {
+    return getDistancesInOrder(dictionary.getIdOf(source));
+  }
+
+  /**
+   * This method finds the number of edges on a shortest path from each root vertex of the graph to
+   * every vertex, searching from every root at once.
+   *
+   * @return the distances from each root in the order of getRoots, to each vertex in the order of
+   *     getVerticies, which are -1 for verticies that cannot be reached
+   */
+  public int[][] getRootDistances() {
+    return getRootDistancesInOrder(getRootIds());
+  }
+
+  /**
+   * This method finds the number of edges on a shortest path from the nearest root vertex to every
+   * vertex, computing every vertex in parallel supersteps.
+   *
+   * @return the level of each vertex in the order of getVerticies, which is -1 for verticies that
+   *     no root reaches
+   */
+  public int[] getRootLevels() {
+    return getRootLevelsInOrder();
+  }
+
+  /**
+   * This method collapses every class of mutually reachable verticies into its smallest member,
+   * comparing the verticies as strings like Graph does, and keeps only the edges between different
+   * classes.
+   *
+   * @return the quotient graph
+   */
+  public IntGraph quotient() {
+
+    // the smallest member of each class is its representative
+    int[] representative = toVerticies(getQuotientRepresentatives());
+
+    // maps every edge between two classes onto their representatives
+    long[] edges = getQuotientEdges();
+    int[] sources = new int[edges.length];
+    int[] destinations = new int[edges.length];
+    for (int i = 0; i < edges.length; i++) {
+      sources[i] = representative[PackedEdgeSet.getSource(edges[i])];
+      destinations[i] = representative[PackedEdgeSet.getTarget(edges[i])];
+    }
+
+    // edges that join the same two classes are dropped as duplicates by the index
+    return new IntGraph(representative, sources, destinations);
+  }
+
+  /**
+   * This method gets every vertex of the graph.
+   *
+   * @return the verticies of the graph in ascending numerical order
+   */
+  public int[] getVerticies() {
+
+    int[] ids = new int[getIndex().size()];
+    for (int id = 0; id < ids.length; id++) {
+      ids[id] = id;
+    }
+
+    return toVerticies(ids);
+  }
+
+  /**
+   * This method gets every distinct edge of the graph, ordered by source and then by destination
+   * in ascending numerical order.
+   *
+   * @return the edges of the graph, each as a pair of its source and destination
+   */
+  public int[][] getEdges() {
+
+    AdjacencyIndex<Integer> index = getIndex();
+    int[][] edges = new int[index.edgeCount()][];
+    int count = 0;
+    for (int source = 0; source < index.size(); source++) {
+      for (int i = 0; i < index.getOutDegree(source); i++) {
+        int destination = index.getOutNeighbour(source, i);
+        edges[count++] =
+            new int[] {dictionary.getValue(source), dictionary.getValue(destination)};
+      }
+    }
+
+    return edges;
+  }
+
+  /**
+   * This method adds and removes edges between verticies already in the graph, rewriting only the
+   * adjacency of the verticies they touch. The reachability index is kept when the changes cannot
+   * change which verticies reach each other, and is otherwise built again on its next use.
+   *
+   * @param addedEdges : the edges to add, each as a pair of its source and destination
+   * @param removedEdges : the edges to remove, each as a pair of its source and destination
+   */
+  public void applyChanges(int[][] addedEdges, int[][] removedEdges) {
+    applyPackedChanges(toPackedIds(addedEdges), toPackedIds(removedEdges));
+  }
+
+  /**
+   * This method compares two verticies as decimal strings, the order Graph uses for its verticies.
+   *
+   * @param firstId : the id of the first vertex
+   * @param secondId : the id of the second vertex
+   * @return a negative number, zero or a positive number as the first vertex is less than, equal to
+   *     or greater than the second vertex
+   */
+  @Override
+  protected int compareVerticies(int firstId, int secondId) {
+    return compareAsStrings(dictionary.getValue(firstId), dictionary.getValue(secondId));
+  }
+
+  // private methods
+
+  /**
+   * This method converts each edge into a pair of ids, dropping duplicate edges.
+   *
+   * @param dictionary : the ids of the verticies
+   * @param sources : the source of each edge
+   * @param destinations : the destination of each edge
+   * @return the distinct edges as packed pairs of ids
+   */
+  private static PackedEdgeSet toEdgeSet(
+      IntVertexDictionary dictionary, int[] sources, int[] destinations) {
+    PackedEdgeSet edges = new PackedEdgeSet(sources.length);
+    for (int i = 0; i < sources.length; i++) {
+      edges.add(dictionary.getIdOf(sources[i]), dictionary.getIdOf(destinations[i]));
+    }
+    return edges;
+  }
+
+  /**
+   * This method converts ids into the verticies they stand for.
+   *
+   * @param ids : ids of verticies of the graph
+   * @return the verticies in the same order as the ids
+   */
+  private int[] toVerticies(int[] ids) {
+    int[] verticies = new int[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      verticies[i] = dictionary.getValue(ids[i]);
+    }
+    return verticies;
+  }
+
+  /**
+   * This method converts each edge into the packed ids of its verticies.
+   *
+   * @param edges : edges between verticies of the graph, each as a pair of integers
+   * @return the packed edges
+   */
+  private long[] toPackedIds(int[][] edges) {
+    long[] packed = new long[edges.length];
+    for (int i = 0; i < edges.length; i++) {
+      packed[i] = packChangedEdge(dictionary.getIdOf(edges[i][0]), dictionary.getIdOf(edges[i][1]));
+    }
+    return packed;
+  }
+
+  /**
+   * This method compares the decimal strings of two integers in the order of String.compareTo,
+   * without creating the strings.
+   *
+   * @param first : the first integer
+   * @param second : the second integer
+   * @return a negative number, zero or a positive number as the first string is less than, equal to
+   *     or greater than the second string
+   */
+  static int compareAsStrings(int first, int second) {
+
+    // a minus sign comes before every digit
+    if ((first < 0) != (second < 0)) {
+      return first < 0 ? -1 : 1;
+    }
+
+    long firstDigits = Math.abs((long) first);
+    long secondDigits = Math.abs((long) second);
+    int firstLength = countDigits(firstDigits);
+    int secondLength = countDigits(secondDigits);
+
+    // pads the shorter number with zeros so the digits line up, a prefix sorts before the rest
+    long firstPadded = firstDigits;
+    long secondPadded = secondDigits;
+    for (int i = firstLength; i < secondLength; i++) {
+      firstPadded *= 10;
+    }
+    for (int i = secondLength; i < firstLength; i++) {
+      secondPadded *= 10;
+    }
+
+    if (firstPadded != secondPadded) {
+      return Long.compare(firstPadded, secondPadded);
+    }
+    return Integer.compare(firstLength, secondLength);
+  }
+
+  /**
+   * This method counts the decimal digits of a number that is not negative.
+   *
+   * @param value : a number that is not negative
+   * @return the number of digits
+   */
+  private static int countDigits(long value) {
+    int length = 1;
+    while (value >= 10) {
+      value /= 10;
+      length++;
+    }
+    return length;
+  }
+}
@@ -0,0 +1,93 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * The IntVertexDictionary class keeps integer verticies in a sorted array, so the id of a vertex
+ * is its position in ascending numerical order and is found by binary search. The primitive
+ * methods avoid boxing the verticies.
+ */
+public class IntVertexDictionary implements VertexDictionary<Integer> {
+
+  // instance variables
+  private int[] values;
+
+  // constructor
+  public IntVertexDictionary(int[] verticies) {
+
+    // sorts a copy of the verticies and drops repeated verticies
+    int[] sorted = verticies.clone();
+    Arrays.sort(sorted);
+    int size = 0;
+    for (int i = 0; i < sorted.length; i++) {
+      if (size == 0 || sorted[size - 1] != sorted[i]) {
+        sorted[size++] = sorted[i];
+      }
+    }
+    this.values = Arrays.copyOf(sorted, size);
+  }
+
+  /**
+   * This method gets the number of verticies in the dictionary.
+   *
+   * @return the number of verticies
+   */
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  /**
+   * This method gets the id of the input vertex, or -1 if the vertex is not in the dictionary.
+   *
+   * @param vertex : a vertex
+   * @return the id of the vertex
+   */
+  @Override
+  public int getId(Integer vertex) {
+    return getIdOf(vertex);
+  }
+
+  /**
+   * This method gets the vertex with the input id.
+   *
+   * @param id : the id of a vertex
+   * @return the vertex
+   */
+  @Override
+  public Integer getVertex(int id) {
+    return values[id];
+  }
+
+  /**
+   * This method gets the id of the input vertex without boxing it, or -1 if the vertex is not in
+   * the dictionary.
+   *
+   * @param vertex : a vertex
+   * @return the id of the vertex
+   */
+  public int getIdOf(int vertex) {
+    int id = Arrays.binarySearch(values, vertex);
+    return id < 0 ? -1 : id;
+  }
+
+  /**
+   * This method gets the vertex with the input id without boxing it.
+   *
+   * @param id : the id of a vertex
+   * @return the vertex
+   */
+  public int getValue(int id) {
+    return values[id];
+  }
+
+  /**
+   * This method estimates the number of bytes used by the dictionary.
+   *
+   * @return the estimated size in bytes
+   */
+  @Override
+  public long estimateSizeInBytes() {
+    return 4L * values.length;
+  }
+}
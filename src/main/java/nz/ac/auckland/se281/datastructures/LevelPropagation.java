@@ -0,0 +1,45 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * The LevelPropagation class is a vertex program that finds the number of edges on a shortest path
+ * from the nearest of a set of starting verticies to every vertex. The value of a vertex is the
+ * shortest level found so far, which starts at 0 for the starting verticies and at UNREACHED for
+ * every other vertex. Messages carry a level, and only the smallest message to a vertex is kept.
+ */
+public class LevelPropagation implements VertexProgram {
+
+  public static final long UNREACHED = Long.MAX_VALUE;
+
+  /**
+   * This method keeps the smaller of two levels sent to the same vertex.
+   *
+   * @param first : a level sent to the vertex
+   * @param second : another level sent to the vertex
+   * @return the smaller level
+   */
+  @Override
+  public long combine(long first, long second) {
+    return Math.min(first, second);
+  }
+
+  /**
+   * This method lowers the level of a vertex to a smaller level sent to it, and then tells its
+   * neighbours that they are one level further. Starting verticies tell their neighbours in the
+   * first superstep.
+   *
+   * @param context : the vertex being computed
+   */
+  @Override
+  public void compute(VertexContext context) {
+
+    boolean lowered = context.hasMessage() && context.getMessage() < context.getValue();
+    if (lowered) {
+      context.setValue(context.getMessage());
+    }
+
+    if (lowered || (context.getSuperstep() == 0 && context.getValue() != UNREACHED)) {
+      context.sendToOutNeighbours(context.getValue() + 1);
+    }
+    context.voteToHalt();
+  }
+}
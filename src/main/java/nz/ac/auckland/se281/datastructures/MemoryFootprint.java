@@ -0,0 +1,117 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The MemoryFootprint class collects the estimated sizes of the structures that hold a graph, in
+ * the order they are added. The estimates count the arrays, objects and buffers of each structure
+ * with the usual 64-bit layout of compressed references, and are not measured from the heap.
+ */
+public class MemoryFootprint {
+
+  // instance variables
+  private Map<String, Long> estimates;
+  private long offHeapBytes;
+
+  // constructor
+  public MemoryFootprint() {
+    this.estimates = new LinkedHashMap<>();
+  }
+
+  /**
+   * This method estimates the number of bytes used by an array of ints.
+   *
+   * @param array : the array, which may be null
+   * @return the estimated size in bytes, which is 0 for a null array
+   */
+  public static long estimateArrayBytes(int[] array) {
+    return array == null ? 0 : 16L + 4L * array.length;
+  }
+
+  /**
+   * This method estimates the number of bytes used by an array of bytes, which is rounded up to a
+   * multiple of 8 bytes.
+   *
+   * @param array : the array, which may be null
+   * @return the estimated size in bytes, which is 0 for a null array
+   */
+  public static long estimateArrayBytes(byte[] array) {
+    return array == null ? 0 : 16L + ((array.length + 7L) & ~7L);
+  }
+
+  /**
+   * This method estimates the number of bytes used by an array of strings along with each string,
+   * which are assumed to be Latin-1 strings that store one byte per character.
+   *
+   * @param strings : the array, which may be null
+   * @return the estimated size in bytes, which is 0 for a null array
+   */
+  public static long estimateStringBytes(String[] strings) {
+    if (strings == null) {
+      return 0;
+    }
+
+    // a reference in the array, then the string object and its byte array rounded up to 8 bytes
+    long bytes = 16L + 4L * strings.length;
+    for (String string : strings) {
+      bytes += 24L + 16L + ((string.length() + 7L) & ~7L);
+    }
+    return bytes;
+  }
+
+  /**
+   * This method adds the estimated size of a structure, adding to it if it was already added.
+   * Structures of no bytes, which are not being held, are left out.
+   *
+   * @param structure : the name of the structure
+   * @param bytes : the estimated size in bytes
+   */
+  public void add(String structure, long bytes) {
+    if (bytes > 0) {
+      estimates.merge(structure, bytes, Long::sum);
+    }
+  }
+
+  /**
+   * This method records bytes of the structures that are held outside the Java heap, which are
+   * also included in the estimates of those structures.
+   *
+   * @param bytes : the number of off-heap bytes
+   */
+  public void addOffHeap(long bytes) {
+    offHeapBytes += bytes;
+  }
+
+  /**
+   * This method gets the estimated size of each structure, in the order they were added.
+   *
+   * @return the estimates keyed by structure
+   */
+  public Map<String, Long> getEstimates() {
+    return Collections.unmodifiableMap(estimates);
+  }
+
+  /**
+   * This method gets the sum of the estimated sizes of every structure.
+   *
+   * @return the total size in bytes
+   */
+  public long getTotalBytes() {
+    long total = 0;
+    for (long bytes : estimates.values()) {
+      total += bytes;
+    }
+    return total;
+  }
+
+  /**
+   * This method gets the number of bytes held outside the Java heap.
+   *
+   * @return the number of off-heap bytes
+   */
+  public long getOffHeapBytes() {
+    return offHeapBytes;
+  }
+}
@@ -0,0 +1,122 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * The MultiSourceBreadthFirstSearch class runs breadth-first searches from many sources of an
+ * adjacency index at once. Sources are handled in batches of 64, where each vertex keeps a bit mask
+ * of the sources that have reached it, so every edge is read once per level of a batch rather than
+ * once per source.
+ */
+public class MultiSourceBreadthFirstSearch {
+
+  private static final int BATCH_SIZE = Long.SIZE;
+
+  // instance variables
+  private AdjacencyIndex<?> index;
+  private long[] seen;
+  private long[] visit;
+  private long[] visitNext;
+  private int[] frontier;
+  private int[] nextFrontier;
+
+  // constructor
+  public MultiSourceBreadthFirstSearch(AdjacencyIndex<?> index) {
+    int size = index.size();
+    this.index = index;
+    this.seen = new long[size];
+    this.visit = new long[size];
+    this.visitNext = new long[size];
+    this.frontier = new int[size];
+    this.nextFrontier = new int[size];
+  }
+
+  /**
+   * This method finds the number of edges on a shortest path from each source to every vertex.
+   *
+   * @param sources : the ids of the verticies the paths start from
+   * @return the distances from each source by vertex id, which are -1 for unreachable verticies
+   */
+  public int[][] findDistances(int[] sources) {
+
+    int[][] distances = new int[sources.length][index.size()];
+    for (int[] row : distances) {
+      Arrays.fill(row, -1);
+    }
+
+    for (int start = 0; start < sources.length; start += BATCH_SIZE) {
+      searchBatch(sources, start, Math.min(sources.length, start + BATCH_SIZE), distances);
+    }
+
+    return distances;
+  }
+
+  // private methods
+
+  /**
+   * This method searches from one batch of sources together, recording the level at which each
+   * source first reaches each vertex.
+   *
+   * @param sources : the ids of every source
+   * @param from : the position of the first source of the batch, inclusive
+   * @param to : the position of the last source of the batch, exclusive
+   * @param distances : the distances from each source to fill in
+   */
+  private void searchBatch(int[] sources, int from, int to, int[][] distances) {
+
+    Arrays.fill(seen, 0);
+    int frontierSize = 0;
+
+    // each source of the batch owns one bit, and starts in the frontier at level 0
+    for (int i = from; i < to; i++) {
+      int source = sources[i];
+      long bit = 1L << (i - from);
+      if (visit[source] == 0) {
+        frontier[frontierSize++] = source;
+      }
+      seen[source] |= bit;
+      visit[source] |= bit;
+      distances[i][source] = 0;
+    }
+
+    for (int level = 1; frontierSize > 0; level++) {
+
+      // pushes the sources visiting each frontier vertex on to its neighbours
+      int nextSize = 0;
+      for (int f = 0; f < frontierSize; f++) {
+        int vertex = frontier[f];
+        long sourcesHere = visit[vertex];
+        visit[vertex] = 0;
+        for (int i = 0; i < index.getOutDegree(vertex); i++) {
+          int next = index.getOutNeighbour(vertex, i);
+          long reached = sourcesHere & ~seen[next];
+          if (reached != 0) {
+            if (visitNext[next] == 0) {
+              nextFrontier[nextSize++] = next;
+            }
+            visitNext[next] |= reached;
+          }
+        }
+      }
+
+      // marks the new arrivals as seen, recording the level for each source that arrived
+      for (int f = 0; f < nextSize; f++) {
+        int vertex = nextFrontier[f];
+        long arrived = visitNext[vertex] & ~seen[vertex];
+        seen[vertex] |= arrived;
+        for (long bits = arrived; bits != 0; bits &= bits - 1) {
+          distances[from + Long.numberOfTrailingZeros(bits)][vertex] = level;
+        }
+      }
+
+      // the next frontier becomes the current frontier
+      int[] swapFrontier = frontier;
+      frontier = nextFrontier;
+      nextFrontier = swapFrontier;
+      long[] swapVisit = visit;
+      visit = visitNext;
+      visitNext = swapVisit;
+      frontierSize = nextSize;
+    }
+  }
+}
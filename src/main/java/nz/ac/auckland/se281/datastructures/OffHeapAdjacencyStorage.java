@@ -0,0 +1,146 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.nio.IntBuffer;
+
+/**
+ * The OffHeapAdjacencyStorage class stores the adjacency of a graph in compressed sparse row (CSR)
+ * buffers allocated from an off-heap arena, so the adjacency adds nothing to the Java heap once it
+ * is built. Edge membership is tested with a binary search of the sorted neighbour list of the
+ * source.
+ *
+ * <p>Building the storage still needs the edges on the heap. They arrive as a packed edge set and
+ * are sorted into an array before the rows are written to the buffers, so the peak heap use while
+ * a graph is loaded is no lower than for heap storage. Only the graph that stays open afterwards is
+ * smaller on the heap, and a graph cannot be loaded if its edges do not fit in the heap.
+ */
+public class OffHeapAdjacencyStorage implements AdjacencyStorage {
+
+  // instance variables
+  private IntBuffer outOffsets;
+  private IntBuffer outTargets;
+  private IntBuffer inOffsets;
+  private IntBuffer inSources;
+  private int edgeCount;
+
+  // constructor
+  public OffHeapAdjacencyStorage(int size, PackedEdgeSet edges, OffHeapArena arena) {
+
+    long[] sortedEdges = edges.toSortedArray();
+    this.edgeCount = sortedEdges.length;
+    this.outOffsets = arena.allocate(4L * (size + 1)).asIntBuffer();
+    this.outTargets = arena.allocate(4L * edgeCount).asIntBuffer();
+    this.inOffsets = arena.allocate(4L * (size + 1)).asIntBuffer();
+    this.inSources = arena.allocate(4L * edgeCount).asIntBuffer();
+
+    // the rows are written straight into the buffers, without building them on the heap first
+    PackedEdgeSet.toRows(sortedEdges, size, true, outOffsets, outTargets);
+    PackedEdgeSet.toRows(sortedEdges, size, false, inOffsets, inSources);
+  }
+
+  /**
+   * This method gets the number of distinct edges in the storage.
+   *
+   * @return the number of edges
+   */
+  @Override
+  public int edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * This method gets the number of edges that start from the input vertex.
+   *
+   * @param id : the id of a vertex
+   * @return the out degree of the vertex
+   */
+  @Override
+  public int getOutDegree(int id) {
+    return outOffsets.get(id + 1) - outOffsets.get(id);
+  }
+
+  /**
+   * This method gets the i-th vertex adjacent to the input vertex, in ascending order.
+   *
+   * @param id : the id of a vertex
+   * @param i : the position of the neighbour, from 0 up to the out degree
+   * @return the id of the neighbour
+   */
+  @Override
+  public int getOutNeighbour(int id, int i) {
+    return outTargets.get(outOffsets.get(id) + i);
+  }
+
+  /**
+   * This method gets the number of edges that end at the input vertex.
+   *
+   * @param id : the id of a vertex
+   * @return the in degree of the vertex
+   */
+  @Override
+  public int getInDegree(int id) {
+    return inOffsets.get(id + 1) - inOffsets.get(id);
+  }
+
+  /**
+   * This method gets the i-th vertex with an edge to the input vertex, in ascending order.
+   *
+   * @param id : the id of a vertex
+   * @param i : the position of the neighbour, from 0 up to the in degree
+   * @return the id of the neighbour
+   */
+  @Override
+  public int getInNeighbour(int id, int i) {
+    return inSources.get(inOffsets.get(id) + i);
+  }
+
+  /**
+   * This method determines whether there is an edge from the source vertex to the target vertex,
+   * returns true if so.
+   *
+   * @param source : the id of the source vertex
+   * @param target : the id of the target vertex
+   * @return a boolean
+   */
+  @Override
+  public boolean hasEdge(int source, int target) {
+
+    // binary searches the sorted neighbour list of the source
+    int low = outOffsets.get(source);
+    int high = outOffsets.get(source + 1) - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int neighbour = outTargets.get(middle);
+      if (neighbour < target) {
+        low = middle + 1;
+      } else if (neighbour > target) {
+        high = middle - 1;
+      } else {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * This method estimates the number of bytes used by the storage.
+   *
+   * @return the estimated size in bytes
+   */
+  @Override
+  public long estimateSizeInBytes() {
+    return 4L * (outOffsets.capacity() + outTargets.capacity())
+        + 4L * (inOffsets.capacity() + inSources.capacity());
+  }
+
+  /**
+   * This method determines whether several threads can read the storage at once, returns true if
+   * so.
+   *
+   * @return a boolean
+   */
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+}
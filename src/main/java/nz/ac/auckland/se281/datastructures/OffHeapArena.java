@@ -0,0 +1,96 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The OffHeapArena class allocates buffers outside the Java heap, either in direct memory or in
+ * memory mapped temporary files, and releases them together when the arena is closed. Buffers must
+ * not be used after their arena has been closed.
+ */
+public class OffHeapArena implements AutoCloseable {
+
+  // instance variables
+  private boolean mapped;
+  private List<Path> files;
+  private long allocatedBytes;
+
+  // constructor
+  public OffHeapArena(boolean mapped) {
+    this.mapped = mapped;
+    this.files = new ArrayList<>();
+  }
+
+  /**
+   * This method allocates a zeroed buffer of the given size in native byte order.
+   *
+   * @param bytes : the size of the buffer in bytes, at most Integer.MAX_VALUE
+   * @return the buffer
+   */
+  public ByteBuffer allocate(long bytes) {
+
+    if (bytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          "Off-heap buffers are limited to 2 GB, but " + bytes + " bytes were requested");
+    }
+
+    // at least one byte is allocated, as empty files cannot be mapped
+    int capacity = (int) Math.max(1, bytes);
+    allocatedBytes += capacity;
+
+    if (!mapped) {
+      return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    try {
+
+      // the file is also removed at exit, in case the arena is never closed
+      Path file = Files.createTempFile("graph-calculator-", ".bin");
+      file.toFile().deleteOnExit();
+      files.add(file);
+
+      // the mapping stays valid after the channel is closed
+      try (FileChannel channel =
+          FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        return buffer.order(ByteOrder.nativeOrder());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * This method gets the total number of bytes allocated by the arena.
+   *
+   * @return the number of bytes
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /**
+   * This method releases the temporary files of the arena. Direct memory is returned once the
+   * buffers are no longer referenced.
+   */
+  @Override
+  public void close() {
+    for (Path file : files) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+
+        // the file is removed at exit instead if it cannot be deleted yet
+      }
+    }
+    files.clear();
+  }
+}
@@ -0,0 +1,152 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * The OffHeapVertexDictionary class keeps the names of the verticies of a graph as UTF-8 bytes in
+ * an off-heap arena. The names are concatenated in id order with an offset table, and an open
+ * addressing hash table of ids maps names back to ids. Names are decoded into new strings when a
+ * vertex is requested.
+ */
+public class OffHeapVertexDictionary implements VertexDictionary<String> {
+
+  // instance variables
+  private ByteBuffer names;
+  private IntBuffer nameOffsets;
+  private IntBuffer table;
+  private int size;
+
+  // constructor
+  public OffHeapVertexDictionary(List<String> verticies, OffHeapArena arena) {
+    this.size = verticies.size();
+
+    // encodes every name once to find the total length
+    byte[][] encoded = new byte[size][];
+    long totalBytes = 0;
+    for (int id = 0; id < size; id++) {
+      encoded[id] = verticies.get(id).getBytes(StandardCharsets.UTF_8);
+      totalBytes += encoded[id].length;
+    }
+
+    this.names = arena.allocate(totalBytes);
+    this.nameOffsets = arena.allocate(4L * (size + 1)).asIntBuffer();
+    int position = 0;
+    for (int id = 0; id < size; id++) {
+      names.put(position, encoded[id]);
+      position += encoded[id].length;
+      nameOffsets.put(id + 1, position);
+    }
+
+    // keeps the hash table at most half full, storing id + 1 so that 0 marks an empty slot
+    int capacity = 16;
+    while (capacity < 2L * size) {
+      capacity <<= 1;
+    }
+    this.table = arena.allocate(4L * capacity).asIntBuffer();
+    for (int id = 0; id < size; id++) {
+      int slot = hash(encoded[id]) & (capacity - 1);
+      while (table.get(slot) != 0) {
+        slot = (slot + 1) & (capacity - 1);
+      }
+      table.put(slot, id + 1);
+    }
+  }
+
+  /**
+   * This method gets the number of verticies in the dictionary.
+   *
+   * @return the number of verticies
+   */
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * This method gets the id of the input vertex, or -1 if the vertex is not in the dictionary.
+   *
+   * @param vertex : a vertex
+   * @return the id of the vertex
+   */
+  @Override
+  public int getId(String vertex) {
+
+    byte[] name = vertex.getBytes(StandardCharsets.UTF_8);
+    int mask = table.capacity() - 1;
+    int slot = hash(name) & mask;
+
+    // probes until the name or an empty slot is found
+    while (table.get(slot) != 0) {
+      int id = table.get(slot) - 1;
+      if (nameEquals(id, name)) {
+        return id;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    return -1;
+  }
+
+  /**
+   * This method gets the vertex with the input id.
+   *
+   * @param id : the id of a vertex
+   * @return the vertex
+   */
+  @Override
+  public String getVertex(int id) {
+    byte[] name = new byte[nameOffsets.get(id + 1) - nameOffsets.get(id)];
+    names.get(nameOffsets.get(id), name);
+    return new String(name, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * This method estimates the number of bytes used by the dictionary.
+   *
+   * @return the estimated size in bytes
+   */
+  @Override
+  public long estimateSizeInBytes() {
+    return names.capacity() + 4L * (nameOffsets.capacity() + table.capacity());
+  }
+
+  // private methods
+
+  /**
+   * This method computes the FNV-1a hash of an encoded name.
+   *
+   * @param name : the UTF-8 bytes of a name
+   * @return the hash of the name
+   */
+  private int hash(byte[] name) {
+    int hash = 0x811C9DC5;
+    for (byte b : name) {
+      hash = (hash ^ (b & 0xFF)) * 0x01000193;
+    }
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * This method determines whether the stored name of a vertex equals an encoded name, returns true
+   * if so.
+   *
+   * @param id : the id of a vertex
+   * @param name : the UTF-8 bytes of a name
+   * @return a boolean
+   */
+  private boolean nameEquals(int id, byte[] name) {
+    int start = nameOffsets.get(id);
+    if (nameOffsets.get(id + 1) - start != name.length) {
+      return false;
+    }
+    for (int i = 0; i < name.length; i++) {
+      if (names.get(start + i) != name[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,288 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * The OverlayAdjacencyStorage class applies added and removed edges on top of another storage,
+ * which is never modified. Only the neighbour lists of verticies touched by a change are copied and
+ * rewritten, so the cost of a change scales with the degrees of the verticies it touches rather
+ * than with the size of the graph. Every other neighbour list is read from the underlying storage.
+ */
+public class OverlayAdjacencyStorage implements AdjacencyStorage {
+
+  // instance variables
+  private AdjacencyStorage base;
+  private VertexRelabelling relabelling;
+  private int[][] outRows;
+  private int[][] inRows;
+  private int edgeCount;
+  private long rowBytes;
+
+  // constructor
+  public OverlayAdjacencyStorage(int size, AdjacencyStorage base, VertexRelabelling relabelling) {
+    this.base = base;
+    this.relabelling = relabelling;
+    this.outRows = new int[size][];
+    this.inRows = new int[size][];
+    this.edgeCount = base.edgeCount();
+  }
+
+  /**
+   * This method adds and removes edges, rewriting the neighbour lists of the verticies they touch.
+   * Every added edge must be missing from the storage and every removed edge must be in it.
+   *
+   * @param addedEdges : the packed edges to add
+   * @param removedEdges : the packed edges to remove
+   */
+  public void applyChanges(long[] addedEdges, long[] removedEdges) {
+    applyRowChanges(outRows, addedEdges, removedEdges, true);
+    applyRowChanges(inRows, addedEdges, removedEdges, false);
+    edgeCount += addedEdges.length - removedEdges.length;
+  }
+
+  /**
+   * This method gets the number of distinct edges in the storage.
+   *
+   * @return the number of edges
+   */
+  @Override
+  public int edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * This method gets the number of edges that start from the input vertex.
+   *
+   * @param id : the id of a vertex
+   * @return the out degree of the vertex
+   */
+  @Override
+  public int getOutDegree(int id) {
+    int[] row = outRows[id];
+    return row != null ? row.length : base.getOutDegree(id);
+  }
+
+  /**
+   * This method gets the i-th vertex adjacent to the input vertex, in ascending order.
+   *
+   * @param id : the id of a vertex
+   * @param i : the position of the neighbour, from 0 up to the out degree
+   * @return the id of the neighbour
+   */
+  @Override
+  public int getOutNeighbour(int id, int i) {
+    int[] row = outRows[id];
+    return row != null ? row[i] : base.getOutNeighbour(id, i);
+  }
+
+  /**
+   * This method gets the number of edges that end at the input vertex.
+   *
+   * @param id : the id of a vertex
+   * @return the in degree of the vertex
+   */
+  @Override
+  public int getInDegree(int id) {
+    int[] row = inRows[id];
+    return row != null ? row.length : base.getInDegree(id);
+  }
+
+  /**
+   * This method gets the i-th vertex with an edge to the input vertex, in ascending order.
+   *
+   * @param id : the id of a vertex
+   * @param i : the position of the neighbour, from 0 up to the in degree
+   * @return the id of the neighbour
+   */
+  @Override
+  public int getInNeighbour(int id, int i) {
+    int[] row = inRows[id];
+    return row != null ? row[i] : base.getInNeighbour(id, i);
+  }
+
+  /**
+   * This method determines whether there is an edge from the source vertex to the target vertex,
+   * returns true if so.
+   *
+   * @param source : the id of the source vertex
+   * @param target : the id of the target vertex
+   * @return a boolean
+   */
+  @Override
+  public boolean hasEdge(int source, int target) {
+    int[] row = outRows[source];
+
+    if (row == null) {
+      return base.hasEdge(source, target);
+    }
+
+    // the rewritten row is sorted in vertex order, so it is searched by the order of the target
+    int key = getOrder(target);
+    int low = 0;
+    int high = row.length - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int order = getOrder(row[middle]);
+      if (order < key) {
+        low = middle + 1;
+      } else if (order > key) {
+        high = middle - 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * This method estimates the number of bytes used by the storage, including the storage below it.
+   *
+   * @return the estimated size in bytes
+   */
+  @Override
+  public long estimateSizeInBytes() {
+    return base.estimateSizeInBytes() + 8L * (outRows.length + inRows.length) + rowBytes;
+  }
+
+  /**
+   * This method determines whether several threads can read the storage at once, returns true if
+   * so.
+   *
+   * @return a boolean
+   */
+  @Override
+  public boolean isThreadSafe() {
+
+    // the rewritten rows are only read, so the overlay is as safe as the storage under it
+    return base.isThreadSafe();
+  }
+
+  // private methods
+
+  /**
+   * This method rewrites the rows of every vertex touched by the changes, either the out rows keyed
+   * by source or the in rows keyed by target.
+   *
+   * @param rows : the rewritten rows, which are null for rows read from the underlying storage
+   * @param addedEdges : the packed edges to add
+   * @param removedEdges : the packed edges to remove
+   * @param bySource : whether the rows hold the targets of each source
+   */
+  private void applyRowChanges(
+      int[][] rows, long[] addedEdges, long[] removedEdges, boolean bySource) {
+
+    // sorting by the vertex that owns the row groups the changes to each row together
+    long[] added = keyByRow(addedEdges, bySource);
+    long[] removed = keyByRow(removedEdges, bySource);
+
+    int a = 0;
+    int r = 0;
+    while (a < added.length || r < removed.length) {
+      int owner =
+          Math.min(
+              a < added.length ? PackedEdgeSet.getSource(added[a]) : Integer.MAX_VALUE,
+              r < removed.length ? PackedEdgeSet.getSource(removed[r]) : Integer.MAX_VALUE);
+
+      int addedStart = a;
+      while (a < added.length && PackedEdgeSet.getSource(added[a]) == owner) {
+        a++;
+      }
+      int removedStart = r;
+      while (r < removed.length && PackedEdgeSet.getSource(removed[r]) == owner) {
+        r++;
+      }
+
+      int[] oldRow = getRow(rows, owner, bySource);
+      int[] newRow = new int[oldRow.length + (a - addedStart) - (r - removedStart)];
+      int size = 0;
+
+      // keeps the old neighbours that are not removed, which are found by binary search
+      for (int neighbour : oldRow) {
+        if (Arrays.binarySearch(removed, removedStart, r, PackedEdgeSet.pack(owner, neighbour))
+            < 0) {
+          newRow[size++] = neighbour;
+        }
+      }
+      for (int i = addedStart; i < a; i++) {
+        newRow[size++] = PackedEdgeSet.getTarget(added[i]);
+      }
+
+      sortInVertexOrder(newRow);
+      rowBytes += 4L * (newRow.length - (rows[owner] != null ? rows[owner].length : 0));
+      rows[owner] = newRow;
+    }
+  }
+
+  /**
+   * This method gets the current row of a vertex, from the rewritten rows if it has been changed
+   * before, or otherwise copied from the underlying storage.
+   *
+   * @param rows : the rewritten rows
+   * @param id : the id of the vertex
+   * @param bySource : whether the rows hold the targets of each source
+   * @return the neighbours of the vertex
+   */
+  private int[] getRow(int[][] rows, int id, boolean bySource) {
+    if (rows[id] != null) {
+      return rows[id];
+    }
+
+    int degree = bySource ? base.getOutDegree(id) : base.getInDegree(id);
+    int[] row = new int[degree];
+    for (int i = 0; i < degree; i++) {
+      row[i] = bySource ? base.getOutNeighbour(id, i) : base.getInNeighbour(id, i);
+    }
+    return row;
+  }
+
+  /**
+   * This method packs each edge with the vertex that owns its row first, then sorts them.
+   *
+   * @param edges : the packed edges, with the source first
+   * @param bySource : whether the rows are owned by the sources
+   * @return the sorted edges, packed with the owner of the row first
+   */
+  private long[] keyByRow(long[] edges, boolean bySource) {
+    long[] keyed = new long[edges.length];
+    for (int i = 0; i < edges.length; i++) {
+      keyed[i] =
+          bySource
+              ? edges[i]
+              : PackedEdgeSet.pack(
+                  PackedEdgeSet.getTarget(edges[i]), PackedEdgeSet.getSource(edges[i]));
+    }
+    Arrays.sort(keyed);
+    return keyed;
+  }
+
+  /**
+   * This method sorts a row of neighbours in vertex order, which is id order unless the verticies
+   * have been relabelled.
+   *
+   * @param row : the ids of the neighbours
+   */
+  private void sortInVertexOrder(int[] row) {
+    if (relabelling == null) {
+      Arrays.sort(row);
+      return;
+    }
+
+    for (int i = 0; i < row.length; i++) {
+      row[i] = relabelling.getRank(row[i]);
+    }
+    Arrays.sort(row);
+    for (int i = 0; i < row.length; i++) {
+      row[i] = relabelling.getId(row[i]);
+    }
+  }
+
+  /**
+   * This method gets the position of a vertex in vertex order.
+   *
+   * @param id : the id of a vertex
+   * @return the position of the vertex
+   */
+  private int getOrder(int id) {
+    return relabelling == null ? id : relabelling.getRank(id);
+  }
+}
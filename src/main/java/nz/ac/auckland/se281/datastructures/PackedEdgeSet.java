@@ -0,0 +1,257 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * The PackedEdgeSet class is a set of edges between vertex ids. Each edge is packed into a single
+ * long, with the source id in the upper 32 bits and the target id in the lower 32 bits, and stored
+ * in an open addressing hash table with linear probing. Adding an edge twice has no effect.
+ */
+public class PackedEdgeSet {
+
+  private static final long EMPTY = -1L;
+  private static final int MINIMUM_CAPACITY = 16;
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  // instance variables
+  private long[] table;
+  private int size;
+
+  // constructors
+  public PackedEdgeSet() {
+    this(0);
+  }
+
+  public PackedEdgeSet(int expectedSize) {
+
+    // keeps the table at most half full, up to the largest power of two an array can hold
+    long capacity = MINIMUM_CAPACITY;
+    while (capacity < 2L * expectedSize && capacity < MAXIMUM_CAPACITY) {
+      capacity <<= 1;
+    }
+
+    this.table = new long[(int) capacity];
+    Arrays.fill(this.table, EMPTY);
+  }
+
+  /**
+   * This method packs the input ids into a single edge value.
+   *
+   * @param source : the id of the source vertex, which must not be negative
+   * @param target : the id of the target vertex, which must not be negative
+   * @return the packed edge
+   */
+  public static long pack(int source, int target) {
+    return ((long) source << 32) | target;
+  }
+
+  /**
+   * This method gets the id of the source vertex of a packed edge.
+   *
+   * @param edge : a packed edge
+   * @return the id of the source vertex
+   */
+  public static int getSource(long edge) {
+    return (int) (edge >>> 32);
+  }
+
+  /**
+   * This method gets the id of the target vertex of a packed edge.
+   *
+   * @param edge : a packed edge
+   * @return the id of the target vertex
+   */
+  public static int getTarget(long edge) {
+    return (int) edge;
+  }
+
+  /**
+   * This method adds an edge to the set if it is not already in the set, returns true if so.
+   *
+   * @param source : the id of the source vertex, which must not be negative
+   * @param target : the id of the target vertex, which must not be negative
+   * @return a boolean
+   */
+  public boolean add(int source, int target) {
+
+    // grows the table before it becomes more than half full, a table that cannot grow is filled
+    // further but always keeps an empty slot so that probing ends
+    if (2L * (size + 1) > table.length) {
+      if (table.length < MAXIMUM_CAPACITY) {
+        resize(table.length << 1);
+      } else if (size + 1 == table.length && !contains(source, target)) {
+        throw new IllegalStateException("An edge set cannot hold more than " + size + " edges");
+      }
+    }
+
+    long edge = pack(source, target);
+    int mask = table.length - 1;
+    int slot = hash(edge) & mask;
+
+    // probes until the edge or an empty slot is found
+    while (table[slot] != EMPTY) {
+      if (table[slot] == edge) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    table[slot] = edge;
+    size++;
+    return true;
+  }
+
+  /**
+   * This method determines whether an edge is in the set, returns true if so.
+   *
+   * @param source : the id of the source vertex
+   * @param target : the id of the target vertex
+   * @return a boolean
+   */
+  public boolean contains(int source, int target) {
+
+    long edge = pack(source, target);
+    int mask = table.length - 1;
+    int slot = hash(edge) & mask;
+
+    // probes until the edge or an empty slot is found
+    while (table[slot] != EMPTY) {
+      if (table[slot] == edge) {
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    return false;
+  }
+
+  /**
+   * This method gets the number of edges in the set.
+   *
+   * @return the number of edges
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * This method gets every edge in the set, sorted by source id and then by target id.
+   *
+   * @return an array of packed edges
+   */
+  public long[] toSortedArray() {
+
+    long[] edges = new long[size];
+    int count = 0;
+    for (long edge : table) {
+      if (edge != EMPTY) {
+        edges[count++] = edge;
+      }
+    }
+
+    // packed edges are never negative, so their numerical order is the source then target order
+    Arrays.sort(edges);
+    return edges;
+  }
+
+  /**
+   * This method groups sorted edges into compressed sparse rows (CSR), either by source with each
+   * row holding targets, or by target with each row holding sources. Every row is sorted.
+   *
+   * @param sortedEdges : packed edges sorted by source and then by target
+   * @param size : the number of verticies
+   * @param bySource : whether rows are grouped by source rather than by target
+   * @param offsets : an array of length size + 1 to fill with the start of each row
+   * @return the concatenated rows
+   */
+  public static int[] toRows(long[] sortedEdges, int size, boolean bySource, int[] offsets) {
+    int[] rows = new int[sortedEdges.length];
+    toRows(sortedEdges, size, bySource, IntBuffer.wrap(offsets), IntBuffer.wrap(rows));
+    return rows;
+  }
+
+  /**
+   * This method groups sorted edges into compressed sparse rows (CSR) in the same way, writing them
+   * into buffers that may be outside the Java heap. No other memory is used, so the rows can be
+   * built without a copy of them on the heap.
+   *
+   * @param sortedEdges : packed edges sorted by source and then by target
+   * @param size : the number of verticies
+   * @param bySource : whether rows are grouped by source rather than by target
+   * @param offsets : a buffer of size + 1 zeros to fill with the start of each row
+   * @param rows : a buffer with room for every edge to fill with the concatenated rows
+   */
+  public static void toRows(
+      long[] sortedEdges, int size, boolean bySource, IntBuffer offsets, IntBuffer rows) {
+
+    // counts the length of each row, then turns the counts into start offsets
+    for (long edge : sortedEdges) {
+      int row = (bySource ? getSource(edge) : getTarget(edge)) + 1;
+      offsets.put(row, offsets.get(row) + 1);
+    }
+    for (int id = 0; id < size; id++) {
+      offsets.put(id + 1, offsets.get(id + 1) + offsets.get(id));
+    }
+
+    // places each edge at the start of its row and moves the start along, visiting edges in sorted
+    // order keeps every row sorted
+    for (long edge : sortedEdges) {
+      int row = bySource ? getSource(edge) : getTarget(edge);
+      int position = offsets.get(row);
+      rows.put(position, bySource ? getTarget(edge) : getSource(edge));
+      offsets.put(row, position + 1);
+    }
+
+    // each start has moved to the start of the next row, so they are shifted back by one row
+    for (int id = size; id > 0; id--) {
+      offsets.put(id, offsets.get(id - 1));
+    }
+    offsets.put(0, 0);
+  }
+
+  /**
+   * This method estimates the number of bytes used by the table of the set.
+   *
+   * @return the estimated size in bytes
+   */
+  public long estimateSizeInBytes() {
+    return 8L * table.length;
+  }
+
+  // private methods
+
+  /**
+   * This method mixes the bits of a packed edge so that neighbouring ids spread over the table.
+   *
+   * @param edge : a packed edge
+   * @return the hash of the edge
+   */
+  private int hash(long edge) {
+    long mixed = edge * 0x9E3779B97F4A7C15L;
+    return (int) (mixed ^ (mixed >>> 32));
+  }
+
+  /**
+   * This method moves every edge into a new table of the given capacity.
+   *
+   * @param capacity : the new capacity, which must be a power of two
+   */
+  private void resize(int capacity) {
+
+    long[] oldTable = table;
+    table = new long[capacity];
+    Arrays.fill(table, EMPTY);
+    int mask = capacity - 1;
+
+    for (long edge : oldTable) {
+      if (edge != EMPTY) {
+        int slot = hash(edge) & mask;
+        while (table[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = edge;
+      }
+    }
+  }
+}
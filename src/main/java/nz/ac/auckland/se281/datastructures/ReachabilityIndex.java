@@ -0,0 +1,430 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * The ReachabilityIndex class answers whether one vertex can reach another without traversing the
+ * whole graph. The strongly connected components of the graph are collapsed into a directed acyclic
+ * graph, and each component is labelled with a depth-first spanning tree interval and a
+ * reachability interval. Most queries are decided by the labels alone, and the remaining queries
+ * fall back to a bidirectional breadth-first search that is pruned by the labels.
+ */
+public class ReachabilityIndex {
+
+  // instance variables
+  private int[] component;
+  private int componentCount;
+  private int[] dagOffsets;
+  private int[] dagTargets;
+  private int[] reverseOffsets;
+  private int[] reverseSources;
+  private int[] treeStart;
+  private int[] treeEnd;
+  private int[] lowest;
+  private int[] forwardMark;
+  private int[] backwardMark;
+  private int[] forwardQueue;
+  private int[] backwardQueue;
+  private int searchCount;
+  private long buildTimeNanos;
+
+  // constructor
+  public ReachabilityIndex(AdjacencyIndex<?> index) {
+    long start = System.nanoTime();
+
+    findComponents(index);
+    buildCondensation(index);
+    labelComponents();
+
+    this.forwardMark = new int[componentCount];
+    this.backwardMark = new int[componentCount];
+    this.forwardQueue = new int[componentCount];
+    this.backwardQueue = new int[componentCount];
+
+    this.buildTimeNanos = System.nanoTime() - start;
+  }
+
+  /**
+   * This method determines whether there is a path from the source vertex to the target vertex,
+   * returns true if so. Every vertex can reach itself.
+   *
+   * @param source : the id of the vertex the path starts from
+   * @param target : the id of the vertex the path ends at
+   * @return a boolean
+   */
+  public boolean isReachable(int source, int target) {
+
+    int from = component[source];
+    int to = component[target];
+
+    // verticies in the same component reach each other
+    if (from == to) {
+      return true;
+    }
+
+    // components are numbered in topological order, so edges never lead to a smaller component
+    if (from > to) {
+      return false;
+    }
+
+    // the target is a descendant of the source in the spanning tree
+    if (treeStart[from] <= treeStart[to] && treeEnd[to] <= treeEnd[from]) {
+      return true;
+    }
+
+    // the target is outside the reachability interval of the source
+    if (!covers(from, to)) {
+      return false;
+    }
+
+    return bidirectionalSearch(from, to);
+  }
+
+  /**
+   * This method determines whether the index still holds after the input edges are added and
+   * removed, returns true if so. An added edge between verticies where the source already reaches
+   * the target cannot join components or reach anything new, so only such additions keep the index.
+   * Removing an edge may break a path, so any removal is assumed to change reachability.
+   *
+   * @param addedEdges : the packed ids of the edges added
+   * @param removedEdges : the packed ids of the edges removed
+   * @return a boolean
+   */
+  public boolean isUnchangedBy(long[] addedEdges, long[] removedEdges) {
+    if (removedEdges.length > 0) {
+      return false;
+    }
+
+    for (long edge : addedEdges) {
+      if (!isReachable(PackedEdgeSet.getSource(edge), PackedEdgeSet.getTarget(edge))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * This method gets the strongly connected component that contains the input vertex. Components
+   * are numbered from 0 in topological order.
+   *
+   * @param id : the id of a vertex
+   * @return the number of the component
+   */
+  public int getComponent(int id) {
+    return component[id];
+  }
+
+  /**
+   * This method gets the number of strongly connected components in the graph.
+   *
+   * @return the number of components
+   */
+  public int getComponentCount() {
+    return componentCount;
+  }
+
+  /**
+   * This method gets how long it took to build the index.
+   *
+   * @return the build time in nanoseconds
+   */
+  public long getBuildTimeNanos() {
+    return buildTimeNanos;
+  }
+
+  /**
+   * This method estimates the number of bytes used by the arrays of the index.
+   *
+   * @return the estimated size in bytes
+   */
+  public long estimateSizeInBytes() {
+    long ints =
+        component.length
+            + dagOffsets.length
+            + dagTargets.length
+            + reverseOffsets.length
+            + reverseSources.length
+            + treeStart.length
+            + treeEnd.length
+            + lowest.length
+            + forwardMark.length
+            + backwardMark.length
+            + forwardQueue.length
+            + backwardQueue.length;
+    return 4L * ints;
+  }
+
+  // private methods
+
+  /**
+   * This method finds the strongly connected components of the graph with an iterative version of
+   * Tarjan's algorithm. Tarjan's algorithm completes components in reverse topological order, so
+   * they are numbered from the end to give a topological numbering.
+   *
+   * @param index : the adjacency of the graph
+   */
+  private void findComponents(AdjacencyIndex<?> index) {
+
+    int size = index.size();
+    component = new int[size];
+    int[] order = new int[size];
+    int[] low = new int[size];
+    int[] nextEdge = new int[size];
+    int[] callStack = new int[size];
+    int[] tarjanStack = new int[size];
+    boolean[] onStack = new boolean[size];
+    Arrays.fill(order, -1);
+
+    int counter = 0;
+    int found = 0;
+    int tarjanTop = 0;
+
+    for (int root = 0; root < size; root++) {
+      if (order[root] != -1) {
+        continue;
+      }
+
+      int callTop = 0;
+      callStack[callTop++] = root;
+      order[root] = low[root] = counter++;
+      tarjanStack[tarjanTop++] = root;
+      onStack[root] = true;
+
+      while (callTop > 0) {
+        int vertex = callStack[callTop - 1];
+
+        if (nextEdge[vertex] < index.getOutDegree(vertex)) {
+          int adjacent = index.getOutNeighbour(vertex, nextEdge[vertex]++);
+
+          // descends into unvisited verticies, otherwise updates the low link
+          if (order[adjacent] == -1) {
+            order[adjacent] = low[adjacent] = counter++;
+            tarjanStack[tarjanTop++] = adjacent;
+            onStack[adjacent] = true;
+            callStack[callTop++] = adjacent;
+          } else if (onStack[adjacent]) {
+            low[vertex] = Math.min(low[vertex], order[adjacent]);
+          }
+          continue;
+        }
+
+        // the vertex is finished, so pops a component if the vertex is its first member
+        callTop--;
+        if (low[vertex] == order[vertex]) {
+          int member;
+          do {
+            member = tarjanStack[--tarjanTop];
+            onStack[member] = false;
+            component[member] = found;
+          } while (member != vertex);
+          found++;
+        }
+        if (callTop > 0) {
+          int parent = callStack[callTop - 1];
+          low[parent] = Math.min(low[parent], low[vertex]);
+        }
+      }
+    }
+
+    // renumbers the components into topological order
+    componentCount = found;
+    for (int vertex = 0; vertex < size; vertex++) {
+      component[vertex] = componentCount - 1 - component[vertex];
+    }
+  }
+
+  /**
+   * This method builds the forward and reverse adjacency of the graph of components, keeping only
+   * the edges between different components.
+   *
+   * @param index : the adjacency of the graph
+   */
+  private void buildCondensation(AdjacencyIndex<?> index) {
+
+    // groups the verticies by component
+    int[] memberOffsets = new int[componentCount + 1];
+    for (int vertex = 0; vertex < index.size(); vertex++) {
+      memberOffsets[component[vertex] + 1]++;
+    }
+    for (int c = 0; c < componentCount; c++) {
+      memberOffsets[c + 1] += memberOffsets[c];
+    }
+    int[] members = new int[index.size()];
+    int[] next = Arrays.copyOf(memberOffsets, componentCount);
+    for (int vertex = 0; vertex < index.size(); vertex++) {
+      members[next[component[vertex]]++] = vertex;
+    }
+
+    // collects the distinct components adjacent to each component
+    int[] seen = new int[componentCount];
+    Arrays.fill(seen, -1);
+    dagOffsets = new int[componentCount + 1];
+    int[] targets = new int[Math.max(1, index.edgeCount())];
+    int count = 0;
+    for (int c = 0; c < componentCount; c++) {
+      for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+        int vertex = members[m];
+        for (int i = 0; i < index.getOutDegree(vertex); i++) {
+          int other = component[index.getOutNeighbour(vertex, i)];
+          if (other != c && seen[other] != c) {
+            seen[other] = c;
+            targets[count++] = other;
+          }
+        }
+      }
+      dagOffsets[c + 1] = count;
+    }
+    dagTargets = Arrays.copyOf(targets, count);
+
+    // inverts the component edges
+    reverseOffsets = new int[componentCount + 1];
+    for (int i = 0; i < count; i++) {
+      reverseOffsets[dagTargets[i] + 1]++;
+    }
+    for (int c = 0; c < componentCount; c++) {
+      reverseOffsets[c + 1] += reverseOffsets[c];
+    }
+    reverseSources = new int[count];
+    int[] reverseNext = Arrays.copyOf(reverseOffsets, componentCount);
+    for (int c = 0; c < componentCount; c++) {
+      for (int i = dagOffsets[c]; i < dagOffsets[c + 1]; i++) {
+        reverseSources[reverseNext[dagTargets[i]]++] = c;
+      }
+    }
+  }
+
+  /**
+   * This method labels every component with a depth-first search over the graph of components. The
+   * spanning tree interval [treeStart, treeEnd] holds the discovery and finish times of the
+   * component, and the reachability interval [lowest, treeEnd] also covers the finish times of
+   * every component it can reach.
+   */
+  private void labelComponents() {
+
+    treeStart = new int[componentCount];
+    treeEnd = new int[componentCount];
+    lowest = new int[componentCount];
+    int[] nextEdge = new int[componentCount];
+    int[] stack = new int[componentCount];
+    boolean[] visited = new boolean[componentCount];
+
+    int clock = 0;
+    for (int root = 0; root < componentCount; root++) {
+      if (visited[root]) {
+        continue;
+      }
+
+      int top = 0;
+      stack[top++] = root;
+      visited[root] = true;
+      treeStart[root] = clock++;
+      nextEdge[root] = dagOffsets[root];
+
+      while (top > 0) {
+        int c = stack[top - 1];
+
+        if (nextEdge[c] < dagOffsets[c + 1]) {
+          int child = dagTargets[nextEdge[c]++];
+          if (!visited[child]) {
+            visited[child] = true;
+            treeStart[child] = clock++;
+            nextEdge[child] = dagOffsets[child];
+            stack[top++] = child;
+          }
+          continue;
+        }
+
+        // every component reachable from c has finished, as the graph of components is acyclic
+        top--;
+        treeEnd[c] = clock++;
+        lowest[c] = treeStart[c];
+        for (int i = dagOffsets[c]; i < dagOffsets[c + 1]; i++) {
+          lowest[c] = Math.min(lowest[c], lowest[dagTargets[i]]);
+        }
+      }
+    }
+  }
+
+  /**
+   * This method determines whether the reachability interval of the first component covers the
+   * interval of the second, which must hold if the first can reach the second.
+   *
+   * @param outer : the component that may reach the other
+   * @param inner : the component that may be reached
+   * @return a boolean
+   */
+  private boolean covers(int outer, int inner) {
+    return lowest[outer] <= lowest[inner] && treeEnd[inner] <= treeEnd[outer];
+  }
+
+  /**
+   * This method searches forwards from the source component and backwards from the target
+   * component one level at a time, expanding the smaller frontier, until the searches meet. Only
+   * components that can still lie on a path between the two are expanded.
+   *
+   * @param from : the source component
+   * @param to : the target component
+   * @return true if the target component is reachable from the source component
+   */
+  private boolean bidirectionalSearch(int from, int to) {
+
+    // stamps the marks of this search so the mark arrays never need to be cleared
+    searchCount++;
+    if (searchCount == Integer.MAX_VALUE) {
+      Arrays.fill(forwardMark, 0);
+      Arrays.fill(backwardMark, 0);
+      searchCount = 1;
+    }
+
+    int forwardHead = 0;
+    int forwardTail = 0;
+    int backwardHead = 0;
+    int backwardTail = 0;
+    forwardQueue[forwardTail++] = from;
+    forwardMark[from] = searchCount;
+    backwardQueue[backwardTail++] = to;
+    backwardMark[to] = searchCount;
+
+    while (forwardHead < forwardTail && backwardHead < backwardTail) {
+      if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+
+        // expands one level of the forward search
+        int levelEnd = forwardTail;
+        while (forwardHead < levelEnd) {
+          int c = forwardQueue[forwardHead++];
+          for (int i = dagOffsets[c]; i < dagOffsets[c + 1]; i++) {
+            int next = dagTargets[i];
+            if (backwardMark[next] == searchCount) {
+              return true;
+            }
+            if (forwardMark[next] != searchCount && next < to && covers(next, to)) {
+              forwardMark[next] = searchCount;
+              forwardQueue[forwardTail++] = next;
+            }
+          }
+        }
+      } else {
+
+        // expands one level of the backward search
+        int levelEnd = backwardTail;
+        while (backwardHead < levelEnd) {
+          int c = backwardQueue[backwardHead++];
+          for (int i = reverseOffsets[c]; i < reverseOffsets[c + 1]; i++) {
+            int previous = reverseSources[i];
+            if (forwardMark[previous] == searchCount) {
+              return true;
+            }
+            if (backwardMark[previous] != searchCount
+                && previous > from
+                && covers(from, previous)) {
+              backwardMark[previous] = searchCount;
+              backwardQueue[backwardTail++] = previous;
+            }
+          }
+        }
+      }
+    }
+
+    return false;
+  }
+}
@@ -0,0 +1,156 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * The RelationProfile class determines every relation property of an adjacency index in one pass
+ * over its edges. Each edge looks up its reverse edge once, which answers both symmetry and
+ * anti-symmetry, and transitivity is only checked until a counterexample has been found.
+ */
+public class RelationProfile {
+
+  // instance variables
+  private boolean reflexive;
+  private boolean symmetric;
+  private boolean antiSymmetric;
+  private boolean transitive;
+  private int degreeRootCount;
+  private int classCount;
+
+  // constructor
+  public RelationProfile(AdjacencyIndex<?> index) {
+
+    this.reflexive = true;
+    this.symmetric = true;
+    this.antiSymmetric = true;
+    this.transitive = true;
+
+    for (int source = 0; source < index.size(); source++) {
+      int outDegree = index.getOutDegree(source);
+
+      // a root has edges that start from it but none that end at it
+      if (index.getInDegree(source) == 0 && outDegree > 0) {
+        degreeRootCount++;
+      }
+
+      // the rows are sorted, so in an equivalence relation the first neighbour of each vertex is
+      // the same for its whole class, and each class is counted once at that vertex
+      if (outDegree > 0 && index.getOutNeighbour(source, 0) == source) {
+        classCount++;
+      }
+
+      boolean loop = false;
+      for (int i = 0; i < outDegree; i++) {
+        int target = index.getOutNeighbour(source, i);
+        if (target == source) {
+          loop = true;
+        } else if (symmetric || antiSymmetric) {
+
+          // one reverse lookup decides the edge for both symmetry and anti-symmetry
+          boolean reverse = index.hasEdge(target, source);
+          symmetric &= reverse;
+          antiSymmetric &= !reverse;
+        }
+
+        // the edges from a loop are already edges from the source, so only other edges can break
+        // transitivity
+        if (transitive && target != source) {
+          transitive = checkIfClosed(index, source, target);
+        }
+      }
+      reflexive &= loop;
+    }
+  }
+
+  /**
+   * This method determines whether the relation is reflexive, returns true if so.
+   *
+   * @return a boolean
+   */
+  public boolean isReflexive() {
+    return reflexive;
+  }
+
+  /**
+   * This method determines whether the relation is symmetric, returns true if so.
+   *
+   * @return a boolean
+   */
+  public boolean isSymmetric() {
+    return symmetric;
+  }
+
+  /**
+   * This method determines whether the relation is transitive, returns true if so.
+   *
+   * @return a boolean
+   */
+  public boolean isTransitive() {
+    return transitive;
+  }
+
+  /**
+   * This method determines whether the relation is anti-symmetric, returns true if so.
+   *
+   * @return a boolean
+   */
+  public boolean isAntiSymmetric() {
+    return antiSymmetric;
+  }
+
+  /**
+   * This method determines whether the relation is an equivalence relation, returns true if so.
+   *
+   * @return a boolean
+   */
+  public boolean isEquivalence() {
+    return reflexive && symmetric && transitive;
+  }
+
+  /**
+   * This method determines whether the relation is a partial order, returns true if so.
+   *
+   * @return a boolean
+   */
+  public boolean isPartialOrder() {
+    return reflexive && antiSymmetric && transitive;
+  }
+
+  /**
+   * This method gets the number of root verticies, which are the verticies with edges from them but
+   * none to them, or the smallest vertex of each class of an equivalence relation.
+   *
+   * @return the number of roots
+   */
+  public int getRootCount() {
+    return isEquivalence() ? degreeRootCount + classCount : degreeRootCount;
+  }
+
+  /**
+   * This method gets the number of equivalence classes, which is zero when the relation is not an
+   * equivalence relation.
+   *
+   * @return the number of equivalence classes
+   */
+  public int getClassCount() {
+    return isEquivalence() ? classCount : 0;
+  }
+
+  // private methods
+
+  /**
+   * This method determines whether every edge from the middle vertex is matched by an edge from the
+   * first vertex, returns true if so.
+   *
+   * @param index : the adjacency of the relation
+   * @param first : the id of the vertex the first edge starts from
+   * @param middle : the id of the vertex the first edge ends at
+   * @return a boolean
+   */
+  private boolean checkIfClosed(AdjacencyIndex<?> index, int first, int middle) {
+    for (int j = 0; j < index.getOutDegree(middle); j++) {
+      if (!index.hasEdge(first, index.getOutNeighbour(middle, j))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
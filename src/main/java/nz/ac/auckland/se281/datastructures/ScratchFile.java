@@ -0,0 +1,172 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The ScratchFile class is a temporary file in a scratch directory that is either streamed in
+ * order or memory mapped as an array of ints or longs. The file is mapped in segments of 1 GB, so
+ * it can be larger than a single buffer and than the Java heap, and the operating system pages the
+ * mapped segments in and out of memory as they are used. The file is deleted when it is closed.
+ */
+public class ScratchFile implements AutoCloseable {
+
+  private static final int SEGMENT_SHIFT = 30;
+  private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+  private static final int STREAM_BUFFER_BYTES = 1 << 16;
+
+  // instance variables
+  private Path file;
+  private MappedByteBuffer[] segments;
+
+  // constructor
+  public ScratchFile(Path directory) {
+    try {
+
+      // the file is also removed at exit, in case it is never closed
+      this.file = Files.createTempFile(directory, "graph-calculator-", ".scratch");
+      file.toFile().deleteOnExit();
+      this.segments = new MappedByteBuffer[0];
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * This method opens a buffered stream that writes the file from its start.
+   *
+   * @return the stream, which must be closed before the file is mapped
+   */
+  public DataOutputStream openOutput() {
+    try {
+      return new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(file), STREAM_BUFFER_BYTES));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * This method opens a buffered stream that reads the file from its start.
+   *
+   * @return the stream
+   */
+  public DataInputStream openInput() {
+    try {
+      return new DataInputStream(
+          new BufferedInputStream(Files.newInputStream(file), STREAM_BUFFER_BYTES));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * This method maps the file into memory, growing it with zeros if it is smaller than the input
+   * size.
+   *
+   * @param bytes : the number of bytes to map from the start of the file
+   */
+  public void map(long bytes) {
+    segments = new MappedByteBuffer[(int) ((bytes + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+
+    // the mappings stay valid after the channel is closed
+    try (FileChannel channel =
+        FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      for (int i = 0; i < segments.length; i++) {
+        long start = (long) i << SEGMENT_SHIFT;
+        segments[i] =
+            channel.map(
+                FileChannel.MapMode.READ_WRITE, start, Math.min(SEGMENT_MASK + 1, bytes - start));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * This method gets an int of the mapped file, which holds an array of ints.
+   *
+   * @param index : the position of the int in the array
+   * @return the int
+   */
+  public int getInt(long index) {
+    long offset = index << 2;
+    return segments[(int) (offset >>> SEGMENT_SHIFT)].getInt((int) (offset & SEGMENT_MASK));
+  }
+
+  /**
+   * This method sets an int of the mapped file, which holds an array of ints.
+   *
+   * @param index : the position of the int in the array
+   * @param value : the new value of the int
+   */
+  public void putInt(long index, int value) {
+    long offset = index << 2;
+    segments[(int) (offset >>> SEGMENT_SHIFT)].putInt((int) (offset & SEGMENT_MASK), value);
+  }
+
+  /**
+   * This method gets a long of the mapped file, which holds an array of longs.
+   *
+   * @param index : the position of the long in the array
+   * @return the long
+   */
+  public long getLong(long index) {
+    long offset = index << 3;
+    return segments[(int) (offset >>> SEGMENT_SHIFT)].getLong((int) (offset & SEGMENT_MASK));
+  }
+
+  /**
+   * This method sets a long of the mapped file, which holds an array of longs.
+   *
+   * @param index : the position of the long in the array
+   * @param value : the new value of the long
+   */
+  public void putLong(long index, long value) {
+    long offset = index << 3;
+    segments[(int) (offset >>> SEGMENT_SHIFT)].putLong((int) (offset & SEGMENT_MASK), value);
+  }
+
+  /**
+   * This method gets a bit of the mapped file, which holds a bitmap in an array of longs.
+   *
+   * @param index : the position of the bit in the bitmap
+   * @return true if the bit is set
+   */
+  public boolean getBit(long index) {
+    return (getLong(index >>> 6) & (1L << index)) != 0;
+  }
+
+  /**
+   * This method sets a bit of the mapped file, which holds a bitmap in an array of longs.
+   *
+   * @param index : the position of the bit in the bitmap
+   */
+  public void setBit(long index) {
+    putLong(index >>> 6, getLong(index >>> 6) | (1L << index));
+  }
+
+  /**
+   * This method deletes the file. Its mapped segments are unmapped once they are no longer
+   * referenced, and must not be used after the file is closed.
+   */
+  @Override
+  public void close() {
+    segments = new MappedByteBuffer[0];
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+
+      // the file is removed at exit instead if it cannot be deleted yet
+    }
+  }
+}
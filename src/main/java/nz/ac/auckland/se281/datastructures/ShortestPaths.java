@@ -0,0 +1,205 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * The ShortestPaths class finds unweighted shortest paths between verticies of an adjacency index.
+ * Point-to-point paths are found with a bidirectional breadth-first search over the forward and
+ * reverse adjacency, and single source distances with one breadth-first search.
+ */
+public class ShortestPaths {
+
+  // instance variables
+  private AdjacencyIndex<?> index;
+  private int[] forwardMark;
+  private int[] backwardMark;
+  private int[] forwardParent;
+  private int[] backwardParent;
+  private int[] forwardDistance;
+  private int[] backwardDistance;
+  private int[] forwardQueue;
+  private int[] backwardQueue;
+  private int searchCount;
+
+  // constructor
+  public ShortestPaths(AdjacencyIndex<?> index) {
+    int size = index.size();
+    this.index = index;
+    this.forwardMark = new int[size];
+    this.backwardMark = new int[size];
+    this.forwardParent = new int[size];
+    this.backwardParent = new int[size];
+    this.forwardDistance = new int[size];
+    this.backwardDistance = new int[size];
+    this.forwardQueue = new int[size];
+    this.backwardQueue = new int[size];
+  }
+
+  /**
+   * This method finds a shortest path from the source vertex to the target vertex. The search
+   * alternates between a forward search from the source and a backward search from the target,
+   * always expanding the smaller frontier by one whole level.
+   *
+   * @param source : the id of the vertex the path starts from
+   * @param target : the id of the vertex the path ends at
+   * @return the ids along the path including both ends, or an empty array if there is no path
+   */
+  public int[] findPath(int source, int target) {
+
+    if (source == target) {
+      return new int[] {source};
+    }
+
+    nextSearch();
+    int forwardHead = 0;
+    int forwardTail = 0;
+    int backwardHead = 0;
+    int backwardTail = 0;
+    forwardQueue[forwardTail++] = source;
+    forwardMark[source] = searchCount;
+    forwardDistance[source] = 0;
+    forwardParent[source] = -1;
+    backwardQueue[backwardTail++] = target;
+    backwardMark[target] = searchCount;
+    backwardDistance[target] = 0;
+    backwardParent[target] = -1;
+
+    while (forwardHead < forwardTail && backwardHead < backwardTail) {
+      int meeting = -1;
+      int best = Integer.MAX_VALUE;
+
+      if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+
+        // expands one whole level of the forward search, keeping the shortest meeting point
+        int levelEnd = forwardTail;
+        while (forwardHead < levelEnd) {
+          int vertex = forwardQueue[forwardHead++];
+          for (int i = 0; i < index.getOutDegree(vertex); i++) {
+            int next = index.getOutNeighbour(vertex, i);
+            if (forwardMark[next] == searchCount) {
+              continue;
+            }
+            forwardMark[next] = searchCount;
+            forwardParent[next] = vertex;
+            forwardDistance[next] = forwardDistance[vertex] + 1;
+            forwardQueue[forwardTail++] = next;
+
+            if (backwardMark[next] == searchCount
+                && forwardDistance[next] + backwardDistance[next] < best) {
+              best = forwardDistance[next] + backwardDistance[next];
+              meeting = next;
+            }
+          }
+        }
+      } else {
+
+        // expands one whole level of the backward search, keeping the shortest meeting point
+        int levelEnd = backwardTail;
+        while (backwardHead < levelEnd) {
+          int vertex = backwardQueue[backwardHead++];
+          for (int i = 0; i < index.getInDegree(vertex); i++) {
+            int previous = index.getInNeighbour(vertex, i);
+            if (backwardMark[previous] == searchCount) {
+              continue;
+            }
+            backwardMark[previous] = searchCount;
+            backwardParent[previous] = vertex;
+            backwardDistance[previous] = backwardDistance[vertex] + 1;
+            backwardQueue[backwardTail++] = previous;
+
+            if (forwardMark[previous] == searchCount
+                && forwardDistance[previous] + backwardDistance[previous] < best) {
+              best = forwardDistance[previous] + backwardDistance[previous];
+              meeting = previous;
+            }
+          }
+        }
+      }
+
+      if (meeting != -1) {
+        return joinPath(meeting, best);
+      }
+    }
+
+    return new int[0];
+  }
+
+  /**
+   * This method finds the number of edges on a shortest path from the source vertex to every
+   * vertex, using a single breadth-first search.
+   *
+   * @param source : the id of the vertex the paths start from
+   * @return the distance to each vertex by id, or -1 for verticies that cannot be reached
+   */
+  public int[] findDistances(int source) {
+
+    int[] distances = new int[index.size()];
+    Arrays.fill(distances, -1);
+
+    int head = 0;
+    int tail = 0;
+    forwardQueue[tail++] = source;
+    distances[source] = 0;
+
+    while (head < tail) {
+      int vertex = forwardQueue[head++];
+      for (int i = 0; i < index.getOutDegree(vertex); i++) {
+        int next = index.getOutNeighbour(vertex, i);
+        if (distances[next] == -1) {
+          distances[next] = distances[vertex] + 1;
+          forwardQueue[tail++] = next;
+        }
+      }
+    }
+
+    return distances;
+  }
+
+  /**
+   * This method estimates the number of bytes used by the marks, parents, distances and queues of
+   * both searches, which are kept between searches.
+   *
+   * @return the estimated size in bytes
+   */
+  public long estimateSizeInBytes() {
+    return 8L * (16L + 4L * forwardMark.length);
+  }
+
+  // private methods
+
+  /** This method starts a new search, so that marks of earlier searches are ignored. */
+  private void nextSearch() {
+    searchCount++;
+    if (searchCount == Integer.MAX_VALUE) {
+      Arrays.fill(forwardMark, 0);
+      Arrays.fill(backwardMark, 0);
+      searchCount = 1;
+    }
+  }
+
+  /**
+   * This method joins the forward path to the meeting vertex with the backward path from it.
+   *
+   * @param meeting : the id of a vertex reached by both searches
+   * @param length : the number of edges on the path
+   * @return the ids along the path including both ends
+   */
+  private int[] joinPath(int meeting, int length) {
+
+    int[] path = new int[length + 1];
+
+    // walks back to the source, filling the first half of the path from the meeting vertex
+    int position = forwardDistance[meeting];
+    for (int vertex = meeting; vertex != -1; vertex = forwardParent[vertex]) {
+      path[position--] = vertex;
+    }
+
+    // walks on to the target, filling the second half of the path
+    position = forwardDistance[meeting];
+    for (int vertex = backwardParent[meeting]; vertex != -1; vertex = backwardParent[vertex]) {
+      path[++position] = vertex;
+    }
+
+    return path;
+  }
+}
@@ -0,0 +1,342 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The SuperstepEngine class runs a VertexProgram at every vertex of an adjacency index in
+ * supersteps, in the style of Pregel. The verticies are split into contiguous partitions of about
+ * the same number of verticies and edges, and each partition is computed by its own thread, which
+ * waits at a barrier at the end of every superstep. A partition keeps the messages it sends in one
+ * buffer per receiving partition, and each partition combines the messages sent to it at the
+ * start of the next superstep, so no two threads ever write to the same array element. Messages
+ * are combined in the order of the verticies that sent them, so the result does not depend on the
+ * number of partitions. Adjacency that cannot be read by several threads at once is computed in a
+ * single partition.
+ */
+public class SuperstepEngine {
+
+  private static final int MIN_PARTITION_SIZE = 4096;
+
+  // instance variables
+  private AdjacencyIndex<?> index;
+  private int[] partitionStarts;
+  private int superstepCount;
+  private long[] activity;
+  private boolean finished;
+  private RuntimeException failure;
+
+  // constructors
+  public SuperstepEngine(AdjacencyIndex<?> index) {
+    this(index, Runtime.getRuntime().availableProcessors());
+  }
+
+  public SuperstepEngine(AdjacencyIndex<?> index, int parallelism) {
+    this.index = index;
+
+    // small graphs are not worth the cost of starting threads
+    int partitions = Math.min(parallelism, index.size() / MIN_PARTITION_SIZE);
+    if (!index.isThreadSafe() || partitions < 1) {
+      partitions = 1;
+    }
+
+    // each partition gets about the same share of the verticies and edges
+    this.partitionStarts = new int[partitions + 1];
+    long total = (long) index.size() + index.edgeCount();
+    long weight = 0;
+    int partition = 1;
+    for (int id = 0; id < index.size() && partition < partitions; id++) {
+      weight += 1 + index.getOutDegree(id);
+      if (weight * partitions >= total * partition) {
+        partitionStarts[partition++] = id + 1;
+      }
+    }
+    for (; partition <= partitions; partition++) {
+      partitionStarts[partition] = index.size();
+    }
+  }
+
+  /**
+   * This method runs a program until every vertex has voted to halt and no messages are waiting,
+   * or until the maximum number of supersteps has been run.
+   *
+   * @param program : the program to compute at each vertex
+   * @param initialValues : the value of each vertex by id before the first superstep
+   * @param maxSupersteps : the maximum number of supersteps to run
+   * @return the value of each vertex by id after the last superstep
+   */
+  public long[] run(VertexProgram program, long[] initialValues, int maxSupersteps) {
+
+    int partitions = partitionStarts.length - 1;
+    long[] values = Arrays.copyOf(initialValues, index.size());
+    long[] messages = new long[index.size()];
+    boolean[] received = new boolean[index.size()];
+
+    // the outboxes alternate between supersteps, so one superstep is sent while the last is read
+    MessageBuffer[][][] outboxes = new MessageBuffer[2][partitions][partitions];
+    for (MessageBuffer[][] superstepOutboxes : outboxes) {
+      for (MessageBuffer[] partitionOutbox : superstepOutboxes) {
+        for (int i = 0; i < partitions; i++) {
+          partitionOutbox[i] = new MessageBuffer();
+        }
+      }
+    }
+
+    superstepCount = 0;
+    finished = maxSupersteps <= 0;
+    failure = null;
+    activity = new long[partitions];
+    if (finished) {
+      return values;
+    }
+
+    // the last thread to reach the barrier decides whether another superstep is needed
+    CyclicBarrier barrier =
+        new CyclicBarrier(
+            partitions,
+            () -> {
+              superstepCount++;
+              finished =
+                  failure != null
+                      || superstepCount >= maxSupersteps
+                      || Arrays.stream(activity).sum() == 0;
+            });
+
+    List<Runnable> workers = new ArrayList<>();
+    for (int p = 0; p < partitions; p++) {
+      int partition = p;
+      VertexContext context = new VertexContext(index, partitionStarts, values, messages, received);
+      workers.add(
+          () ->
+              computePartition(
+                  program, partition, context, outboxes, messages, received, barrier));
+    }
+
+    if (partitions == 1) {
+      workers.get(0).run();
+    } else {
+      runInParallel(workers);
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+    return values;
+  }
+
+  /**
+   * This method gets the number of supersteps run by the last program.
+   *
+   * @return the number of supersteps
+   */
+  public int getSuperstepCount() {
+    return superstepCount;
+  }
+
+  /**
+   * This method gets the number of partitions the verticies are computed in.
+   *
+   * @return the number of partitions
+   */
+  public int getPartitionCount() {
+    return partitionStarts.length - 1;
+  }
+
+  // private methods
+
+  /**
+   * This method computes one partition of the verticies in every superstep, first combining the
+   * messages sent to the partition in the previous superstep.
+   *
+   * @param program : the program to compute at each vertex
+   * @param partition : the partition to compute
+   * @param context : the context of the partition
+   * @param outboxes : the messages sent in the last two supersteps, by sending then receiving
+   *     partition
+   * @param messages : the combined message of each vertex
+   * @param received : whether each vertex has a message
+   * @param barrier : the barrier every partition waits at after each superstep
+   */
+  private void computePartition(
+      VertexProgram program,
+      int partition,
+      VertexContext context,
+      MessageBuffer[][][] outboxes,
+      long[] messages,
+      boolean[] received,
+      CyclicBarrier barrier) {
+
+    int start = partitionStarts[partition];
+    int size = partitionStarts[partition + 1] - start;
+
+    // only the verticies that have not halted or were sent a message are visited, in id order, so
+    // a superstep costs no more than the verticies it computes
+    int[] running = new int[size];
+    int[] woken = new int[size];
+    int[] computed = new int[size];
+    int runningCount = size;
+    int wokenCount = 0;
+    for (int i = 0; i < size; i++) {
+      running[i] = start + i;
+    }
+
+    try {
+      for (int superstep = 0; !finished; superstep++) {
+
+        // combines the messages sent to the partition in sending order, then empties the buffers
+        for (int i = 0; i < wokenCount; i++) {
+          received[woken[i]] = false;
+        }
+        wokenCount = 0;
+        for (MessageBuffer[] sent : outboxes[(superstep + 1) % 2]) {
+          MessageBuffer buffer = sent[partition];
+          for (int i = 0; i < buffer.size; i++) {
+            int target = buffer.targets[i];
+            if (received[target]) {
+              messages[target] = program.combine(messages[target], buffer.messages[i]);
+            } else {
+              messages[target] = buffer.messages[i];
+              received[target] = true;
+              woken[wokenCount++] = target;
+            }
+          }
+          buffer.size = 0;
+        }
+
+        // a halted vertex is woken by a message, so the woken verticies join the running ones
+        Arrays.sort(woken, 0, wokenCount);
+        int computedCount = merge(running, runningCount, woken, wokenCount, computed);
+
+        MessageBuffer[] outbox = outboxes[superstep % 2][partition];
+        runningCount = 0;
+        try {
+          for (int i = 0; i < computedCount; i++) {
+            context.begin(superstep, computed[i], outbox);
+            program.compute(context);
+            if (!context.isHalted()) {
+              running[runningCount++] = computed[i];
+            }
+          }
+        } catch (RuntimeException e) {
+
+          // the partition still reaches the barrier, which then ends the run for every partition
+          recordFailure(e);
+        }
+
+        long active = runningCount;
+        for (MessageBuffer buffer : outbox) {
+          active += buffer.size;
+        }
+        activity[partition] = active;
+        barrier.await();
+      }
+    } catch (InterruptedException e) {
+
+      // the other partitions are released from the barrier, and the run reports that it stopped
+      Thread.currentThread().interrupt();
+      barrier.reset();
+      recordFailure(new IllegalStateException("Interrupted while running a vertex program", e));
+    } catch (BrokenBarrierException e) {
+      recordFailure(new IllegalStateException("Interrupted while running a vertex program", e));
+    }
+  }
+
+  /**
+   * This method records why a partition failed, keeping the first failure of the run.
+   *
+   * @param e : the exception thrown by the partition
+   */
+  private synchronized void recordFailure(RuntimeException e) {
+    if (failure == null) {
+      failure = e;
+    }
+  }
+
+  /**
+   * This method merges two sorted arrays of ids into a third, keeping ids in both arrays once.
+   *
+   * @param first : the first sorted ids
+   * @param firstCount : the number of ids in the first array
+   * @param second : the second sorted ids
+   * @param secondCount : the number of ids in the second array
+   * @param merged : the array to merge into, which is large enough for both
+   * @return the number of merged ids
+   */
+  private int merge(int[] first, int firstCount, int[] second, int secondCount, int[] merged) {
+    int count = 0;
+    int i = 0;
+    int j = 0;
+    while (i < firstCount || j < secondCount) {
+      if (j == secondCount || (i < firstCount && first[i] < second[j])) {
+        merged[count++] = first[i++];
+      } else if (i == firstCount || second[j] < first[i]) {
+        merged[count++] = second[j++];
+      } else {
+        merged[count++] = first[i++];
+        j++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * This method runs each partition on its own thread and waits for all of them to finish.
+   *
+   * @param workers : the computation of each partition
+   */
+  private void runInParallel(List<Runnable> workers) {
+    ExecutorService threads = Executors.newFixedThreadPool(workers.size());
+
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (Runnable worker : workers) {
+        results.add(threads.submit(worker));
+      }
+
+      // the partitions record the exceptions of the program, so only errors reach here
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A vertex program failed", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while running a vertex program", e);
+    } finally {
+      threads.shutdownNow();
+    }
+  }
+
+  /** The messages one partition sends to another in a superstep, in the order they are sent. */
+  static class MessageBuffer {
+
+    private static final int MINIMUM_CAPACITY = 16;
+
+    // instance variables
+    private int[] targets = new int[MINIMUM_CAPACITY];
+    private long[] messages = new long[MINIMUM_CAPACITY];
+    private int size;
+
+    /**
+     * This method adds a message to the buffer.
+     *
+     * @param target : the id of the vertex the message is sent to
+     * @param message : the message
+     */
+    void add(int target, long message) {
+      if (size == targets.length) {
+        targets = Arrays.copyOf(targets, size * 2);
+        messages = Arrays.copyOf(messages, size * 2);
+      }
+      targets[size] = target;
+      messages[size++] = message;
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * The VertexContext class is the view a VertexProgram has of the vertex it is computing. It gives
+ * the value of the vertex, the combined message sent to it in the previous superstep and its
+ * edges, and sends messages that are delivered in the next superstep. Each partition of the
+ * SuperstepEngine reuses one context for all of its verticies.
+ */
+public class VertexContext {
+
+  // instance variables
+  private AdjacencyIndex<?> index;
+  private int[] partitionStarts;
+  private long[] values;
+  private long[] messages;
+  private boolean[] received;
+  private SuperstepEngine.MessageBuffer[] outbox;
+  private int superstep;
+  private int id;
+  private boolean halted;
+
+  // constructor
+  VertexContext(
+      AdjacencyIndex<?> index,
+      int[] partitionStarts,
+      long[] values,
+      long[] messages,
+      boolean[] received) {
+    this.index = index;
+    this.partitionStarts = partitionStarts;
+    this.values = values;
+    this.messages = messages;
+    this.received = received;
+  }
+
+  /**
+   * This method gets the number of the superstep being computed, which starts from 0.
+   *
+   * @return the superstep
+   */
+  public int getSuperstep() {
+    return superstep;
+  }
+
+  /**
+   * This method gets the id of the vertex being computed.
+   *
+   * @return the id of the vertex
+   */
+  public int getId() {
+    return id;
+  }
+
+  /**
+   * This method gets the value of the vertex being computed.
+   *
+   * @return the value
+   */
+  public long getValue() {
+    return values[id];
+  }
+
+  /**
+   * This method sets the value of the vertex being computed.
+   *
+   * @param value : the new value
+   */
+  public void setValue(long value) {
+    values[id] = value;
+  }
+
+  /**
+   * This method determines whether the vertex was sent any message in the previous superstep,
+   * returns true if so.
+   *
+   * @return a boolean
+   */
+  public boolean hasMessage() {
+    return received[id];
+  }
+
+  /**
+   * This method gets the messages sent to the vertex in the previous superstep, combined into one.
+   *
+   * @return the combined message, which is only meaningful if the vertex has a message
+   */
+  public long getMessage() {
+    return messages[id];
+  }
+
+  /**
+   * This method gets the number of edges that start from the vertex.
+   *
+   * @return the out degree
+   */
+  public int getOutDegree() {
+    return index.getOutDegree(id);
+  }
+
+  /**
+   * This method gets the i-th vertex adjacent to the vertex, in ascending order.
+   *
+   * @param i : the position of the neighbour, from 0 up to the out degree
+   * @return the id of the neighbour
+   */
+  public int getOutNeighbour(int i) {
+    return index.getOutNeighbour(id, i);
+  }
+
+  /**
+   * This method gets the number of edges that end at the vertex.
+   *
+   * @return the in degree
+   */
+  public int getInDegree() {
+    return index.getInDegree(id);
+  }
+
+  /**
+   * This method gets the i-th vertex with an edge to the vertex, in ascending order.
+   *
+   * @param i : the position of the neighbour, from 0 up to the in degree
+   * @return the id of the neighbour
+   */
+  public int getInNeighbour(int i) {
+    return index.getInNeighbour(id, i);
+  }
+
+  /**
+   * This method sends a message to a vertex, which reads it in the next superstep.
+   *
+   * @param target : the id of the vertex to send to
+   * @param message : the message
+   */
+  public void sendMessage(int target, long message) {
+    if (target < 0 || target >= values.length) {
+      throw new IllegalArgumentException("Messages can only be sent to verticies of the graph");
+    }
+
+    // the last partition that starts at or before the target holds it
+    int low = 0;
+    int high = partitionStarts.length - 2;
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+      if (partitionStarts[middle] <= target) {
+        low = middle;
+      } else {
+        high = middle - 1;
+      }
+    }
+    outbox[low].add(target, message);
+  }
+
+  /**
+   * This method sends the same message to every vertex adjacent to the vertex.
+   *
+   * @param message : the message
+   */
+  public void sendToOutNeighbours(long message) {
+    for (int i = 0; i < index.getOutDegree(id); i++) {
+      sendMessage(index.getOutNeighbour(id, i), message);
+    }
+  }
+
+  /**
+   * This method halts the vertex once this superstep ends. A halted vertex is only computed again
+   * if it is sent a message.
+   */
+  public void voteToHalt() {
+    halted = true;
+  }
+
+  /**
+   * This method starts computing a vertex.
+   *
+   * @param superstep : the superstep being computed
+   * @param id : the id of the vertex
+   * @param outbox : the messages sent by the partition in this superstep, by receiving partition
+   */
+  void begin(int superstep, int id, SuperstepEngine.MessageBuffer[] outbox) {
+    this.superstep = superstep;
+    this.id = id;
+    this.outbox = outbox;
+    this.halted = false;
+  }
+
+  /**
+   * This method determines whether the vertex voted to halt, returns true if so.
+   *
+   * @return a boolean
+   */
+  boolean isHalted() {
+    return halted;
+  }
+}
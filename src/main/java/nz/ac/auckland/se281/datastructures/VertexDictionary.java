@@ -0,0 +1,40 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * The VertexDictionary interface maps between the verticies of a graph and dense integer ids, from
+ * 0 up to the number of verticies.
+ *
+ * @param <T> The type of each vertex.
+ */
+public interface VertexDictionary<T> {
+
+  /**
+   * This method gets the number of verticies in the dictionary.
+   *
+   * @return the number of verticies
+   */
+  public int size();
+
+  /**
+   * This method gets the id of the input vertex, or -1 if the vertex is not in the dictionary.
+   *
+   * @param vertex : a vertex
+   * @return the id of the vertex
+   */
+  public int getId(T vertex);
+
+  /**
+   * This method gets the vertex with the input id.
+   *
+   * @param id : the id of a vertex
+   * @return the vertex
+   */
+  public T getVertex(int id);
+
+  /**
+   * This method estimates the number of bytes used by the dictionary.
+   *
+   * @return the estimated size in bytes
+   */
+  public long estimateSizeInBytes();
+}
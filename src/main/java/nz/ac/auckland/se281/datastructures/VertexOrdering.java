@@ -0,0 +1,29 @@
+package nz.ac.auckland.se281.datastructures;
+
+/** The orders that the verticies of a graph can be numbered in, for locality of memory access. */
+public enum VertexOrdering {
+  NONE("in vertex order"),
+  BFS("in breadth-first search order"),
+  RCM("in reverse Cuthill-McKee order"),
+  DEGREE("by descending degree");
+
+  private final String description;
+
+  /**
+   * Create a new vertex ordering.
+   *
+   * @param description The description of how the verticies are numbered.
+   */
+  private VertexOrdering(final String description) {
+    this.description = description;
+  }
+
+  /**
+   * Get the description of how the verticies are numbered.
+   *
+   * @return The description.
+   */
+  public String getDescription() {
+    return description;
+  }
+}
@@ -0,0 +1,29 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * The VertexProgram interface is a computation run by the SuperstepEngine at every vertex of a
+ * graph, in the style of Pregel. In each superstep every vertex that has not voted to halt, or that
+ * has been sent a message, computes from its value and the messages sent to it in the previous
+ * superstep, and may change its value, send messages along its edges and vote to halt. The
+ * messages sent to a vertex are combined into one, so a vertex reads at most one message.
+ */
+public interface VertexProgram {
+
+  /**
+   * This method combines two messages sent to the same vertex into one. It may be called from
+   * several threads at once, so it must not change any shared state.
+   *
+   * @param first : a message sent to the vertex
+   * @param second : a message sent to the vertex after the first
+   * @return the combined message
+   */
+  public long combine(long first, long second);
+
+  /**
+   * This method computes a vertex in a superstep. It may be called from several threads at once,
+   * for different verticies, so it must only change the graph through the context.
+   *
+   * @param context : the vertex being computed, its value, its message and its edges
+   */
+  public void compute(VertexContext context);
+}
@@ -0,0 +1,221 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * The VertexRelabelling class renumbers the verticies of a graph so that verticies which are used
+ * together have nearby ids, and so nearby rows in the adjacency. The rank of a vertex is its
+ * position in the total ordering of the verticies, which is kept so that results can still be
+ * reported in vertex order.
+ */
+public class VertexRelabelling {
+
+  // instance variables
+  private int[] ids;
+  private int[] ranks;
+
+  // constructor
+  public VertexRelabelling(VertexOrdering ordering, int size, PackedEdgeSet edges) {
+
+    // builds the forward and reverse rows over ranks, which together give every neighbour
+    long[] sortedEdges = edges.toSortedArray();
+    int[] outOffsets = new int[size + 1];
+    int[] outRows = PackedEdgeSet.toRows(sortedEdges, size, true, outOffsets);
+    int[] inOffsets = new int[size + 1];
+    int[] inRows = PackedEdgeSet.toRows(sortedEdges, size, false, inOffsets);
+    int[] degrees = new int[size];
+    for (int rank = 0; rank < size; rank++) {
+      degrees[rank] = outOffsets[rank + 1] - outOffsets[rank];
+      degrees[rank] += inOffsets[rank + 1] - inOffsets[rank];
+    }
+
+    // the order lists the rank of each vertex by its new id
+    int[] order = new int[size];
+    for (int rank = 0; rank < size; rank++) {
+      order[rank] = rank;
+    }
+
+    switch (ordering) {
+      case BFS:
+        order = searchOrder(order, false, outOffsets, outRows, inOffsets, inRows, degrees);
+        break;
+      case RCM:
+        sortByDegree(order, 0, size, degrees, true);
+        order = searchOrder(order, true, outOffsets, outRows, inOffsets, inRows, degrees);
+        reverse(order);
+        break;
+      case DEGREE:
+        sortByDegree(order, 0, size, degrees, false);
+        break;
+      default:
+        break;
+    }
+
+    this.ranks = order;
+    this.ids = new int[size];
+    for (int id = 0; id < size; id++) {
+      ids[ranks[id]] = id;
+    }
+  }
+
+  /**
+   * This method gets the new id of the vertex with the input rank.
+   *
+   * @param rank : the position of a vertex in vertex order
+   * @return the id of the vertex
+   */
+  public int getId(int rank) {
+    return ids[rank];
+  }
+
+  /**
+   * This method gets the rank of the vertex with the input new id.
+   *
+   * @param id : the id of a vertex
+   * @return the position of the vertex in vertex order
+   */
+  public int getRank(int id) {
+    return ranks[id];
+  }
+
+  /**
+   * This method converts a set of edges between ranks into a set of edges between new ids.
+   *
+   * @param edges : the edges between ranks
+   * @return the edges between new ids
+   */
+  public PackedEdgeSet relabel(PackedEdgeSet edges) {
+    PackedEdgeSet relabelled = new PackedEdgeSet(edges.size());
+    for (long edge : edges.toSortedArray()) {
+      relabelled.add(ids[PackedEdgeSet.getSource(edge)], ids[PackedEdgeSet.getTarget(edge)]);
+    }
+    return relabelled;
+  }
+
+  /**
+   * This method sorts every row of a compressed sparse row (CSR) adjacency over new ids into
+   * ascending vertex order, so that neighbours are still visited in vertex order.
+   *
+   * @param offsets : the start of each row
+   * @param rows : the concatenated rows of new ids
+   */
+  public void sortRows(int[] offsets, int[] rows) {
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = ranks[rows[i]];
+    }
+    for (int id = 0; id + 1 < offsets.length; id++) {
+      Arrays.sort(rows, offsets[id], offsets[id + 1]);
+    }
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = ids[rows[i]];
+    }
+  }
+
+  /**
+   * This method estimates the number of bytes used by the relabelling.
+   *
+   * @return the estimated size in bytes
+   */
+  public long estimateSizeInBytes() {
+    return 4L * (ids.length + ranks.length);
+  }
+
+  // private methods
+
+  /**
+   * This method numbers the verticies by a breadth-first search that ignores edge direction,
+   * starting a new search from the first unvisited vertex of the start order whenever a search
+   * ends.
+   *
+   * @param starts : the ranks in the order that searches may start from
+   * @param byDegree : whether the verticies found from each vertex are queued by ascending degree
+   * @param outOffsets : the start of each forward row
+   * @param outRows : the forward rows over ranks
+   * @param inOffsets : the start of each reverse row
+   * @param inRows : the reverse rows over ranks
+   * @param degrees : the number of edges of each vertex in either direction
+   * @return the ranks in the order they were visited
+   */
+  private int[] searchOrder(
+      int[] starts,
+      boolean byDegree,
+      int[] outOffsets,
+      int[] outRows,
+      int[] inOffsets,
+      int[] inRows,
+      int[] degrees) {
+
+    int size = starts.length;
+    boolean[] visited = new boolean[size];
+    int[] queue = new int[size];
+    int head = 0;
+    int tail = 0;
+
+    for (int start : starts) {
+      if (visited[start]) {
+        continue;
+      }
+      visited[start] = true;
+      queue[tail++] = start;
+
+      // the queue itself becomes the order, since every vertex is queued exactly once
+      while (head < tail) {
+        int vertex = queue[head++];
+        int found = tail;
+        for (int i = outOffsets[vertex]; i < outOffsets[vertex + 1]; i++) {
+          if (!visited[outRows[i]]) {
+            visited[outRows[i]] = true;
+            queue[tail++] = outRows[i];
+          }
+        }
+        for (int i = inOffsets[vertex]; i < inOffsets[vertex + 1]; i++) {
+          if (!visited[inRows[i]]) {
+            visited[inRows[i]] = true;
+            queue[tail++] = inRows[i];
+          }
+        }
+        if (byDegree && tail - found > 1) {
+          sortByDegree(queue, found, tail, degrees, true);
+        }
+      }
+    }
+
+    return queue;
+  }
+
+  /**
+   * This method sorts part of an array of ranks by degree, keeping ties in rank order.
+   *
+   * @param verticies : the ranks to sort
+   * @param from : the first position to sort, inclusive
+   * @param to : the last position to sort, exclusive
+   * @param degrees : the number of edges of each vertex in either direction
+   * @param ascending : whether the smallest degree comes first
+   */
+  private void sortByDegree(int[] verticies, int from, int to, int[] degrees, boolean ascending) {
+
+    // packs the degree above the rank, so one sort of longs orders by degree and then rank
+    long[] keys = new long[to - from];
+    for (int i = from; i < to; i++) {
+      int degree = ascending ? degrees[verticies[i]] : Integer.MAX_VALUE - degrees[verticies[i]];
+      keys[i - from] = ((long) degree << 32) | verticies[i];
+    }
+    Arrays.sort(keys);
+    for (int i = from; i < to; i++) {
+      verticies[i] = (int) keys[i - from];
+    }
+  }
+
+  /**
+   * This method reverses an array in place.
+   *
+   * @param values : the array to reverse
+   */
+  private void reverse(int[] values) {
+    for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+      int swap = values[i];
+      values[i] = values[j];
+      values[j] = swap;
+    }
+  }
+}
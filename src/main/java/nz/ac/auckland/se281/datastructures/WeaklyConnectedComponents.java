@@ -0,0 +1,168 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The WeaklyConnectedComponents class finds the weakly connected components of an adjacency index,
+ * which are the sets of verticies joined by edges when their directions are ignored. The edges are
+ * split into chunks of sources with about the same number of edges, and each chunk is joined into
+ * a ConcurrentUnionFind by its own thread. Adjacency that cannot be read by several threads at once
+ * is joined in a single chunk. The components are numbered from 0 in vertex order of their
+ * smallest vertex, and the verticies are given by their position in vertex order.
+ */
+public class WeaklyConnectedComponents {
+
+  private static final int MIN_CHUNK_EDGES = 1 << 16;
+
+  // instance variables
+  private int[] components;
+  private int[] sizes;
+  private int[] firstPositions;
+
+  // constructors
+  public WeaklyConnectedComponents(AdjacencyIndex<?> index) {
+    this(index, Runtime.getRuntime().availableProcessors());
+  }
+
+  public WeaklyConnectedComponents(AdjacencyIndex<?> index, int parallelism) {
+
+    ConcurrentUnionFind sets = new ConcurrentUnionFind(index.size());
+    int chunks = Math.min(parallelism, index.edgeCount() / MIN_CHUNK_EDGES);
+    if (!index.isThreadSafe() || chunks <= 1) {
+      joinChunk(index, sets, 0, index.size());
+    } else {
+      joinInParallel(index, sets, chunks);
+    }
+
+    // numbers each component when its first vertex in vertex order is reached
+    int[] componentOfRoot = new int[index.size()];
+    Arrays.fill(componentOfRoot, -1);
+    this.components = new int[index.size()];
+    int[] counts = new int[index.size()];
+    int[] firsts = new int[index.size()];
+    int count = 0;
+
+    for (int position = 0; position < index.size(); position++) {
+      int root = sets.find(index.getIdAtRank(position));
+      if (componentOfRoot[root] == -1) {
+        firsts[count] = position;
+        componentOfRoot[root] = count++;
+      }
+      components[position] = componentOfRoot[root];
+      counts[components[position]]++;
+    }
+
+    this.sizes = Arrays.copyOf(counts, count);
+    this.firstPositions = Arrays.copyOf(firsts, count);
+  }
+
+  /**
+   * This method gets the number of weakly connected components.
+   *
+   * @return the number of components
+   */
+  public int getComponentCount() {
+    return sizes.length;
+  }
+
+  /**
+   * This method gets the component of a vertex.
+   *
+   * @param position : the position of the vertex in vertex order
+   * @return the number of its component
+   */
+  public int getComponent(int position) {
+    return components[position];
+  }
+
+  /**
+   * This method gets the number of verticies in a component.
+   *
+   * @param component : the number of a component
+   * @return the size of the component
+   */
+  public int getSize(int component) {
+    return sizes[component];
+  }
+
+  /**
+   * This method gets the smallest vertex of a component.
+   *
+   * @param component : the number of a component
+   * @return the position of the vertex in vertex order
+   */
+  public int getFirstPosition(int component) {
+    return firstPositions[component];
+  }
+
+  // private methods
+
+  /**
+   * This method joins the ends of every edge that starts from a range of verticies.
+   *
+   * @param index : the adjacency to join
+   * @param sets : the sets of verticies
+   * @param start : the id of the first source
+   * @param end : the id after the last source
+   */
+  private static void joinChunk(
+      AdjacencyIndex<?> index, ConcurrentUnionFind sets, int start, int end) {
+    for (int id = start; id < end; id++) {
+      for (int i = 0; i < index.getOutDegree(id); i++) {
+        sets.union(id, index.getOutNeighbour(id, i));
+      }
+    }
+  }
+
+  /**
+   * This method joins chunks of about the same number of edges on their own threads, and waits for
+   * all of them to finish.
+   *
+   * @param index : the adjacency to join
+   * @param sets : the sets of verticies
+   * @param chunks : the number of chunks
+   */
+  private static void joinInParallel(
+      AdjacencyIndex<?> index, ConcurrentUnionFind sets, int chunks) {
+
+    // each chunk ends once it holds its share of the edges
+    int[] starts = new int[chunks + 1];
+    long edges = 0;
+    int chunk = 1;
+    for (int id = 0; id < index.size() && chunk < chunks; id++) {
+      edges += index.getOutDegree(id);
+      if (edges * chunks >= (long) index.edgeCount() * chunk) {
+        starts[chunk++] = id + 1;
+      }
+    }
+    for (; chunk <= chunks; chunk++) {
+      starts[chunk] = index.size();
+    }
+
+    ExecutorService threads = Executors.newFixedThreadPool(chunks);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int c = 0; c < chunks; c++) {
+        int start = starts[c];
+        int end = starts[c + 1];
+        results.add(threads.submit(() -> joinChunk(index, sets, start, end)));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Failed to join the components", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while joining the components", e);
+    } finally {
+      threads.shutdownNow();
+    }
+  }
+}
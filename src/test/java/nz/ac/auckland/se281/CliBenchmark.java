@@ -0,0 +1,220 @@
+package nz.ac.auckland.se281;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replays scripts of commands through the command line interface and reports how many commands it
+ * runs per second and how long each kind of command takes. Each command is timed through the whole
+ * of Main, including finding the command, formatting its messages and writing them to the output,
+ * which is captured and counted rather than printed.
+ *
+ * <p>Run it with "mvn -Pbenchmark test-compile exec:java@benchmark", adding for example
+ * -Dexec.args="--warmup 5 --iterations 20 benchmarks/session.txt" to choose the scripts and how
+ * many times they are replayed. Without any scripts, every ".txt" file in `benchmarks` is replayed.
+ * Scripts hold one command per line, and blank lines and lines starting with '#' are skipped.
+ */
+public class CliBenchmark {
+  private static final Path SCRIPTS = Path.of("benchmarks");
+
+  private static final int DEFAULT_WARMUP = 5;
+
+  private static final int DEFAULT_ITERATIONS = 20;
+
+  private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+  /** The times taken by every run of one kind of command. */
+  private static class Latencies {
+    private long[] nanos = new long[16];
+
+    private int count;
+
+    /**
+     * Records the time taken by one run of the command.
+     *
+     * @param elapsed The time in nanoseconds.
+     */
+    public void add(final long elapsed) {
+      if (count == nanos.length) {
+        nanos = Arrays.copyOf(nanos, count * 2);
+      }
+
+      nanos[count++] = elapsed;
+    }
+  }
+
+  /** Counts the bytes written to it, which are then thrown away. */
+  private static class CountingOutputStream extends OutputStream {
+    private long bytes;
+
+    @Override
+    public void write(final int b) {
+      bytes++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+      bytes += len;
+    }
+  }
+
+  /**
+   * Replays the scripts given on the command line.
+   *
+   * @param args The options and the scripts to replay.
+   * @throws IOException If a script cannot be read.
+   */
+  public static void main(final String[] args) throws IOException {
+    int warmup = DEFAULT_WARMUP;
+    int iterations = DEFAULT_ITERATIONS;
+    final List<Path> scripts = new ArrayList<>();
+
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("--warmup") && i + 1 < args.length) {
+        warmup = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("--iterations") && i + 1 < args.length) {
+        iterations = Integer.parseInt(args[++i]);
+      } else {
+        scripts.add(Path.of(args[i]));
+      }
+    }
+
+    if (scripts.isEmpty()) {
+      try (Stream<Path> files = Files.list(SCRIPTS)) {
+        files.filter(file -> file.toString().endsWith(".txt")).sorted().forEach(scripts::add);
+      }
+    }
+
+    for (final Path script : scripts) {
+      benchmark(script, warmup, Math.max(1, iterations));
+    }
+  }
+
+  /**
+   * Replays a script, first without timing it so that the commands are compiled, then timing each
+   * of its commands, and prints a report of the timed replays.
+   *
+   * @param script The script of commands.
+   * @param warmup The number of replays before timing.
+   * @param iterations The number of timed replays.
+   * @throws IOException If the script cannot be read.
+   */
+  private static void benchmark(final Path script, final int warmup, final int iterations)
+      throws IOException {
+    final List<String> commands =
+        Files.readAllLines(script).stream()
+            .map(String::trim)
+            .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+            .collect(Collectors.toList());
+
+    final Map<String, Latencies> latencies = new LinkedHashMap<>();
+    final PrintStream report = System.out;
+    final CountingOutputStream output = new CountingOutputStream();
+    System.setOut(new PrintStream(output));
+
+    try {
+      for (int i = 0; i < warmup; i++) {
+        replay(commands, null);
+      }
+
+      output.bytes = 0;
+
+      for (int i = 0; i < iterations; i++) {
+        replay(commands, latencies);
+      }
+    } finally {
+      System.setOut(report);
+    }
+
+    long totalNanos = 0;
+    int totalCount = 0;
+
+    for (final Latencies command : latencies.values()) {
+      for (int i = 0; i < command.count; i++) {
+        totalNanos += command.nanos[i];
+      }
+
+      totalCount += command.count;
+    }
+
+    report.printf(
+        "%s: %d warm-up and %d timed replays of %d commands%n",
+        script, warmup, iterations, commands.size());
+    report.printf(
+        "  %d commands in %.1f ms, %.0f commands/second, %d bytes of output per replay%n",
+        totalCount, totalNanos / 1e6, totalCount / (totalNanos / 1e9), output.bytes / iterations);
+    report.printf(
+        "  %-26s %7s %10s %10s %10s %10s %10s%n",
+        "COMMAND", "COUNT", "MEAN us", "P50 us", "P90 us", "P99 us", "MAX us");
+
+    for (final Map.Entry<String, Latencies> entry : latencies.entrySet()) {
+      final Latencies command = entry.getValue();
+      final long[] sorted = Arrays.copyOf(command.nanos, command.count);
+      Arrays.sort(sorted);
+
+      final StringBuilder sb = new StringBuilder();
+      sb.append(String.format("  %-26s %7d", entry.getKey(), sorted.length));
+      sb.append(String.format(" %10.1f", Arrays.stream(sorted).average().orElse(0) / 1e3));
+
+      for (final double percentile : PERCENTILES) {
+        // The nearest rank percentile, which is always one of the recorded times.
+        final int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+        sb.append(String.format(" %10.1f", sorted[Math.max(0, rank)] / 1e3));
+      }
+
+      sb.append(String.format(" %10.1f", sorted[sorted.length - 1] / 1e3));
+      report.println(sb);
+    }
+
+    report.println();
+  }
+
+  /**
+   * Replays a script through a new command line interface. A script that does not exit is exited
+   * afterwards, without timing it, so that any graph it opened is released.
+   *
+   * @param commands The commands of the script.
+   * @param latencies The times of each kind of command to add to, or null to not time them.
+   */
+  private static void replay(final List<String> commands, final Map<String, Latencies> latencies) {
+    final Main main = new Main(new Scanner(""));
+    boolean running = true;
+
+    for (int i = 0; i < commands.size() && running; i++) {
+      final String command = commands.get(i);
+      final long start = System.nanoTime();
+      running = main.processCommand(command);
+      final long elapsed = System.nanoTime() - start;
+
+      if (latencies != null) {
+        latencies.computeIfAbsent(getName(command), name -> new Latencies()).add(elapsed);
+      }
+    }
+
+    if (running) {
+      main.processCommand(Command.EXIT.toString());
+    }
+  }
+
+  /**
+   * Gets the name of a command in the way that Main finds it, so that the same command written in
+   * different ways is counted together.
+   *
+   * @param command The command with its arguments.
+   * @return The name of the command.
+   */
+  private static String getName(final String command) {
+    return command.split(" ")[0].toUpperCase().replaceAll("-", "_");
+  }
+}
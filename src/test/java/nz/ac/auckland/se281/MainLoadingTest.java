@@ -0,0 +1,87 @@
+package nz.ac.auckland.se281;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Scanner;
+import nz.ac.auckland.se281.datastructures.GraphStorage;
+import nz.ac.auckland.se281.datastructures.VertexOrdering;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests how the command line interface reports files that fail to open in the background. Real
+ * files cannot be made to fail with an I/O error on every platform, so the loading is replaced
+ * through Main directly rather than run through CliTest.
+ */
+public class MainLoadingTest {
+  private final ByteArrayOutputStream captureOut = new ByteArrayOutputStream();
+
+  private PrintStream origOut;
+
+  @Before
+  public void setUp() {
+    origOut = System.out;
+    System.setOut(new PrintStream(captureOut));
+  }
+
+  @After
+  public void tearDown() {
+    System.setOut(origOut);
+  }
+
+  @Test
+  public void testAsyncIoErrorKeepsOpenGraph() {
+    final Main main =
+        new Main(new Scanner("")) {
+          @Override
+          GraphCalculator openInBackground(
+              final String filename,
+              final GraphStorage storage,
+              final VertexOrdering ordering,
+              final LoadProgress progress) {
+            throw new UncheckedIOException(new IOException("Input/output error"));
+          }
+        };
+
+    // The failed load is reported between commands, and the open graph still answers them.
+    for (final String command :
+        List.of("open-file a.txt", "open-file-async b.txt", "wait-load", "info")) {
+      assertTrue(main.processCommand(command));
+    }
+
+    final String output = captureOut.toString();
+    assertTrue(output.contains("Error: file 'b.txt' could not be read, Input/output error"));
+    assertTrue(output.contains("File name: a.txt"));
+  }
+
+  @Test
+  public void testAsyncOtherFailureKeepsOpenGraph() {
+    final Main main =
+        new Main(new Scanner("")) {
+          @Override
+          GraphCalculator openInBackground(
+              final String filename,
+              final GraphStorage storage,
+              final VertexOrdering ordering,
+              final LoadProgress progress) {
+            throw new OutOfMemoryError("Java heap space");
+          }
+        };
+
+    for (final String command :
+        List.of("open-file a.txt", "open-file-async b.txt", "wait-load", "info")) {
+      assertTrue(main.processCommand(command));
+    }
+
+    final String output = captureOut.toString();
+    assertTrue(output.contains("Error: file 'b.txt' could not be opened"));
+    assertTrue(output.contains("java.lang.OutOfMemoryError: Java heap space"));
+    assertTrue(output.contains("File name: a.txt"));
+  }
+}
@@ -1,7 +1,18 @@
 package nz.ac.auckland.se281;
 
 import static nz.ac.auckland.se281.Command.*;
-
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -494,5 +505,517 @@ public class MainTest {
       assertContains("Successfully opened graph from file w.txt");
       assertContains("[0, 1, 3, 2, 4, 5, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 6]");
     }
+
+    @Test
+    public void TY_G_reachable() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", REACHABLE, 1, 12);
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("Built reachability index in");
+      assertContains("Vertex 12 is reachable from vertex 1");
+    }
+
+    @Test
+    public void TY_G_not_reachable() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", REACHABLE, 12, 1, REACHABLE, 8, 10);
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("Vertex 1 is NOT reachable from vertex 12");
+      assertContains("Vertex 10 is reachable from vertex 8");
+    }
+
+    @Test
+    public void TY_B_reachable() throws Exception {
+      runCommands(OPEN_FILE, "b.txt", REACHABLE, 6, 0, REACHABLE, 0, 6);
+      assertContains("Successfully opened graph from file b.txt");
+      assertContains("Vertex 0 is reachable from vertex 6");
+      assertContains("Vertex 6 is NOT reachable from vertex 0");
+    }
+
+    @Test
+    public void TY_I_reachable_missing_vertex() throws Exception {
+      runCommands(OPEN_FILE, "i.txt", REACHABLE, 0, 7);
+      assertContains("Successfully opened graph from file i.txt");
+      assertContains("Error: vertex '7' not found in the graph");
+    }
+
+    @Test
+    public void TY_H_shortest_path() throws Exception {
+      runCommands(OPEN_FILE, "h.txt", SHORTEST_PATH, 1, 24);
+      assertContains("Successfully opened graph from file h.txt");
+      assertContains("Shortest path from vertex 1 to vertex 24 has length 6");
+    }
+
+    @Test
+    public void TY_G_shortest_path() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", SHORTEST_PATH, 1, 10, SHORTEST_PATH, 10, 1);
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("Shortest path from vertex 1 to vertex 10 has length 4");
+      assertContains("[1, 6, 2, 4, 10]");
+      assertContains("There is no path from vertex 10 to vertex 1");
+    }
+
+    @Test
+    public void TY_A_distances() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", DISTANCES, 1);
+      assertContains("Successfully opened graph from file a.txt");
+      assertContains("{0=-1, 1=0, 2=-1, 3=1, 4=1, 5=1}");
+    }
+
+    @Test
+    public void TY_G_off_heap_storage() throws Exception {
+      runCommands(
+          STORAGE, "off_heap", OPEN_FILE, "g.txt", GRAPH_SEARCH_IBFS, GRAPH_SEARCH_IDFS,
+          LIST_ROOT_VERTICIES);
+      assertContains("Graphs opened from now on are stored in direct memory outside the Java heap");
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("[1, 3, 5, 6, 9, 11, 7, 2, 12, 4, 8, 10]");
+      assertContains("[1, 3, 5, 7, 6, 2, 4, 10, 8, 9, 11, 12]");
+      assertContains("[1]");
+    }
+
+    @Test
+    public void TY_D_mapped_file_storage() throws Exception {
+      runCommands(
+          STORAGE, "mapped-file", OPEN_FILE, "d.txt", CHECK_EQUIVALENCE, LIST_ROOT_VERTICIES,
+          COMPUTE_EQUIVALENCE, 2);
+      assertContains("Graphs opened from now on are stored in memory mapped temporary files");
+      assertContains("The graph is an equivalence relation");
+      assertContains("[0, 1, 6, 8]");
+      assertContains("[1, 2, 3, 4, 5]");
+    }
+
+    @Test
+    public void TY_unknown_storage() throws Exception {
+      runCommands(STORAGE, "disk");
+      assertContains(
+          "Error: storage 'disk' not found, expected HEAP, COMPRESSED, OFF_HEAP or MAPPED_FILE");
+    }
+
+    @Test
+    public void TY_G_compressed_storage() throws Exception {
+      runCommands(
+          STORAGE, "compressed", OPEN_FILE, "g.txt", GRAPH_SEARCH_IBFS, GRAPH_SEARCH_IDFS,
+          CHECK_TRANSITIVITY, REACHABLE, 1, 12);
+      assertContains("Graphs opened from now on are stored on the Java heap as compressed");
+      assertContains("[1, 3, 5, 6, 9, 11, 7, 2, 12, 4, 8, 10]");
+      assertContains("[1, 3, 5, 7, 6, 2, 4, 10, 8, 9, 11, 12]");
+      assertContains("The graph is NOT transitive");
+      assertContains("Vertex 12 is reachable from vertex 1");
+    }
+
+    @Test
+    public void TY_G_rcm_order() throws Exception {
+      runCommands(
+          ORDER, "rcm", OPEN_FILE, "g.txt", GRAPH_SEARCH_IBFS, GRAPH_SEARCH_IDFS,
+          SHORTEST_PATH, 1, 10, LIST_ROOT_VERTICIES);
+      assertContains("Verticies of HEAP graphs opened from now on are numbered in reverse Cuthill");
+      assertContains("[1, 3, 5, 6, 9, 11, 7, 2, 12, 4, 8, 10]");
+      assertContains("[1, 3, 5, 7, 6, 2, 4, 10, 8, 9, 11, 12]");
+      assertContains("[1, 6, 2, 4, 10]");
+    }
+
+    @Test
+    public void TY_A_degree_order() throws Exception {
+      runCommands(ORDER, "degree", OPEN_FILE, "a.txt", DISTANCES, 1, GRAPH_SEARCH_RBFS);
+      assertContains("opened from now on are numbered by descending degree");
+      assertContains("{0=-1, 1=0, 2=-1, 3=1, 4=1, 5=1}");
+      assertContains("[0, 1, 2, 3, 4, 5]");
+    }
+
+    @Test
+    public void TY_unknown_order() throws Exception {
+      runCommands(ORDER, "random");
+      assertContains("Error: order 'random' not found, expected NONE, BFS, RCM or DEGREE");
+    }
+
+    @Test
+    public void TY_G_bfs_limit() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", GRAPH_SEARCH_IBFS_LIMIT, 4, GRAPH_SEARCH_IDFS_LIMIT, 5);
+      assertContains("[1, 3, 5, 6]");
+      assertContains("[1, 3, 5, 7, 6]");
+      assertDoesNotContain("[1, 3, 5, 6, 9");
+    }
+
+    @Test
+    public void TY_G_limit_beyond_size() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", GRAPH_SEARCH_IBFS_LIMIT, 100, GRAPH_SEARCH_IDFS_LIMIT, 0);
+      assertContains("[1, 3, 5, 6, 9, 11, 7, 2, 12, 4, 8, 10]");
+      assertContains("[]");
+    }
+
+    @Test
+    public void TY_G_invalid_limit() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", GRAPH_SEARCH_IBFS_LIMIT, "-1");
+      assertContains("Error: limit '-1' is not a whole number of zero or more");
+    }
+
+    @Test
+    public void TY_G_root_distances() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", ROOT_DISTANCES);
+      assertContains("Root 1 reaches 12 verticies");
+      assertContains("{1=0, 2=2, 3=1, 4=3, 5=1, 6=1, 7=2, 8=3, 9=1, 10=4, 11=1, 12=2}");
+    }
+
+    @Test
+    public void TY_I_root_distances() throws Exception {
+      runCommands(OPEN_FILE, "i.txt", ROOT_DISTANCES);
+      assertContains("Root 0 reaches 2 verticies");
+      assertContains("{10=0, 11=1}");
+      assertContains("Root 100 reaches 2 verticies");
+      assertContains("{100=0, 101=1}");
+    }
+
+    @Test
+    public void TY_D_quotient() throws Exception {
+      runCommands(OPEN_FILE, "d.txt", QUOTIENT);
+      assertContains("The quotient graph has 4 verticies and 0 edges");
+      assertContains("[0, 1, 6, 8]");
+    }
+
+    @Test
+    public void TY_B_quotient() throws Exception {
+      runCommands(OPEN_FILE, "b.txt", QUOTIENT);
+      assertContains("The quotient graph has 2 verticies and 1 edges");
+      assertContains("[0, 6]");
+      assertContains("6 -> 0");
+    }
+
+    @Test
+    public void TY_W_integer_shortest_path() throws Exception {
+      runCommands(OPEN_FILE, "w.txt", SHORTEST_PATH, "0", "19");
+      assertContains("Shortest path from vertex 0 to vertex 19 has length 10");
+      assertContains("[0, 2, 4, 5, 7, 9, 11, 13, 15, 17, 19]");
+    }
+
+    @Test
+    public void TY_W_non_canonical_vertex() throws Exception {
+      runCommands(OPEN_FILE, "w.txt", REACHABLE, "0", "019");
+      assertContains("Error: vertex '019' not found in the graph");
+    }
+
+    @Test
+    public void TY_D_analyze() throws Exception {
+      runCommands(OPEN_FILE, "d.txt", ANALYZE);
+      assertContains("The graph is an equivalence relation");
+      assertContains("The graph is NOT a partial order");
+      assertContains("The graph has 4 root verticies");
+      assertContains("The graph has 4 equivalence classes");
+    }
+
+    @Test
+    public void TY_I_analyze() throws Exception {
+      runCommands(STORAGE, "compressed", OPEN_FILE, "i.txt", ANALYZE);
+      assertContains("The graph is transitive");
+      assertContains("The graph is antisymmetric");
+      assertContains("The graph has 6 root verticies");
+      assertContains("The graph has 0 equivalence classes");
+    }
+
+    @Test
+    public void TY_E_list_verticies_edges() throws Exception {
+      runCommands(OPEN_FILE, "e.txt", LIST_VERTICIES_EDGES);
+      assertContains("Verticies:");
+      assertContains("\t0 -> 0");
+      assertContains("\t3 -> 4");
+      assertContains("\t4 -> 4");
+    }
+
+    @Test
+    public void TY_A_edge_list() throws Exception {
+      runCommands(OPEN_FILE, "a.el", GRAPH_SEARCH_IBFS, LIST_ROOT_VERTICIES);
+      assertContains("Successfully opened graph from file a.el");
+      assertContains("[0, 1, 2, 3, 4, 5]");
+      assertContains("[0]");
+    }
+
+    @Test
+    public void TY_P_matrix_market() throws Exception {
+      runCommands(
+          OPEN_FILE, "p.mtx", CHECK_SYMMETRY, SHORTEST_PATH, "1", "3", LIST_VERTICIES_EDGES);
+      assertContains("The graph is symmetric");
+      assertContains("Shortest path from vertex 1 to vertex 3 has length 2");
+      assertContains("\t4 -> 4");
+    }
+
+    @Test
+    public void TY_invalid_edge_list() throws Exception {
+      runCommands(OPEN_FILE, "bad.el");
+      assertContains("Error: file 'bad.el' could not be read, expected an integer on line 2");
+      assertDoesNotContain("Successfully opened graph");
+    }
+
+    @Test
+    public void TY_A_open_file_async() throws Exception {
+      runCommands(OPEN_FILE_ASYNC, "a.txt", WAIT_LOAD, LIST_ROOT_VERTICIES);
+      assertContains("Opening file a.txt in the background");
+      assertContains("Successfully opened graph from file a.txt");
+      assertContains("[0]");
+    }
+
+    @Test
+    public void TY_open_file_async_not_found() throws Exception {
+      runCommands(OPEN_FILE_ASYNC, "missing.txt", WAIT_LOAD, LOAD_STATUS, CANCEL_LOAD);
+      assertContains("Error: file 'missing.txt' not found in `testcases` folder");
+      assertContains("Error: no file is opening in the background");
+      assertDoesNotContain("Successfully opened graph");
+    }
+
+    @Test
+    public void TY_A_watch() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", WATCH, WATCH, CHECK_REFLEXIVITY, UNWATCH, UNWATCH);
+      assertContains("Watching the open file for changes");
+      assertContains("The graph is NOT reflexive");
+      assertContains("Stopped watching the open file");
+      assertContains("Error: no file is being watched");
+      assertDoesNotContain("changed:");
+    }
+
+    @Test
+    public void TY_watch_no_file() throws Exception {
+      runCommands(WATCH, UNWATCH);
+      assertContains("Error: no valid file open");
+      assertDoesNotContain("Watching the open file for changes");
+    }
+
+    @Test
+    public void TY_D_equivalence_batch() throws Exception {
+      runCommands(OPEN_FILE, "d.txt", COMPUTE_EQUIVALENCE_BATCH, "6,2,99,0");
+      assertContains("[6, 7]");
+      assertContains("[1, 2, 3, 4, 5]");
+      assertContains("[]");
+      assertContains("[0]");
+    }
+
+    @Test
+    public void TY_D_equivalence_batch_compressed() throws Exception {
+      runCommands(
+          STORAGE, "compressed", OPEN_FILE, "d.txt", COMPUTE_EQUIVALENCE_BATCH, "x,3,7");
+      assertContains("[]");
+      assertContains("[1, 2, 3, 4, 5]");
+      assertContains("[6, 7]");
+    }
+
+    @Test
+    public void TY_A_equivalence_batch() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", COMPUTE_EQUIVALENCE_BATCH, "1,2");
+      assertContains("[]");
+      assertDoesNotContain("[1, 2]");
+    }
+
+    @Test
+    public void TY_A_flight_recorder_events() throws Exception {
+      final Path dump = Files.createTempFile("events", ".jfr");
+      final List<RecordedEvent> events;
+
+      try (Recording recording = new Recording()) {
+        for (final String event : List.of("Parse", "Build", "PropertyCheck", "Query")) {
+          recording.enable("nz.ac.auckland.se281." + event).withoutThreshold();
+        }
+
+        recording.start();
+        runCommands(OPEN_FILE, "a.txt", CHECK_REFLEXIVITY, LIST_ROOT_VERTICIES, GRAPH_SEARCH_IBFS);
+        recording.stop();
+        recording.dump(dump);
+        events = RecordingFile.readAllEvents(dump);
+      } finally {
+        Files.delete(dump);
+      }
+
+      final List<String> names = new ArrayList<>();
+
+      for (final RecordedEvent event : events) {
+        names.add(event.getEventType().getName());
+        assertEquals("testcases/a.txt", event.getString("file").replace('\\', '/'));
+        assertTrue(event.getInt("verticies") > 0);
+
+        if (event.hasField("property")) {
+          assertEquals("reflexive", event.getString("property"));
+        }
+
+        if (event.hasField("query") && event.getString("query").equals("roots")) {
+          assertEquals(1, event.getInt("resultSize"));
+        }
+      }
+
+      assertEquals(
+          List.of(
+              "nz.ac.auckland.se281.Parse",
+              "nz.ac.auckland.se281.Build",
+              "nz.ac.auckland.se281.PropertyCheck",
+              "nz.ac.auckland.se281.Query",
+              "nz.ac.auckland.se281.Query"),
+          names);
+    }
+
+    @Test
+    public void TY_A_memory() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", MEMORY, REACHABLE, "0", "1", MEMORY);
+      assertContains("Estimated memory of the graph from file a.txt:");
+      assertContains("file vertex numbers: 40 bytes");
+      assertContains("file edges: 80 bytes");
+      assertDoesNotContain("file vertex names");
+      assertContains("adjacency:");
+      assertContains("reachability index: 288 bytes");
+      assertContains("of which 0 bytes are off the heap");
+      assertContains("Projected for e.txt, 1.16 times the size on disk:");
+    }
+
+    @Test
+    public void TY_P_memory_off_heap() throws Exception {
+      runCommands(STORAGE, "off_heap", OPEN_FILE, "p.mtx", MEMORY);
+      assertContains("Estimated memory of the graph from file p.mtx:");
+      assertContains("of which 168 bytes are off the heap");
+      assertContains("Projected for a file twice the size on disk:");
+      assertDoesNotContain("reachability index");
+    }
+
+    @Test
+    public void TY_A_degree_stats() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", DEGREE_STATS);
+      assertContains("Out degree: min 0, max 3, mean 0.83");
+      assertContains("In degree: min 0, max 1, mean 0.83");
+      assertContains("The graph has 1 source verticies, 4 sink verticies and 0 isolated verticies");
+      assertContains("2-3: 2 out, 0 in");
+    }
+
+    @Test
+    public void TY_D_degree_stats_compressed() throws Exception {
+      runCommands(STORAGE, "compressed", OPEN_FILE, "d.txt", DEGREE_STATS);
+      assertContains("Out degree: min 1, max 5, mean 3.44");
+      assertContains("The graph has 0 source verticies, 0 sink verticies and 0 isolated verticies");
+      assertContains("4-7: 5 out, 5 in");
+    }
+
+    @Test
+    public void TY_A_external_bfs() throws Exception {
+      runCommands(
+          SCRATCH,
+          System.getProperty("java.io.tmpdir"),
+          "2",
+          GRAPH_SEARCH_EXTERNAL_BFS,
+          "a.el",
+          OPEN_FILE,
+          "a.el",
+          GRAPH_SEARCH_IBFS);
+      assertContains("sort 2 pairs at a time");
+      assertEquals(2, getCaptureOut().split("\\[0, 1, 2, 3, 4, 5\\]", -1).length - 1);
+    }
+
+    @Test
+    public void TY_A_external_bfs_not_edge_list() throws Exception {
+      runCommands(GRAPH_SEARCH_EXTERNAL_BFS, "a.txt", SCRATCH, "missing", "10");
+      assertContains("only edge lists can be searched without opening them");
+      assertContains("Error: scratch directory 'missing' not found");
+    }
+
+    @Test
+    public void TY_A_root_levels() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", ROOT_LEVELS);
+      assertContains("The roots reach 6 of 6 verticies");
+      assertContains("{0=0, 1=1, 2=1, 3=2, 4=2, 5=2}");
+    }
+
+    @Test
+    public void TY_E_root_levels_unreached() throws Exception {
+      runCommands(STORAGE, "compressed", OPEN_FILE, "e.txt", ROOT_LEVELS);
+      assertContains("The roots reach 0 of 5 verticies");
+      assertContains("{0=-1, 1=-1, 2=-1, 3=-1, 4=-1}");
+    }
+
+    @Test
+    public void TY_A_components() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", COMPONENTS);
+      assertContains("The graph has 1 weakly connected components");
+      assertContains("Component 0: 6 verticies, smallest vertex 0");
+    }
+
+    @Test
+    public void TY_E_components_compressed() throws Exception {
+      runCommands(STORAGE, "compressed", OPEN_FILE, "e.txt", COMPONENTS);
+      assertContains("The graph has 3 weakly connected components");
+      assertContains("Component 1: 1 verticies, smallest vertex 2");
+      assertContains("Component 2: 2 verticies, smallest vertex 3");
+    }
+
+    @Test
+    public void TY_N_non_integer_verticies() throws Exception {
+      runCommands(
+          OPEN_FILE, "n.txt", LIST_VERTICIES_EDGES, LIST_ROOT_VERTICIES, CHECK_REFLEXIVITY,
+          GRAPH_SEARCH_IBFS);
+      assertContains("Successfully opened graph from file n.txt");
+      assertContains("\t\"15\" -> 2");
+      assertContains("[-3, \"15\"]");
+      assertContains("The graph is NOT reflexive");
+      assertContains("[-3, \"15\", 08, 2, 1.5, 3, 8]");
+      assertDoesNotContain("could not be read");
+    }
+
+    @Test
+    public void TY_watch_truncated_file() throws Exception {
+      final Path file = Path.of("testcases", "watched.txt");
+      final Path saving = Path.of("testcases", "watched.txt.part");
+      Files.writeString(file, "digraph g {\n 1 -> 2;\n 2 -> 3;\n}\n");
+
+      try {
+        final Main main = new Main(new Scanner(""));
+        main.processCommand("open-file watched.txt");
+        main.processCommand("watch");
+
+        // The save is moved into place whole, so the only change seen is the truncated file.
+        Files.writeString(saving, "digraph g {\n 1 -> 2;\n 2 -> \n");
+        Files.move(saving, file, StandardCopyOption.ATOMIC_MOVE);
+
+        for (int i = 0; i < 50 && !getCaptureOut().contains("could not be read"); i++) {
+          Thread.sleep(100);
+          main.processCommand("info");
+        }
+
+        main.processCommand("list-root-verticies");
+        main.processCommand("exit");
+
+        // The same file is also reported when it is opened, rather than ending the session.
+        runCommands(OPEN_FILE, "watched.txt", CHECK_REFLEXIVITY);
+      } finally {
+        Files.deleteIfExists(saving);
+        Files.deleteIfExists(file);
+      }
+
+      assertContains("Error: file 'watched.txt' could not be read");
+      assertContains("[1]");
+      assertDoesNotContain("changed:");
+      assertContains("Error: no valid file open");
+    }
+
+    @Test
+    public void TY_star_memory_compressed() throws Exception {
+      // A star has one list as long as the graph, which compressed storage must not copy per level.
+      final Path star = Files.createTempFile("star", ".el");
+      final StringBuilder edges = new StringBuilder();
+
+      for (int leaf = 1; leaf < 20000; leaf++) {
+        edges.append("0 ").append(leaf).append("\n").append(leaf).append(" 0\n");
+      }
+
+      Files.writeString(star, edges);
+
+      try {
+        runCommands(
+            OPEN_FILE, star.toAbsolutePath(), MEMORY, STORAGE, "compressed", OPEN_FILE,
+            star.toAbsolutePath(), CHECK_SYMMETRY, MEMORY);
+      } finally {
+        Files.delete(star);
+      }
+
+      final List<Long> adjacency = new ArrayList<>();
+
+      for (final String line : getCaptureOut().split(NEW_LINE)) {
+        if (line.trim().startsWith("adjacency: ")) {
+          adjacency.add(Long.parseLong(line.trim().split(" ")[1]));
+        }
+      }
+
+      assertContains("The graph is symmetric");
+      assertEquals(2, adjacency.size());
+      assertTrue(adjacency.toString(), adjacency.get(1) < adjacency.get(0) / 2);
+    }
   }
 }
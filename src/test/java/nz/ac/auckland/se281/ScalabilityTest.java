@@ -0,0 +1,296 @@
+package nz.ac.auckland.se281;
+
+import static nz.ac.auckland.se281.Command.*;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import nz.ac.auckland.se281.datastructures.GraphStorage;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Runs each command on generated graphs of doubling size, fits how fast its running time grows
+ * with the size of the graph, and fails if it grows faster than the budget of the command. Each
+ * command is run on both the primitive graph and the generic graph. The suite takes minutes, so the
+ * normal test phase skips it, and it is run with "mvn -Pscalability test".
+ */
+@RunWith(Parameterized.class)
+public class ScalabilityTest {
+  /** Near linear, which allows for sorting and for caches missing more often on larger graphs. */
+  private static final double LINEAR = 1.5;
+
+  /** Near quadratic, the worst case of checking transitivity, which checks each pair of edges. */
+  private static final double QUADRATIC = 2.2;
+
+  private static final int[] SIZES = {1 << 15, 1 << 16, 1 << 17, 1 << 18};
+
+  private static final int REPEATS = 3;
+
+  private static final int DAG_DEGREE = 4;
+
+  private static final int CLASS_SIZE = 8;
+
+  private static Path directory;
+
+  /** The shapes of the generated graphs, each of which makes some commands check every edge. */
+  private enum Shape {
+    /** A path through every vertex in order, with more edges from each vertex to later ones. */
+    DAG,
+
+    /** Disjoint equivalence classes, each with an edge from every member to every member. */
+    CLASSES
+  }
+
+  /** Runs a command on an open graph. */
+  private interface Action {
+    /**
+     * Runs the command.
+     *
+     * @param calculator The calculator with the graph open.
+     * @param size The number of verticies of the graph.
+     */
+    void run(GraphCalculator calculator, int size);
+  }
+
+  @Parameter(0)
+  public Command command;
+
+  @Parameter(1)
+  public Shape shape;
+
+  @Parameter(2)
+  public double budget;
+
+  @Parameter(3)
+  public Action action;
+
+  @Parameter(4)
+  public GraphStorage storage;
+
+  @Parameters(name = "{0} {4}")
+  public static Collection<Object[]> commands() {
+    // Each command is run on the shape of graph that is slowest for it. A null action times
+    // opening the file.
+    final Object[][] table = {
+      {OPEN_FILE, Shape.DAG, LINEAR, null},
+      {LIST_ROOT_VERTICIES, Shape.CLASSES, QUADRATIC, of(GraphCalculator::printRoots)},
+      {CHECK_REFLEXIVITY, Shape.CLASSES, LINEAR, of(GraphCalculator::printReflexitivity)},
+      {CHECK_SYMMETRY, Shape.CLASSES, LINEAR, of(GraphCalculator::printSymmetry)},
+      {CHECK_TRANSITIVITY, Shape.CLASSES, QUADRATIC, of(GraphCalculator::printTransitivity)},
+      {CHECK_ANTISYMMETRY, Shape.DAG, LINEAR, of(GraphCalculator::printAntiSymmetry)},
+      {CHECK_EQUIVALENCE, Shape.CLASSES, QUADRATIC, of(GraphCalculator::printEquivalence)},
+      {ANALYZE, Shape.CLASSES, QUADRATIC, of(GraphCalculator::printAnalysis)},
+      {DEGREE_STATS, Shape.DAG, LINEAR, of(GraphCalculator::printDegreeStatistics)},
+      {COMPONENTS, Shape.DAG, LINEAR, of(GraphCalculator::printComponents)},
+      {COMPUTE_EQUIVALENCE, Shape.CLASSES, QUADRATIC, of(c -> c.printEquivalenceClass("0"))},
+      {QUOTIENT, Shape.DAG, LINEAR, of(GraphCalculator::printQuotient)},
+      {GRAPH_SEARCH_IBFS, Shape.DAG, LINEAR, of(GraphCalculator::printIterativeBreadthFirstSearch)},
+      {GRAPH_SEARCH_IDFS, Shape.DAG, LINEAR, of(GraphCalculator::printDepthFirstSearch)},
+      {GRAPH_SEARCH_RBFS, Shape.DAG, LINEAR, of(GraphCalculator::printRecursiveBreadthFirstSearch)},
+      {GRAPH_SEARCH_RDFS, Shape.DAG, LINEAR, of(GraphCalculator::printRecursiveDepthFirstSearch)},
+      {REACHABLE, Shape.DAG, LINEAR, (Action) (c, n) -> c.printReachable("0", last(n))},
+      {SHORTEST_PATH, Shape.DAG, LINEAR, (Action) (c, n) -> c.printShortestPath("0", last(n))},
+      {DISTANCES, Shape.DAG, LINEAR, of(c -> c.printDistances("0"))},
+      {ROOT_DISTANCES, Shape.DAG, LINEAR, of(GraphCalculator::printRootDistances)},
+      {ROOT_LEVELS, Shape.DAG, LINEAR, of(GraphCalculator::printRootLevels)},
+    };
+
+    // Integer verticies on the heap are kept in the primitive graph, and otherwise in the generic
+    // graph.
+    final List<Object[]> commands = new ArrayList<>();
+
+    for (final GraphStorage storage : List.of(GraphStorage.HEAP, GraphStorage.COMPRESSED)) {
+      for (final Object[] row : table) {
+        commands.add(new Object[] {row[0], row[1], row[2], row[3], storage});
+      }
+    }
+
+    return commands;
+  }
+
+  @BeforeClass
+  public static void generateGraphs() throws IOException {
+    directory = Files.createTempDirectory("scalability");
+
+    for (final int size : SIZES) {
+      writeGraph(Shape.DAG, size);
+      writeGraph(Shape.CLASSES, size);
+    }
+  }
+
+  @AfterClass
+  public static void deleteGraphs() throws IOException {
+    for (final int size : SIZES) {
+      Files.deleteIfExists(getFile(Shape.DAG, size));
+      Files.deleteIfExists(getFile(Shape.CLASSES, size));
+    }
+
+    Files.deleteIfExists(directory);
+  }
+
+  @Test
+  public void growsWithinBudget() throws Exception {
+    // The smallest graph is run first so that the command is compiled before it is timed.
+    time(SIZES[0]);
+    time(SIZES[0]);
+
+    final double[] times = new double[SIZES.length];
+
+    for (int i = 0; i < SIZES.length; i++) {
+      times[i] = time(SIZES[i]);
+    }
+
+    final double exponent = fitExponent(times);
+    System.err.printf(
+        "%-24s %-10s grows as n^%.2f (budget n^%.1f)%n", command, storage, exponent, budget);
+
+    assertTrue(
+        String.format(
+            "%s on %s storage grew as n^%.2f, over its budget of n^%.1f",
+            command, storage, exponent, budget),
+        exponent <= budget);
+  }
+
+  /**
+   * Wraps a command that does not depend on the size of the graph.
+   *
+   * @param command The command.
+   * @return The action that runs the command.
+   */
+  private static Action of(final Consumer<GraphCalculator> command) {
+    return (calculator, size) -> command.accept(calculator);
+  }
+
+  /**
+   * Gets the last vertex of a generated graph.
+   *
+   * @param size The number of verticies of the graph.
+   * @return The last vertex.
+   */
+  private static String last(final int size) {
+    return String.valueOf(size - 1);
+  }
+
+  /**
+   * Times the command on a graph, taking the fastest of several runs so that the time is as free
+   * of garbage collection as it can be. Each run opens the file again, so nothing cached by an
+   * earlier run is reused.
+   *
+   * @param size The number of verticies of the graph.
+   * @return The time of the fastest run in nanoseconds.
+   */
+  private double time(final int size) throws IOException {
+    final String filename = getFile(shape, size).toString();
+    final PrintStream out = System.out;
+    long fastest = Long.MAX_VALUE;
+
+    // The output is formatted as usual but not printed.
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+    try {
+      for (int i = 0; i < REPEATS; i++) {
+        // Garbage left by earlier runs is collected first, so it is not timed with this run.
+        System.gc();
+        long start = System.nanoTime();
+        final GraphCalculator calculator = new GraphCalculator(filename, storage);
+
+        if (action != null) {
+          System.gc();
+          start = System.nanoTime();
+          action.run(calculator, size);
+        }
+
+        fastest = Math.min(fastest, System.nanoTime() - start);
+        calculator.close();
+      }
+    } finally {
+      System.setOut(out);
+    }
+
+    return fastest;
+  }
+
+  /**
+   * Fits the exponent k of the running time growing as n^k, as the slope of the line of least
+   * squares through the logarithms of the sizes and times.
+   *
+   * @param times The time taken on each size of graph.
+   * @return The exponent.
+   */
+  private static double fitExponent(final double[] times) {
+    double meanX = 0;
+    double meanY = 0;
+
+    for (int i = 0; i < SIZES.length; i++) {
+      meanX += Math.log(SIZES[i]) / SIZES.length;
+      meanY += Math.log(times[i]) / SIZES.length;
+    }
+
+    double covariance = 0;
+    double variance = 0;
+
+    for (int i = 0; i < SIZES.length; i++) {
+      final double x = Math.log(SIZES[i]) - meanX;
+      covariance += x * (Math.log(times[i]) - meanY);
+      variance += x * x;
+    }
+
+    return covariance / variance;
+  }
+
+  /**
+   * Gets the edge list file of a generated graph.
+   *
+   * @param shape The shape of the graph.
+   * @param size The number of verticies of the graph.
+   * @return The path of the file, which is absolute so it is not looked up in `testcases`.
+   */
+  private static Path getFile(final Shape shape, final int size) {
+    return directory.resolve(shape.name().toLowerCase() + "-" + size + ".el").toAbsolutePath();
+  }
+
+  /**
+   * Writes a generated graph to an edge list file. The graphs are the same on every run.
+   *
+   * @param shape The shape of the graph.
+   * @param size The number of verticies of the graph.
+   */
+  private static void writeGraph(final Shape shape, final int size) throws IOException {
+    final Random random = new Random(size);
+
+    try (BufferedWriter writer = Files.newBufferedWriter(getFile(shape, size))) {
+      for (int vertex = 0; vertex < size; vertex++) {
+        if (shape == Shape.CLASSES) {
+          final int first = vertex - vertex % CLASS_SIZE;
+
+          for (int member = first; member < Math.min(first + CLASS_SIZE, size); member++) {
+            writer.write(vertex + " " + member + "\n");
+          }
+        } else if (vertex + 1 < size) {
+          // The path makes the first vertex the only root, which reaches every other vertex.
+          writer.write(vertex + " " + (vertex + 1) + "\n");
+
+          for (int i = 1; i < DAG_DEGREE; i++) {
+            final int later = vertex + 1 + random.nextInt(size - vertex - 1);
+            writer.write(vertex + " " + later + "\n");
+          }
+        }
+      }
+    }
+  }
+}
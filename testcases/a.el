@@ -0,0 +1,6 @@
+# 0, 1, 2, 3, 4, 5
+0 1
+0 2
+1 3
+1 4
+1 5